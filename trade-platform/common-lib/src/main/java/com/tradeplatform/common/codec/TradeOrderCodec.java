@@ -0,0 +1,342 @@
+package com.tradeplatform.common.codec;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.price.FixedPointPrice;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary wire format for {@link TradeOrderDTO}, used on Kafka instead of JSON where selected.
+ * <p>
+ * A message is a header (magic byte, schema version, root block length), a fixed-size root block holding
+ * every fixed-width field at a fixed offset, and the variable-length strings, each prefixed with its UTF-8
+ * length. Prices are fixed-point ticks, times are nanoseconds since the epoch (UTC), enums are ordinals and
+ * absent values use sentinels, so decoding needs no parsing and no reflection.
+ * <p>
+ * The schema evolves by appending only: new fixed fields go at the end of the root block and new strings
+ * after the last one, and enum constants may only be appended. Decoders skip a longer root block and
+ * trailing strings they do not know, and treat fields missing from an older, shorter message as absent.
+ * Such changes keep the schema version; it is only raised for a change that cannot be read this way, and
+ * messages of any other version are rejected.
+ * <p>
+ * Times must lie within the range of a long of nanoseconds (years 1677 to 2262) and prices within
+ * {@link FixedPointPrice#SCALE} decimal places; encoding rejects anything else rather than corrupt or round it.
+ * <p>
+ * Encoding keeps no state, so one instance may encode from many threads. Decoding is not thread-safe:
+ * each instance keeps a small cache of decoded symbol and user ID strings so repeated values are not
+ * allocated again, so decode with one instance per thread, such as one per Kafka deserializer.
+ */
+public final class TradeOrderCodec {
+
+    /**
+     * First byte of every message; chosen so it can never start a JSON document.
+     */
+    public static final byte MAGIC = (byte) 0xB7;
+
+    /**
+     * Schema version written and accepted by this codec.
+     */
+    public static final byte VERSION = 1;
+
+    private static final int HEADER_LENGTH = 4;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final byte NULL_BYTE = -1;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int MAX_STRING_BYTES = 0xFFFE;
+    private static final int MAX_CACHED_STRING_BYTES = 32;
+    private static final int STRING_CACHE_SIZE = 1024;
+
+    // Root block layout, version 1
+    private static final int ORDER_ID_MSB = 0;
+    private static final int ORDER_ID_LSB = 8;
+    private static final int ORDER_TYPE = 16;
+    private static final int SIDE = 17;
+    private static final int STATUS = 18;
+    private static final int QUANTITY = 19;
+    private static final int PRICE = 23;
+    private static final int STOP_PRICE = 31;
+    private static final int CREATED_AT = 39;
+    private static final int UPDATED_AT = 47;
+    private static final int EXECUTED_AT = 55;
+    private static final int TRIGGERED_AT = 63;
+    private static final int EXPIRES_AT = 71;
+    private static final int EXECUTION_PRICE = 79;
+    private static final int FILLED_QUANTITY = 87;
+    private static final int REMAINING_QUANTITY = 91;
+    private static final int ROOT_BLOCK_LENGTH = 95;
+
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final byte[][] cachedBytes = new byte[STRING_CACHE_SIZE][];
+    private final String[] cachedStrings = new String[STRING_CACHE_SIZE];
+
+    /**
+     * Tells whether a serialized message is in this binary format rather than JSON.
+     *
+     * @param data the serialized message
+     * @return true if the message starts with the binary magic byte
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    /**
+     * Encodes an order into a new byte array.
+     *
+     * @param order the order to encode
+     * @return the encoded message
+     * @throws IllegalArgumentException if a field cannot be represented in this format
+     */
+    public byte[] encode(TradeOrderDTO order) {
+        byte[] userId = utf8(order.getUserId());
+        byte[] symbol = utf8(order.getSymbol());
+        byte[] notes = utf8(order.getNotes());
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + ROOT_BLOCK_LENGTH
+                + 3 * Short.BYTES + length(userId) + length(symbol) + length(notes));
+        encode(order, userId, symbol, notes, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Encodes an order at the buffer's position.
+     *
+     * @param order the order to encode
+     * @param buffer the buffer to write to, which must have enough space
+     * @throws IllegalArgumentException if a field cannot be represented in this format
+     */
+    public void encode(TradeOrderDTO order, ByteBuffer buffer) {
+        encode(order, utf8(order.getUserId()), utf8(order.getSymbol()), utf8(order.getNotes()), buffer);
+    }
+
+    /**
+     * Decodes a message into a new order.
+     *
+     * @param data the encoded message
+     * @return the decoded order
+     * @throws IllegalArgumentException if the message is not in this format or of another schema version
+     */
+    public TradeOrderDTO decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data), new TradeOrderDTO());
+    }
+
+    /**
+     * Decodes a message from the buffer's position into an existing order, replacing all its fields, so
+     * callers that process one message at a time can reuse a single instance.
+     *
+     * @param buffer the buffer holding the encoded message
+     * @param target the order to decode into
+     * @return the target order
+     * @throws IllegalArgumentException if the message is not in this format or of another schema version
+     */
+    public TradeOrderDTO decode(ByteBuffer buffer, TradeOrderDTO target) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_LENGTH || buffer.get(start) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary trade order message");
+        }
+        if (buffer.get(start + 1) != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary trade order schema version "
+                    + Byte.toUnsignedInt(buffer.get(start + 1)));
+        }
+        int blockLength = Short.toUnsignedInt(buffer.getShort(start + 2));
+        int block = start + HEADER_LENGTH;
+        if (buffer.limit() < block + blockLength) {
+            throw new IllegalArgumentException("Truncated binary trade order message");
+        }
+
+        long msb = getLong(buffer, block, blockLength, ORDER_ID_MSB);
+        long lsb = getLong(buffer, block, blockLength, ORDER_ID_LSB);
+        target.setOrderId(msb == NULL_LONG ? null : new UUID(msb, lsb));
+        target.setOrderType(getEnum(ORDER_TYPES, getByte(buffer, block, blockLength, ORDER_TYPE)));
+        target.setSide(getEnum(SIDES, getByte(buffer, block, blockLength, SIDE)));
+        target.setStatus(getEnum(STATUSES, getByte(buffer, block, blockLength, STATUS)));
+        target.setQuantity(getInt(buffer, block, blockLength, QUANTITY));
+        target.setPrice(toPrice(getLong(buffer, block, blockLength, PRICE)));
+        target.setStopPrice(toPrice(getLong(buffer, block, blockLength, STOP_PRICE)));
+        target.setCreatedAt(toTime(getLong(buffer, block, blockLength, CREATED_AT)));
+        target.setUpdatedAt(toTime(getLong(buffer, block, blockLength, UPDATED_AT)));
+        target.setExecutedAt(toTime(getLong(buffer, block, blockLength, EXECUTED_AT)));
+        target.setTriggeredAt(toTime(getLong(buffer, block, blockLength, TRIGGERED_AT)));
+        target.setExpiresAt(toTime(getLong(buffer, block, blockLength, EXPIRES_AT)));
+        target.setExecutionPrice(toPrice(getLong(buffer, block, blockLength, EXECUTION_PRICE)));
+        target.setFilledQuantity(getInt(buffer, block, blockLength, FILLED_QUANTITY));
+        target.setRemainingQuantity(getInt(buffer, block, blockLength, REMAINING_QUANTITY));
+
+        buffer.position(block + blockLength);
+        target.setUserId(getString(buffer, true));
+        target.setSymbol(getString(buffer, true));
+        target.setNotes(getString(buffer, false));
+        return target;
+    }
+
+    private void encode(TradeOrderDTO order, byte[] userId, byte[] symbol, byte[] notes, ByteBuffer buffer) {
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.putShort((short) ROOT_BLOCK_LENGTH);
+
+        UUID orderId = order.getOrderId();
+        buffer.putLong(orderId != null ? orderId.getMostSignificantBits() : NULL_LONG);
+        buffer.putLong(orderId != null ? orderId.getLeastSignificantBits() : 0);
+        buffer.put(order.getOrderType() != null ? (byte) order.getOrderType().ordinal() : NULL_BYTE);
+        buffer.put(order.getSide() != null ? (byte) order.getSide().ordinal() : NULL_BYTE);
+        buffer.put(order.getStatus() != null ? (byte) order.getStatus().ordinal() : NULL_BYTE);
+        buffer.putInt(order.getQuantity() != null ? order.getQuantity() : NULL_INT);
+        buffer.putLong(toTicks(order.getPrice()));
+        buffer.putLong(toTicks(order.getStopPrice()));
+        buffer.putLong(toNanos(order.getCreatedAt()));
+        buffer.putLong(toNanos(order.getUpdatedAt()));
+        buffer.putLong(toNanos(order.getExecutedAt()));
+        buffer.putLong(toNanos(order.getTriggeredAt()));
+        buffer.putLong(toNanos(order.getExpiresAt()));
+        buffer.putLong(toTicks(order.getExecutionPrice()));
+        buffer.putInt(order.getFilledQuantity() != null ? order.getFilledQuantity() : NULL_INT);
+        buffer.putInt(order.getRemainingQuantity() != null ? order.getRemainingQuantity() : NULL_INT);
+
+        putString(buffer, userId);
+        putString(buffer, symbol);
+        putString(buffer, notes);
+    }
+
+    private static long getLong(ByteBuffer buffer, int block, int blockLength, int offset) {
+        return offset + Long.BYTES <= blockLength ? buffer.getLong(block + offset) : NULL_LONG;
+    }
+
+    private static Integer getInt(ByteBuffer buffer, int block, int blockLength, int offset) {
+        int value = offset + Integer.BYTES <= blockLength ? buffer.getInt(block + offset) : NULL_INT;
+        return value == NULL_INT ? null : value;
+    }
+
+    private static byte getByte(ByteBuffer buffer, int block, int blockLength, int offset) {
+        return offset < blockLength ? buffer.get(block + offset) : NULL_BYTE;
+    }
+
+    private static <E> E getEnum(E[] values, byte ordinal) {
+        // Constants added by a newer writer are unknown here and treated as absent
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal] : null;
+    }
+
+    private static BigDecimal toPrice(long ticks) {
+        return ticks == NULL_LONG ? null : FixedPointPrice.toBigDecimal(ticks);
+    }
+
+    private static long toTicks(BigDecimal price) {
+        if (price == null) {
+            return NULL_LONG;
+        }
+        if (price.stripTrailingZeros().scale() > FixedPointPrice.SCALE) {
+            throw new IllegalArgumentException("Price " + price + " has more than " + FixedPointPrice.SCALE
+                    + " decimal places");
+        }
+        try {
+            long ticks = FixedPointPrice.fromBigDecimal(price);
+            if (ticks != NULL_LONG) {
+                return ticks;
+            }
+        } catch (ArithmeticException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Price " + price + " is out of range");
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        if (time == null) {
+            return NULL_LONG;
+        }
+        try {
+            long nanos = Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L),
+                    time.getNano());
+            if (nanos != NULL_LONG) {
+                return nanos;
+            }
+        } catch (ArithmeticException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Time " + time + " is out of range");
+    }
+
+    private static LocalDateTime toTime(long nanos) {
+        if (nanos == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long to encode");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes != null ? bytes.length : 0;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) NULL_STRING);
+            return;
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed string, or null if it is absent or the message ends before it.
+     *
+     * @param buffer the buffer positioned at the string
+     * @param cached whether to look the value up in, and add it to, the string cache
+     * @return the string
+     */
+    private String getString(ByteBuffer buffer, boolean cached) {
+        if (buffer.remaining() < Short.BYTES) {
+            return null;
+        }
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("Truncated binary trade order message");
+        }
+        if (!cached || length > MAX_CACHED_STRING_BYTES || !buffer.hasArray()) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        byte[] array = buffer.array();
+        int from = buffer.arrayOffset() + buffer.position();
+        int hash = 1;
+        for (int i = from; i < from + length; i++) {
+            hash = 31 * hash + array[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+        byte[] candidate = cachedBytes[slot];
+        buffer.position(buffer.position() + length);
+        if (candidate != null && Arrays.equals(candidate, 0, candidate.length, array, from, from + length)) {
+            return cachedStrings[slot];
+        }
+        byte[] bytes = Arrays.copyOfRange(array, from, from + length);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        cachedBytes[slot] = bytes;
+        cachedStrings[slot] = value;
+        return value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.tradeplatform.common.codec;
+
+/**
+ * Serialization format of the messages on a Kafka topic.
+ */
+public enum WireFormat {
+    /**
+     * JSON, readable by any consumer.
+     */
+    JSON,
+
+    /**
+     * The compact binary format of {@link TradeOrderCodec}.
+     */
+    BINARY
+}
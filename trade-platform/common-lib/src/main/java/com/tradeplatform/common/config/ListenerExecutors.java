@@ -0,0 +1,27 @@
+package com.tradeplatform.common.config;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Executors for the Kafka listener containers the services define themselves.
+ * Those container factories are not created by Spring Boot, so {@code spring.threads.virtual.enabled} is not
+ * applied to them and has to be honoured by setting one of these executors explicitly.
+ */
+public final class ListenerExecutors {
+
+    private static final String THREAD_NAME_PREFIX = "kafka-listener-";
+
+    private ListenerExecutors() {
+    }
+
+    /**
+     * Creates an executor that runs each listener container's consumer loop on its own virtual thread.
+     *
+     * @return the listener task executor
+     */
+    public static SimpleAsyncTaskExecutor virtualThreads() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tradeplatform.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object reporting a single fill of a trade order.
+ * A report is a delta: it carries the quantity and price of one fill, plus the order's running totals
+ * after it, so consumers can apply fills without reading or rewriting the whole order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionReportDTO {
+
+    /**
+     * ID of the order that was filled.
+     */
+    private UUID orderId;
+
+    /**
+     * User ID of the trader who placed the order.
+     */
+    private String userId;
+
+    /**
+     * Symbol/ticker of the security traded.
+     */
+    private String symbol;
+
+    /**
+     * Side of the order (BUY or SELL).
+     */
+    private OrderSide side;
+
+    /**
+     * Status of the order after this fill: PARTIALLY_FILLED or FILLED.
+     */
+    private OrderStatus status;
+
+    /**
+     * Quantity executed by this fill.
+     */
+    private Integer fillQuantity;
+
+    /**
+     * Price of this fill.
+     */
+    private BigDecimal fillPrice;
+
+    /**
+     * Total quantity filled on the order, including this fill.
+     */
+    private Integer filledQuantity;
+
+    /**
+     * Quantity of the order still open after this fill.
+     */
+    private Integer remainingQuantity;
+
+    /**
+     * Average execution price of the order, including this fill.
+     */
+    private BigDecimal averagePrice;
+
+    /**
+     * Time of the fill.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime executedAt;
+
+    /**
+     * Sequence number of this fill among the fills of the user's position in the symbol.
+     * Carried through to the position updates of the Portfolio Service, so the Trade Processor can tell
+     * which of its own fills an update already includes.
+     */
+    private Long positionSequence;
+}
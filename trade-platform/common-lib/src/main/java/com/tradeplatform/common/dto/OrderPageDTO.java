@@ -0,0 +1,28 @@
+package com.tradeplatform.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object holding one page of an order listing.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDTO {
+
+    /**
+     * Orders on this page, newest first.
+     */
+    private List<OrderSummaryDTO> orders;
+
+    /**
+     * Opaque cursor to pass as {@code after} to fetch the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,43 @@
+package com.tradeplatform.common.dto;
+
+/**
+ * Enum representing the side of a trade order in the order book.
+ */
+public enum OrderSide {
+    /**
+     * Buy side - the order bids for securities.
+     */
+    BUY,
+
+    /**
+     * Sell side - the order offers securities.
+     */
+    SELL;
+
+    /**
+     * Resolves the side of an order from its type and explicit side.
+     * BUY and SELL order types imply their side; all other types rely on the explicit side.
+     *
+     * @param orderType the type of the order
+     * @param side the explicit side of the order, may be null
+     * @return the resolved side, or null if it cannot be determined
+     */
+    public static OrderSide resolve(OrderType orderType, OrderSide side) {
+        if (orderType == OrderType.BUY) {
+            return BUY;
+        }
+        if (orderType == OrderType.SELL) {
+            return SELL;
+        }
+        return side;
+    }
+
+    /**
+     * Returns the opposite side.
+     *
+     * @return SELL for BUY, BUY for SELL
+     */
+    public OrderSide opposite() {
+        return this == BUY ? SELL : BUY;
+    }
+}
@@ -0,0 +1,51 @@
+package com.tradeplatform.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object reporting the outcome of one order in a batch submission.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSubmissionResultDTO {
+
+    /**
+     * Position of the order in the submitted batch, starting at 0.
+     */
+    private long index;
+
+    /**
+     * Whether the order was accepted and published for processing.
+     */
+    private boolean accepted;
+
+    /**
+     * ID assigned to the order, if it was accepted or got as far as publishing.
+     */
+    private UUID orderId;
+
+    /**
+     * Status of the order; PENDING once accepted.
+     */
+    private OrderStatus status;
+
+    /**
+     * Reason the order was rejected.
+     */
+    private String message;
+
+    /**
+     * Validation errors by field, if the order was rejected as invalid.
+     */
+    private Map<String, String> errors;
+}
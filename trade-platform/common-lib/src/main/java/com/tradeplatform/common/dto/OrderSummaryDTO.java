@@ -0,0 +1,96 @@
+package com.tradeplatform.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object summarizing a trade order in a listing.
+ * Holds only the columns an order list shows, so listings can be read as a projection
+ * without loading full entities.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+
+    /**
+     * Unique identifier for the order.
+     */
+    private UUID orderId;
+
+    /**
+     * User ID of the trader who placed the order.
+     */
+    private String userId;
+
+    /**
+     * Symbol/ticker of the security being traded.
+     */
+    private String symbol;
+
+    /**
+     * Type of the order.
+     */
+    private OrderType orderType;
+
+    /**
+     * Side of the order, if set.
+     */
+    private OrderSide side;
+
+    /**
+     * Current status of the order.
+     */
+    private OrderStatus status;
+
+    /**
+     * Quantity of securities to trade.
+     */
+    private Integer quantity;
+
+    /**
+     * Limit price of the order, if any.
+     */
+    private BigDecimal price;
+
+    /**
+     * Average price at which the order was executed.
+     */
+    private BigDecimal executionPrice;
+
+    /**
+     * Quantity that has been filled so far.
+     */
+    private Integer filledQuantity;
+
+    /**
+     * Remaining quantity to be filled.
+     */
+    private Integer remainingQuantity;
+
+    /**
+     * Time when the order was created.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    /**
+     * Time when the order was last updated.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Time when the order was executed (filled).
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime executedAt;
+}
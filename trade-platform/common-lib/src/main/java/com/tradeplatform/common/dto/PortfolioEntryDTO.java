@@ -89,4 +89,9 @@ public class PortfolioEntryDTO {
      * Additional notes or comments about the portfolio entry.
      */
     private String notes;
+
+    /**
+     * Position sequence of the last fill applied to this entry, as assigned by the Trade Processor.
+     */
+    private Long positionSequence;
 }
\ No newline at end of file
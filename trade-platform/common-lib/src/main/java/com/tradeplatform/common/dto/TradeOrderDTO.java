@@ -47,6 +47,12 @@ public class TradeOrderDTO {
     @NotNull(message = "Order type is required")
     private OrderType orderType;
 
+    /**
+     * Side of the order (BUY or SELL).
+     * Implied for BUY and SELL order types; required for MARKET, LIMIT, STOP and STOP_LIMIT orders.
+     */
+    private OrderSide side;
+
     /**
      * Current status of the order.
      */
@@ -89,6 +95,12 @@ public class TradeOrderDTO {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime executedAt;
 
+    /**
+     * Time when the stop price of a STOP or STOP_LIMIT order was reached.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime triggeredAt;
+
     /**
      * Time when the order expires (for orders with time constraints).
      */
@@ -0,0 +1,47 @@
+package com.tradeplatform.common.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a service sheds a request because it is at capacity.
+ * Clients should retry after the suggested delay.
+ */
+public class CapacityExceededException extends TradePlatformException {
+
+    /**
+     * How long the client should wait before retrying.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new CapacityExceededException with the specified detail message and retry delay.
+     *
+     * @param message    the detail message
+     * @param retryAfter how long the client should wait before retrying
+     */
+    public CapacityExceededException(String message, Duration retryAfter) {
+        super(message, "CAPACITY_EXCEEDED");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Constructs a new CapacityExceededException with the specified detail message, cause, and retry delay.
+     *
+     * @param message    the detail message
+     * @param cause      the cause
+     * @param retryAfter how long the client should wait before retrying
+     */
+    public CapacityExceededException(String message, Throwable cause, Duration retryAfter) {
+        super(message, cause, "CAPACITY_EXCEEDED");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns how long the client should wait before retrying.
+     *
+     * @return the retry delay
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
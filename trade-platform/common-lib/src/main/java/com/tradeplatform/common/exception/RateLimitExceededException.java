@@ -0,0 +1,45 @@
+package com.tradeplatform.common.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a client has exceeded its request rate limit.
+ * Clients should retry after the suggested delay.
+ */
+public class RateLimitExceededException extends TradePlatformException {
+
+    /**
+     * How long the client should wait before retrying.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new RateLimitExceededException with the specified detail message and retry delay.
+     *
+     * @param message    the detail message
+     * @param retryAfter how long the client should wait before retrying
+     */
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message, "RATE_LIMIT_EXCEEDED");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Skips capturing the stack trace, since this is thrown for every rejected request and is never a bug.
+     *
+     * @return this exception
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    /**
+     * Returns how long the client should wait before retrying.
+     *
+     * @return the retry delay
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,105 @@
+package com.tradeplatform.common.latency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the one-way latency of the {@link LatencyHop}s a service sees, from the timestamps carried in
+ * {@link LatencyHeaders}, and reports them through the {@code latency} Actuator endpoint.
+ * <p>
+ * Each hop is exported as the {@code trade.latency.hop} timer tagged by {@code hop}, with a percentile
+ * histogram for aggregation in Prometheus. The endpoint reports the count and the p50, p99 and p999 of each
+ * hop in milliseconds, computed over the last few minutes. A timestamp later than the local clock can only
+ * come from clock skew; it is not recorded, but counted by {@code trade.latency.hop.skewed} and reported as
+ * {@code skewed}.
+ * <p>
+ * Register it as a bean in each service that records hops. Thread-safe.
+ */
+@Endpoint(id = "latency")
+public class HopLatencyRecorder {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p99", "p999"};
+
+    private final Map<LatencyHop, Timer> timers = new EnumMap<>(LatencyHop.class);
+    private final Map<LatencyHop, Counter> skewed = new EnumMap<>(LatencyHop.class);
+
+    /**
+     * Creates a recorder and registers the metrics of the given hops.
+     *
+     * @param meterRegistry the registry for the hop metrics
+     * @param hops the hops this service records
+     */
+    public HopLatencyRecorder(MeterRegistry meterRegistry, LatencyHop... hops) {
+        for (LatencyHop hop : hops) {
+            timers.put(hop, Timer.builder("trade.latency.hop")
+                    .description("One-way latency of a hop along an order's path, across services")
+                    .tag("hop", hop.tagValue())
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(10_000))
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(meterRegistry));
+            skewed.put(hop, Counter.builder("trade.latency.hop.skewed")
+                    .description("Hop timestamps ahead of the local clock, which were not recorded")
+                    .tag("hop", hop.tagValue())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Records a hop that started at the given time and ends now.
+     *
+     * @param hop the hop, which must be one of those this recorder was created with
+     * @param startEpochNanos when the hop started, as read from {@link LatencyHeaders}; nothing is recorded
+     *                        if it is {@link LatencyHeaders#UNKNOWN}
+     */
+    public void record(LatencyHop hop, long startEpochNanos) {
+        if (startEpochNanos == LatencyHeaders.UNKNOWN) {
+            return;
+        }
+        long latency = LatencyHeaders.now() - startEpochNanos;
+        if (latency < 0) {
+            skewed.get(hop).increment();
+            return;
+        }
+        timers.get(hop).record(latency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reports the recent latency percentiles of every hop.
+     *
+     * @return for each hop, the number of hops recorded, their p50, p99 and p999 in milliseconds, and the
+     *         number of timestamps skipped because of clock skew
+     */
+    @ReadOperation
+    public Map<String, Map<String, Object>> latencies() {
+        Map<String, Map<String, Object>> latencies = new LinkedHashMap<>();
+        timers.forEach((hop, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> hopLatency = new LinkedHashMap<>();
+            hopLatency.put("count", snapshot.count());
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                for (int i = 0; i < PERCENTILES.length; i++) {
+                    if (PERCENTILES[i] == percentile.percentile()) {
+                        hopLatency.put(PERCENTILE_NAMES[i], percentile.value(TimeUnit.MILLISECONDS));
+                    }
+                }
+            }
+            hopLatency.put("skewed", (long) skewed.get(hop).count());
+            latencies.put(hop.tagValue(), hopLatency);
+        });
+        return latencies;
+    }
+}
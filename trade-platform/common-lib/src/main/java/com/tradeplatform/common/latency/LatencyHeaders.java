@@ -0,0 +1,81 @@
+package com.tradeplatform.common.latency;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Kafka headers that carry wall-clock timestamps along an order's path, so each service can measure the
+ * one-way latency of the hops before it.
+ * <p>
+ * Timestamps are nanoseconds since the epoch from the system clock, at the resolution the platform offers
+ * (microseconds on Linux), encoded as 8 big-endian bytes. One-way latencies between services are only as
+ * accurate as the agreement of their clocks: on a single host they share one clock, but across hosts a
+ * skew of even a millisecond shifts every hop between them, and NTP can step a clock backwards, so such
+ * hops need synchronized clocks (PTP or chrony) or should be read as trends rather than absolute values.
+ * Latencies measured within one service do not depend on clock agreement.
+ */
+public final class LatencyHeaders {
+
+    /**
+     * Header stamped by the Trade API or Gateway when an order is submitted, and carried on to the execution
+     * reports of the fills it causes.
+     */
+    public static final String SUBMITTED_AT = "trade-submitted-at";
+
+    /**
+     * Header stamped by the Trade Processor when it publishes an execution report.
+     */
+    public static final String PUBLISHED_AT = "trade-published-at";
+
+    /**
+     * Value returned for a missing or malformed timestamp.
+     */
+    public static final long UNKNOWN = -1L;
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private LatencyHeaders() {
+    }
+
+    /**
+     * Returns the current wall-clock time.
+     *
+     * @return nanoseconds since the epoch
+     */
+    public static long now() {
+        Instant now = CLOCK.instant();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    /**
+     * Encodes a timestamp as a header value.
+     *
+     * @param epochNanos nanoseconds since the epoch
+     * @return the header value
+     */
+    public static byte[] encode(long epochNanos) {
+        byte[] value = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            value[i] = (byte) epochNanos;
+            epochNanos >>>= 8;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a header value.
+     *
+     * @param value the header value, may be null
+     * @return nanoseconds since the epoch, or {@link #UNKNOWN} if the value is missing or malformed
+     */
+    public static long decode(byte[] value) {
+        if (value == null || value.length != Long.BYTES) {
+            return UNKNOWN;
+        }
+        long epochNanos = 0;
+        for (byte b : value) {
+            epochNanos = (epochNanos << 8) | (b & 0xFF);
+        }
+        return epochNanos;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tradeplatform.common.latency;
+
+/**
+ * One-way hops along an order's path whose latency is recorded by {@link HopLatencyRecorder}.
+ */
+public enum LatencyHop {
+
+    /**
+     * From submission to the Trade API or Gateway until the Trade Processor consumes the order.
+     */
+    SUBMIT_TO_PROCESSOR,
+
+    /**
+     * From the Trade Processor publishing an execution report until the Portfolio Service consumes it.
+     */
+    PROCESSOR_TO_PORTFOLIO,
+
+    /**
+     * From submission until the Portfolio Service has applied a resulting fill to the user's position.
+     */
+    END_TO_END;
+
+    /**
+     * Returns the value of the {@code hop} tag.
+     *
+     * @return the lower-case hop name
+     */
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,152 @@
+package com.tradeplatform.common.price;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic for prices and amounts represented as {@code long} ticks with a fixed scale of 4.
+ * A value of {@code 1_234_500} ticks represents {@code 123.4500}.
+ * <p>
+ * All arithmetic works on primitives and does not allocate; conversion to and from {@link BigDecimal}
+ * should only happen at the REST and persistence edges.
+ */
+public final class FixedPointPrice {
+
+    /**
+     * Number of decimal digits represented by the ticks.
+     */
+    public static final int SCALE = 4;
+
+    /**
+     * Number of ticks in one unit.
+     */
+    public static final long ONE = 10_000L;
+
+    /**
+     * Tick value of zero.
+     */
+    public static final long ZERO = 0L;
+
+    private FixedPointPrice() {
+    }
+
+    /**
+     * Converts a decimal value to ticks, rounding half-up beyond the fixed scale.
+     *
+     * @param value the decimal value
+     * @return the value in ticks
+     * @throws ArithmeticException if the value does not fit in a long
+     */
+    public static long fromBigDecimal(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a decimal value to ticks, mapping null to a default.
+     *
+     * @param value the decimal value, may be null
+     * @param defaultTicks the ticks to return if the value is null
+     * @return the value in ticks
+     */
+    public static long fromBigDecimal(BigDecimal value, long defaultTicks) {
+        return value != null ? fromBigDecimal(value) : defaultTicks;
+    }
+
+    /**
+     * Converts ticks to a decimal value with the fixed scale.
+     *
+     * @param ticks the value in ticks
+     * @return the decimal value
+     */
+    public static BigDecimal toBigDecimal(long ticks) {
+        return BigDecimal.valueOf(ticks, SCALE);
+    }
+
+    /**
+     * Converts a whole-unit value to ticks.
+     *
+     * @param units the whole-unit value
+     * @return the value in ticks
+     */
+    public static long ofUnits(long units) {
+        return Math.multiplyExact(units, ONE);
+    }
+
+    /**
+     * Multiplies a price by a quantity, giving a notional amount in ticks.
+     *
+     * @param priceTicks the price in ticks
+     * @param quantity the quantity
+     * @return the notional amount in ticks
+     * @throws ArithmeticException on overflow
+     */
+    public static long multiply(long priceTicks, long quantity) {
+        return Math.multiplyExact(priceTicks, quantity);
+    }
+
+    /**
+     * Divides an amount by a quantity, rounding half-up (away from zero on ties).
+     * Used for averages such as notional / quantity.
+     *
+     * @param ticks the amount in ticks
+     * @param divisor the divisor
+     * @return the quotient in ticks
+     * @throws ArithmeticException if the divisor is zero
+     */
+    public static long divide(long ticks, long divisor) {
+        long quotient = ticks / divisor;
+        long remainder = ticks % divisor;
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += ((ticks ^ divisor) >> 63) | 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Computes the ratio of two amounts in ticks, rounding half-up to the fixed scale.
+     * For example a ratio of {@code 0.1234} is returned as {@code 1234}.
+     *
+     * @param numeratorTicks the numerator in ticks
+     * @param denominatorTicks the denominator in ticks
+     * @return the ratio in ticks
+     * @throws ArithmeticException if the denominator is zero
+     */
+    public static long ratio(long numeratorTicks, long denominatorTicks) {
+        long scaled;
+        try {
+            scaled = Math.multiplyExact(numeratorTicks, ONE);
+        } catch (ArithmeticException overflow) {
+            // Only reachable for amounts beyond ~922 trillion; fall back to exact decimal arithmetic
+            return BigDecimal.valueOf(numeratorTicks)
+                    .divide(BigDecimal.valueOf(denominatorTicks), SCALE, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        }
+        return divide(scaled, denominatorTicks);
+    }
+
+    /**
+     * Scales a price by a floating-point factor and rounds it to a number of decimal places.
+     *
+     * @param priceTicks the price in ticks
+     * @param factor the factor to apply
+     * @param decimals the number of decimal places to keep, at most {@link #SCALE}
+     * @return the scaled price in ticks
+     */
+    public static long scale(long priceTicks, double factor, int decimals) {
+        long step = 1;
+        for (int i = decimals; i < SCALE; i++) {
+            step *= 10;
+        }
+        return Math.round(priceTicks * factor / step) * step;
+    }
+
+    /**
+     * Formats ticks as a plain decimal string, e.g. {@code 123.4500}.
+     *
+     * @param ticks the value in ticks
+     * @return the formatted value
+     */
+    public static String format(long ticks) {
+        return toBigDecimal(ticks).toPlainString();
+    }
+}
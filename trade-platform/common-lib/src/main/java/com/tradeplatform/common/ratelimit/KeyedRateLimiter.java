@@ -0,0 +1,110 @@
+package com.tradeplatform.common.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiter with one bucket per key, such as a user ID.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again (the
+ * "theoretical arrival time" of the generic cell rate algorithm), so admitting a request is one
+ * compare-and-set with no lock and no allocation. Buckets live in a fixed number of stripes, each an
+ * access-ordered map bounded to its share of {@code maxKeys} and guarded by its own monitor, which is held
+ * only for the lookup. Evicting the least recently used key is harmless: a key idle long enough to be evicted
+ * has a full bucket anyway, unless the map is undersized for the number of active keys.
+ * <p>
+ * Thread-safe.
+ */
+public final class KeyedRateLimiter {
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param maxKeys the most buckets kept, across all stripes
+     * @param stripeCount the number of stripes, rounded up to a power of two
+     */
+    public KeyedRateLimiter(int maxKeys, int stripeCount) {
+        int count = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        int perStripe = Math.max(1, (maxKeys + count - 1) / count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Takes one permit from a key's bucket if it has one.
+     *
+     * @param key the key, such as a user ID
+     * @param limit the limit that applies to the key
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a permit will be available
+     */
+    public long tryAcquire(String key, RateLimit limit, long nowNanos) {
+        AtomicLong bucket = bucket(key, nowNanos);
+        long interval = limit.getIntervalNanos();
+        long burst = limit.getBurstNanos();
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, nowNanos) + interval;
+            long debt = next - nowNanos;
+            if (debt > burst) {
+                return debt - burst;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of buckets currently held.
+     *
+     * @return the number of keys tracked
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private AtomicLong bucket(String key, long nowNanos) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & stripeMask];
+        synchronized (stripe) {
+            AtomicLong bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new AtomicLong(nowNanos);
+                stripe.put(key, bucket);
+            }
+            return bucket;
+        }
+    }
+
+    /**
+     * One stripe of buckets, evicting the least recently used key beyond its capacity.
+     */
+    private static final class Stripe extends LinkedHashMap<String, AtomicLong> {
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AtomicLong> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.tradeplatform.common.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token-bucket limit: a sustained rate of requests per second and a burst size.
+ * Held as the nanoseconds between requests at the sustained rate, and the total credit a full bucket
+ * holds, which is what {@link KeyedRateLimiter} works with on each request.
+ */
+public final class RateLimit {
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    /**
+     * Creates a limit.
+     *
+     * @param permitsPerSecond the sustained rate, which must be positive
+     * @param burst the most requests admitted back to back after an idle period, at least 1
+     */
+    public RateLimit(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+    }
+
+    /**
+     * Returns the sustained rate.
+     *
+     * @return the requests admitted per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Returns the burst size.
+     *
+     * @return the most requests admitted back to back
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    long getBurstNanos() {
+        return burstNanos;
+    }
+
+    @Override
+    public String toString() {
+        return permitsPerSecond + "/s, burst " + burst;
+    }
+}
@@ -0,0 +1,94 @@
+package com.tradeplatform.common.validation;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.ValidationException;
+import com.tradeplatform.common.price.FixedPointPrice;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Validation rules for new trade orders, shared by every order entry service so they accept the same orders.
+ * Prices must be representable as {@link FixedPointPrice} ticks and times as nanoseconds since the epoch, so
+ * an order is never silently rounded on the way through the binary wire format or the order book.
+ */
+public final class TradeOrderValidator {
+
+    /**
+     * Latest expiry time that fits in a long of nanoseconds since the epoch.
+     */
+    private static final LocalDateTime LATEST_EXPIRY =
+            LocalDateTime.ofEpochSecond(Long.MAX_VALUE / 1_000_000_000L, 0, ZoneOffset.UTC);
+
+    private TradeOrderValidator() {
+    }
+
+    /**
+     * Validates a new trade order.
+     *
+     * @param orderDTO the trade order to validate
+     * @throws ValidationException if the order fails validation, with the errors by field
+     */
+    public static void validate(TradeOrderDTO orderDTO) {
+        Map<String, String> errors = new HashMap<>();
+
+        if (orderDTO.getUserId() == null || orderDTO.getUserId().trim().isEmpty()) {
+            errors.put("userId", "User ID is required");
+        }
+
+        if (orderDTO.getSymbol() == null || orderDTO.getSymbol().trim().isEmpty()) {
+            errors.put("symbol", "Symbol is required");
+        }
+
+        if (orderDTO.getOrderType() == null) {
+            errors.put("orderType", "Order type is required");
+        } else if (OrderSide.resolve(orderDTO.getOrderType(), orderDTO.getSide()) == null) {
+            errors.put("side", "Side is required for " + orderDTO.getOrderType() + " orders");
+        }
+
+        if ((orderDTO.getOrderType() == OrderType.LIMIT || orderDTO.getOrderType() == OrderType.STOP_LIMIT)
+                && orderDTO.getPrice() == null) {
+            errors.put("price", "Price is required for " + orderDTO.getOrderType() + " orders");
+        }
+
+        if ((orderDTO.getOrderType() == OrderType.STOP || orderDTO.getOrderType() == OrderType.STOP_LIMIT)
+                && orderDTO.getStopPrice() == null) {
+            errors.put("stopPrice", "Stop price is required for " + orderDTO.getOrderType() + " orders");
+        }
+
+        validatePrice("price", "Price", orderDTO.getPrice(), errors);
+        validatePrice("stopPrice", "Stop price", orderDTO.getStopPrice(), errors);
+
+        if (orderDTO.getExpiresAt() != null && orderDTO.getExpiresAt().isAfter(LATEST_EXPIRY)) {
+            errors.put("expiresAt", "Expiry time must not be after " + LATEST_EXPIRY);
+        }
+
+        if (orderDTO.getQuantity() == null || orderDTO.getQuantity() <= 0) {
+            errors.put("quantity", "Quantity must be positive");
+        }
+
+        if (!errors.isEmpty()) {
+            throw new ValidationException("Trade order validation failed", errors);
+        }
+    }
+
+    private static void validatePrice(String field, String label, BigDecimal price, Map<String, String> errors) {
+        if (price == null || errors.containsKey(field)) {
+            return;
+        }
+        if (price.stripTrailingZeros().scale() > FixedPointPrice.SCALE) {
+            errors.put(field, label + " must have at most " + FixedPointPrice.SCALE + " decimal places");
+            return;
+        }
+        try {
+            FixedPointPrice.fromBigDecimal(price);
+        } catch (ArithmeticException e) {
+            errors.put(field, label + " is out of range");
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.tradeplatform.portfolioservice.config;
 
-import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.config.ListenerExecutors;
+import com.tradeplatform.common.dto.ExecutionReportDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
@@ -28,7 +31,7 @@ import java.util.Map;
 /**
  * Configuration class for Kafka consumer settings in the Portfolio Service.
  * This class sets up the Kafka consumer factory, listener container factory,
- * and error handling for consuming trade order events.
+ * and error handling for consuming execution reports, and the topic position updates are published to.
  */
 @Configuration
 @EnableKafka
@@ -44,6 +47,15 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.topic.positions:positions}")
+    private String positionsTopic;
+
+    @Value("${spring.kafka.topic.partitions:3}")
+    private int partitions;
+
+    @Value("${spring.kafka.topic.replication-factor:1}")
+    private short replicationFactor;
+
     @Value("${spring.kafka.topic.dead-letter}")
     private String deadLetterTopic;
 
@@ -53,8 +65,11 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.backoff-interval:1000}")
     private long backoffInterval;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     /**
-     * Creates a Kafka producer factory for sending messages to the dead-letter topic.
+     * Creates a Kafka producer factory for sending position updates and messages to the dead-letter topic.
      *
      * @return the producer factory
      */
@@ -68,7 +83,7 @@ public class KafkaConfig {
     }
 
     /**
-     * Creates a Kafka template for sending messages to the dead-letter topic.
+     * Creates a Kafka template for sending position updates and messages to the dead-letter topic.
      *
      * @return the Kafka template
      */
@@ -78,12 +93,27 @@ public class KafkaConfig {
     }
 
     /**
-     * Creates a Kafka consumer factory for TradeOrderDTO objects.
+     * Creates the compacted positions topic if it doesn't exist. Compaction keeps the latest update of
+     * every position, so a consumer reading from the beginning rebuilds all current holdings.
+     *
+     * @return the topic configuration
+     */
+    @Bean
+    public NewTopic positionsTopic() {
+        return TopicBuilder.name(positionsTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Creates a Kafka consumer factory for execution reports.
      *
      * @return the consumer factory
      */
     @Bean
-    public ConsumerFactory<String, TradeOrderDTO> consumerFactory() {
+    public ConsumerFactory<String, ExecutionReportDTO> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
@@ -91,23 +121,29 @@ public class KafkaConfig {
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, TradeOrderDTO.class.getName());
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, ExecutionReportDTO.class.getName());
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.tradeplatform.common.dto");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     /**
-     * Creates a Kafka listener container factory for TradeOrderDTO objects.
+     * Creates a Kafka listener container factory for execution reports.
+     * With {@code spring.threads.virtual.enabled}, consumer threads are virtual threads, so listeners
+     * blocked on the database do not hold a platform thread.
      *
      * @return the listener container factory
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, TradeOrderDTO> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, TradeOrderDTO> factory = 
+    public ConcurrentKafkaListenerContainerFactory<String, ExecutionReportDTO> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ExecutionReportDTO> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         factory.setCommonErrorHandler(errorHandler());
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(ListenerExecutors.virtualThreads());
+        }
         return factory;
     }
 
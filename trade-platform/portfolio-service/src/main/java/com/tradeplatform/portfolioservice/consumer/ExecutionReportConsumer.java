@@ -0,0 +1,65 @@
+package com.tradeplatform.portfolioservice.consumer;
+
+import com.tradeplatform.common.dto.ExecutionReportDTO;
+import com.tradeplatform.common.latency.HopLatencyRecorder;
+import com.tradeplatform.common.latency.LatencyHeaders;
+import com.tradeplatform.common.latency.LatencyHop;
+import com.tradeplatform.portfolioservice.service.PortfolioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka consumer for execution reports in the Portfolio Service.
+ * Each report is a single fill, which is applied to the user's portfolio as a delta.
+ * The latency from the Trade Processor, and from the submission of the order that caused the fill until
+ * the position is updated, is recorded from the report's {@link LatencyHeaders}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionReportConsumer {
+
+    private final PortfolioService portfolioService;
+    private final HopLatencyRecorder hopLatencyRecorder;
+
+    /**
+     * Consumes execution reports from the Kafka topic and applies each fill to the user's portfolio.
+     *
+     * @param report the execution report to apply
+     * @param key the message key
+     * @param partition the partition from which the message was received
+     * @param offset the offset of the message
+     * @param submittedAt when the order that caused the fill was submitted, if known
+     * @param publishedAt when the report was published
+     */
+    @KafkaListener(
+            topics = "${spring.kafka.topic.executions}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void consumeExecutionReport(
+            @Payload ExecutionReportDTO report,
+            @Header(KafkaHeaders.RECEIVED_KEY) String key,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset,
+            @Header(name = LatencyHeaders.SUBMITTED_AT, required = false) byte[] submittedAt,
+            @Header(name = LatencyHeaders.PUBLISHED_AT, required = false) byte[] publishedAt) {
+
+        log.debug("Received execution report: key={}, partition={}, offset={}, report={}", key, partition, offset, report);
+        hopLatencyRecorder.record(LatencyHop.PROCESSOR_TO_PORTFOLIO, LatencyHeaders.decode(publishedAt));
+
+        try {
+            portfolioService.applyExecutionReport(report);
+            hopLatencyRecorder.record(LatencyHop.END_TO_END, LatencyHeaders.decode(submittedAt));
+        } catch (Exception e) {
+            log.error("Error applying execution report for trade order: {}", report.getOrderId(), e);
+            // The error handler in KafkaConfig will handle retries and DLT publishing
+            throw e;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.tradeplatform.portfolioservice.entity;
 
+import com.tradeplatform.common.price.FixedPointPrice;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,7 +16,10 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "portfolio_entries", uniqueConstraints = {
+    // Also serves every lookup by user
     @UniqueConstraint(columnNames = {"user_id", "symbol"})
+}, indexes = {
+    @Index(name = "idx_portfolio_entries_symbol", columnList = "symbol")
 })
 @Data
 @Builder
@@ -96,30 +100,82 @@ public class PortfolioEntry {
     @Column(length = 1000)
     private String notes;
 
+    /**
+     * Position sequence of the last fill applied to this entry, as assigned by the Trade Processor.
+     */
+    @Column(name = "position_sequence")
+    private Long positionSequence;
+
     /**
      * Version for optimistic locking.
      */
     @Version
     private Long version;
 
+    /**
+     * Applies a buy fill. The average price is updated in constant time from the previous average and
+     * quantity, in fixed-point ticks.
+     *
+     * @param boughtQuantity the bought quantity
+     * @param price the execution price
+     */
+    public void applyBuy(int boughtQuantity, BigDecimal price) {
+        int oldQuantity = quantity;
+        int newQuantity = oldQuantity + boughtQuantity;
+        long executionPrice = FixedPointPrice.fromBigDecimal(price);
+
+        long oldValue = FixedPointPrice.multiply(FixedPointPrice.fromBigDecimal(averagePrice), oldQuantity);
+        long newValue = FixedPointPrice.multiply(executionPrice, boughtQuantity);
+        long totalValue = oldValue + newValue;
+
+        long newAveragePrice = newQuantity > 0
+                ? FixedPointPrice.divide(totalValue, newQuantity)
+                : FixedPointPrice.ZERO;
+
+        quantity = newQuantity;
+        averagePrice = FixedPointPrice.toBigDecimal(newAveragePrice);
+        currentPrice = FixedPointPrice.toBigDecimal(executionPrice);
+        lastUpdated = LocalDateTime.now();
+    }
+
+    /**
+     * Applies a sell fill. The average price stays the same; the caller checks that enough shares are held.
+     *
+     * @param soldQuantity the sold quantity
+     * @param price the execution price
+     */
+    public void applySell(int soldQuantity, BigDecimal price) {
+        quantity = quantity - soldQuantity;
+        currentPrice = price;
+        lastUpdated = LocalDateTime.now();
+    }
+
     /**
      * Updates the calculated fields based on the current quantity, average price, and current price.
+     * The valuation is computed in fixed-point ticks and only converted to BigDecimal for persistence.
      */
     @PrePersist
     @PreUpdate
     public void updateCalculatedFields() {
+        long costBasisTicks = 0;
+        long marketValueTicks = 0;
+
         if (quantity != null && averagePrice != null) {
-            costBasis = averagePrice.multiply(BigDecimal.valueOf(quantity));
+            costBasisTicks = FixedPointPrice.multiply(FixedPointPrice.fromBigDecimal(averagePrice), quantity);
+            costBasis = FixedPointPrice.toBigDecimal(costBasisTicks);
         }
         
         if (quantity != null && currentPrice != null) {
-            marketValue = currentPrice.multiply(BigDecimal.valueOf(quantity));
+            marketValueTicks = FixedPointPrice.multiply(FixedPointPrice.fromBigDecimal(currentPrice), quantity);
+            marketValue = FixedPointPrice.toBigDecimal(marketValueTicks);
         }
         
-        if (costBasis != null && marketValue != null && costBasis.compareTo(BigDecimal.ZERO) > 0) {
-            unrealizedPnL = marketValue.subtract(costBasis);
-            percentageGainLoss = unrealizedPnL.divide(costBasis, 4, BigDecimal.ROUND_HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
+        if (costBasis != null && marketValue != null && costBasisTicks > 0) {
+            long unrealizedPnLTicks = marketValueTicks - costBasisTicks;
+            unrealizedPnL = FixedPointPrice.toBigDecimal(unrealizedPnLTicks);
+            // Ratio rounded to 4 decimals, then expressed as a percentage
+            percentageGainLoss = FixedPointPrice.toBigDecimal(
+                    FixedPointPrice.ratio(unrealizedPnLTicks, costBasisTicks) * 100);
         }
         
         lastUpdated = LocalDateTime.now();
@@ -0,0 +1,54 @@
+package com.tradeplatform.portfolioservice.publisher;
+
+import com.tradeplatform.common.dto.PortfolioEntryDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes the state of a portfolio entry to the compacted positions topic after every change, so other
+ * services can keep a local copy of users' holdings. Updates are keyed by user ID and symbol, so the topic
+ * retains the latest state of every position. An update made inside a transaction is sent once it commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PositionUpdatePublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${spring.kafka.topic.positions:positions}")
+    private String positionsTopic;
+
+    /**
+     * Publishes a position update, after the current transaction commits if there is one.
+     *
+     * @param entry the portfolio entry as it is after the change
+     */
+    public void publish(PortfolioEntryDTO entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                send(entry);
+            }
+        });
+    }
+
+    private void send(PortfolioEntryDTO entry) {
+        kafkaTemplate.send(positionsTopic, entry.getUserId() + ":" + entry.getSymbol(), entry)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to publish position update for user {} and symbol {}",
+                                entry.getUserId(), entry.getSymbol(), e);
+                    }
+                });
+    }
+}
@@ -1,11 +1,12 @@
 package com.tradeplatform.portfolioservice.service;
 
-import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.dto.ExecutionReportDTO;
+import com.tradeplatform.common.dto.OrderSide;
 import com.tradeplatform.common.dto.PortfolioEntryDTO;
-import com.tradeplatform.common.dto.TradeOrderDTO;
 import com.tradeplatform.common.exception.OrderProcessingException;
 import com.tradeplatform.common.exception.ResourceNotFoundException;
 import com.tradeplatform.portfolioservice.entity.PortfolioEntry;
+import com.tradeplatform.portfolioservice.publisher.PositionUpdatePublisher;
 import com.tradeplatform.portfolioservice.repository.PortfolioEntryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +14,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -28,45 +28,29 @@ import java.util.stream.Collectors;
 public class PortfolioService {
 
     private final PortfolioEntryRepository portfolioEntryRepository;
+    private final PositionUpdatePublisher positionUpdatePublisher;
 
     /**
-     * Updates a user's portfolio based on a trade order.
+     * Updates a user's portfolio with a single fill. Only the fill's quantity and price are applied, so
+     * an order filled in several steps updates the holding once per fill. The updated holding is published
+     * to the positions topic once the transaction commits. A redelivered fill, whose position sequence the
+     * holding has already reached, is skipped.
      *
-     * @param orderDTO the trade order
-     * @return the updated portfolio entry
-     * @throws OrderProcessingException if there is an error processing the order
+     * @param report the execution report of the fill
+     * @return the updated portfolio entry, or null if the fill had already been applied
+     * @throws OrderProcessingException if there is an error applying the fill
      */
     @Transactional
-    public PortfolioEntryDTO updatePortfolio(TradeOrderDTO orderDTO) {
-        log.info("Updating portfolio for order: {}", orderDTO.getOrderId());
-
-        try {
-            // Get the portfolio entry for the user and symbol, or create a new one
-            PortfolioEntry entry = portfolioEntryRepository
-                    .findByUserIdAndSymbolWithLock(orderDTO.getUserId(), orderDTO.getSymbol())
-                    .orElseGet(() -> createNewPortfolioEntry(orderDTO));
-
-            // Update the portfolio entry based on the order type
-            if (orderDTO.getOrderType() == OrderType.BUY) {
-                processBuyOrder(entry, orderDTO);
-            } else if (orderDTO.getOrderType() == OrderType.SELL) {
-                processSellOrder(entry, orderDTO);
-            } else {
-                log.warn("Unsupported order type: {}", orderDTO.getOrderType());
-                throw new OrderProcessingException("Unsupported order type: " + orderDTO.getOrderType(),
-                        orderDTO.getOrderId());
-            }
-
-            // Save the updated portfolio entry
-            entry = portfolioEntryRepository.save(entry);
-            log.info("Portfolio updated for order: {}", orderDTO.getOrderId());
-
-            return convertToDTO(entry);
-        } catch (Exception e) {
-            log.error("Error updating portfolio for order: {}", orderDTO.getOrderId(), e);
-            throw new OrderProcessingException("Failed to update portfolio",
-                    orderDTO.getOrderId(), e.getMessage());
+    public PortfolioEntryDTO applyExecutionReport(ExecutionReportDTO report) {
+        log.info("Applying fill of {} at {} for order: {}", report.getFillQuantity(), report.getFillPrice(),
+                report.getOrderId());
+        PortfolioEntryDTO entry = applyTrade(report.getOrderId(), report.getUserId(), report.getSymbol(),
+                report.getSide(), report.getFillQuantity(), report.getFillPrice(), report.getExecutedAt(),
+                report.getPositionSequence());
+        if (entry != null) {
+            positionUpdatePublisher.publish(entry);
         }
+        return entry;
     }
 
     /**
@@ -115,95 +99,133 @@ public class PortfolioService {
     }
 
     /**
-     * Creates a new portfolio entry for a trade order.
+     * Applies an executed quantity to the user's holding of a symbol.
      *
-     * @param orderDTO the trade order
+     * @param orderId the ID of the executed order
+     * @param userId the user ID
+     * @param symbol the symbol/ticker
+     * @param side the side of the order
+     * @param quantity the executed quantity
+     * @param price the execution price
+     * @param executedAt the time of the execution
+     * @param positionSequence the position sequence of the execution, if it has one
+     * @return the updated portfolio entry, or null if an execution with this position sequence was already applied
+     * @throws OrderProcessingException if there is an error applying the execution
+     */
+    private PortfolioEntryDTO applyTrade(UUID orderId, String userId, String symbol, OrderSide side,
+                                         Integer quantity, BigDecimal price, LocalDateTime executedAt,
+                                         Long positionSequence) {
+        try {
+            // Get the portfolio entry for the user and symbol, or create a new one
+            PortfolioEntry entry = portfolioEntryRepository
+                    .findByUserIdAndSymbolWithLock(userId, symbol)
+                    .orElseGet(() -> createNewPortfolioEntry(userId, symbol, price));
+
+            // Fills of a position are sequenced, so a redelivered one is recognised without tracking fill IDs
+            if (positionSequence != null && entry.getPositionSequence() != null
+                    && positionSequence <= entry.getPositionSequence()) {
+                log.info("Skipping already applied execution of order: {} at position sequence {}",
+                        orderId, positionSequence);
+                return null;
+            }
+
+            // Update the portfolio entry based on the side of the order
+            if (side == OrderSide.BUY) {
+                processBuy(entry, orderId, quantity, price, executedAt);
+            } else if (side == OrderSide.SELL) {
+                processSell(entry, orderId, quantity, price, executedAt);
+            } else {
+                log.warn("Unsupported order side: {}", side);
+                throw new OrderProcessingException("Unsupported order side: " + side, orderId);
+            }
+
+            if (positionSequence != null) {
+                entry.setPositionSequence(positionSequence);
+            }
+
+            // Save the updated portfolio entry
+            entry = portfolioEntryRepository.save(entry);
+            log.info("Portfolio updated for order: {}", orderId);
+
+            return convertToDTO(entry);
+        } catch (Exception e) {
+            log.error("Error updating portfolio for order: {}", orderId, e);
+            throw new OrderProcessingException("Failed to update portfolio", orderId, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a new portfolio entry for a user and symbol.
+     *
+     * @param userId the user ID
+     * @param symbol the symbol/ticker
+     * @param currentPrice the latest execution price
      * @return the new portfolio entry
      */
-    private PortfolioEntry createNewPortfolioEntry(TradeOrderDTO orderDTO) {
-        log.info("Creating new portfolio entry for user: {} and symbol: {}", orderDTO.getUserId(), orderDTO.getSymbol());
+    private PortfolioEntry createNewPortfolioEntry(String userId, String symbol, BigDecimal currentPrice) {
+        log.info("Creating new portfolio entry for user: {} and symbol: {}", userId, symbol);
         return PortfolioEntry.builder()
-                .userId(orderDTO.getUserId())
-                .symbol(orderDTO.getSymbol())
+                .userId(userId)
+                .symbol(symbol)
                 .quantity(0)
                 .averagePrice(BigDecimal.ZERO)
-                .currentPrice(orderDTO.getExecutionPrice())
+                .currentPrice(currentPrice)
                 .lastUpdated(LocalDateTime.now())
                 .build();
     }
 
     /**
-     * Processes a buy order and updates the portfolio entry.
+     * Applies a buy execution to the portfolio entry. The average price is updated in constant time from
+     * the previous average and quantity.
      *
      * @param entry the portfolio entry to update
-     * @param orderDTO the buy order
+     * @param orderId the ID of the executed order
+     * @param quantity the bought quantity
+     * @param price the execution price
+     * @param executedAt the time of the execution
      */
-    private void processBuyOrder(PortfolioEntry entry, TradeOrderDTO orderDTO) {
-        log.info("Processing buy order for user: {} and symbol: {}", orderDTO.getUserId(), orderDTO.getSymbol());
-
-        // Calculate the new average price and quantity
-        int oldQuantity = entry.getQuantity();
-        int newQuantity = oldQuantity + orderDTO.getFilledQuantity();
-        
-        BigDecimal oldValue = entry.getAveragePrice().multiply(BigDecimal.valueOf(oldQuantity));
-        BigDecimal newValue = orderDTO.getExecutionPrice().multiply(BigDecimal.valueOf(orderDTO.getFilledQuantity()));
-        BigDecimal totalValue = oldValue.add(newValue);
-        
-        BigDecimal newAveragePrice = newQuantity > 0 
-                ? totalValue.divide(BigDecimal.valueOf(newQuantity), 4, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-
-        // Update the portfolio entry
-        entry.setQuantity(newQuantity);
-        entry.setAveragePrice(newAveragePrice);
-        entry.setCurrentPrice(orderDTO.getExecutionPrice());
-        entry.setLastUpdated(LocalDateTime.now());
-        
+    private void processBuy(PortfolioEntry entry, UUID orderId, int quantity, BigDecimal price,
+                            LocalDateTime executedAt) {
+        log.info("Processing buy for user: {} and symbol: {}", entry.getUserId(), entry.getSymbol());
+
+        entry.applyBuy(quantity, price);
+
         // Add a note about the transaction
-        String note = String.format("Bought %d shares at %s on %s (Order ID: %s)",
-                orderDTO.getFilledQuantity(),
-                orderDTO.getExecutionPrice(),
-                orderDTO.getExecutedAt(),
-                orderDTO.getOrderId());
-        entry.setNotes(note);
+        entry.setNotes(String.format("Bought %d shares at %s on %s (Order ID: %s)",
+                quantity, price, executedAt, orderId));
     }
 
     /**
-     * Processes a sell order and updates the portfolio entry.
+     * Applies a sell execution to the portfolio entry.
      *
      * @param entry the portfolio entry to update
-     * @param orderDTO the sell order
+     * @param orderId the ID of the executed order
+     * @param quantity the sold quantity
+     * @param price the execution price
+     * @param executedAt the time of the execution
      * @throws OrderProcessingException if there are not enough shares to sell
      */
-    private void processSellOrder(PortfolioEntry entry, TradeOrderDTO orderDTO) {
-        log.info("Processing sell order for user: {} and symbol: {}", orderDTO.getUserId(), orderDTO.getSymbol());
+    private void processSell(PortfolioEntry entry, UUID orderId, int quantity, BigDecimal price,
+                             LocalDateTime executedAt) {
+        log.info("Processing sell for user: {} and symbol: {}", entry.getUserId(), entry.getSymbol());
 
         // Check if there are enough shares to sell
-        if (entry.getQuantity() < orderDTO.getFilledQuantity()) {
-            log.error("Not enough shares to sell. Available: {}, Requested: {}", 
-                    entry.getQuantity(), orderDTO.getFilledQuantity());
-            throw new OrderProcessingException("Not enough shares to sell",
-                    orderDTO.getOrderId(), "Insufficient shares");
+        if (entry.getQuantity() < quantity) {
+            log.error("Not enough shares to sell. Available: {}, Requested: {}", entry.getQuantity(), quantity);
+            throw new OrderProcessingException("Not enough shares to sell", orderId, "Insufficient shares");
         }
 
         // Update the quantity (average price stays the same)
-        int newQuantity = entry.getQuantity() - orderDTO.getFilledQuantity();
-        entry.setQuantity(newQuantity);
-        entry.setCurrentPrice(orderDTO.getExecutionPrice());
-        entry.setLastUpdated(LocalDateTime.now());
-        
+        entry.applySell(quantity, price);
+
         // Add a note about the transaction
-        String note = String.format("Sold %d shares at %s on %s (Order ID: %s)",
-                orderDTO.getFilledQuantity(),
-                orderDTO.getExecutionPrice(),
-                orderDTO.getExecutedAt(),
-                orderDTO.getOrderId());
-        entry.setNotes(note);
-        
+        entry.setNotes(String.format("Sold %d shares at %s on %s (Order ID: %s)",
+                quantity, price, executedAt, orderId));
+
         // If quantity is zero, we could delete the entry, but we'll keep it for history
-        if (newQuantity == 0) {
-            log.info("Portfolio entry quantity is now zero for user: {} and symbol: {}", 
-                    orderDTO.getUserId(), orderDTO.getSymbol());
+        if (entry.getQuantity() == 0) {
+            log.info("Portfolio entry quantity is now zero for user: {} and symbol: {}",
+                    entry.getUserId(), entry.getSymbol());
         }
     }
 
@@ -227,6 +249,7 @@ public class PortfolioService {
                 .percentageGainLoss(entity.getPercentageGainLoss())
                 .lastUpdated(entity.getLastUpdated())
                 .notes(entity.getNotes())
+                .positionSequence(entity.getPositionSequence())
                 .build();
     }
 }
\ No newline at end of file
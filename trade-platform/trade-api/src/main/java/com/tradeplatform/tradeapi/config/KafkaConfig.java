@@ -1,5 +1,6 @@
 package com.tradeplatform.tradeapi.config;
 
+import com.tradeplatform.common.codec.WireFormat;
 import com.tradeplatform.common.dto.TradeOrderDTO;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -28,6 +29,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.topic.trade-orders}")
     private String tradeOrdersTopic;
 
+    @Value("${trade.kafka.trade-orders.format:JSON}")
+    private WireFormat tradeOrdersFormat;
+
     @Value("${spring.kafka.topic.partitions:3}")
     private int partitions;
 
@@ -36,6 +40,8 @@ public class KafkaConfig {
 
     /**
      * Creates a Kafka producer factory for TradeOrderDTO objects.
+     * Orders are written as JSON, or in the compact binary format when {@code trade.kafka.trade-orders.format}
+     * is BINARY; the trade processor reads either.
      *
      * @return the producer factory
      */
@@ -44,7 +50,8 @@ public class KafkaConfig {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                tradeOrdersFormat == WireFormat.BINARY ? TradeOrderBinarySerializer.class : JsonSerializer.class);
         // Enable idempotence for exactly-once semantics
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
@@ -0,0 +1,22 @@
+package com.tradeplatform.tradeapi.config;
+
+import com.tradeplatform.common.codec.TradeOrderCodec;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing trade orders in the compact binary format of {@link TradeOrderCodec}.
+ * Encoding keeps no state, so the producer may call it from any number of request threads.
+ */
+public class TradeOrderBinarySerializer implements Serializer<TradeOrderDTO> {
+
+    private final TradeOrderCodec codec = new TradeOrderCodec();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] serialize(String topic, TradeOrderDTO order) {
+        return order != null ? codec.encode(order) : null;
+    }
+}
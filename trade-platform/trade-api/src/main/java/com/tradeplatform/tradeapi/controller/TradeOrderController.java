@@ -2,15 +2,22 @@ package com.tradeplatform.tradeapi.controller;
 
 import com.tradeplatform.common.dto.TradeOrderDTO;
 import com.tradeplatform.common.exception.OrderProcessingException;
+import com.tradeplatform.common.exception.RateLimitExceededException;
 import com.tradeplatform.common.exception.ValidationException;
+import com.tradeplatform.tradeapi.service.OrderBatchService;
 import com.tradeplatform.tradeapi.service.TradeOrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,9 +31,11 @@ import java.util.Map;
 public class TradeOrderController {
 
     private final TradeOrderService tradeOrderService;
+    private final OrderBatchService orderBatchService;
 
     /**
      * Creates a new trade order.
+     * Responds with 429 and a Retry-After header if the user has exceeded their order rate.
      *
      * @param orderDTO the trade order to create
      * @return the created trade order
@@ -39,6 +48,10 @@ public class TradeOrderController {
         } catch (ValidationException e) {
             log.warn("Validation error when creating order: {}", e.getMessage());
             return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage(), e.getFieldErrors()));
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                    .body(createErrorResponse(e.getMessage(), null));
         } catch (OrderProcessingException e) {
             log.error("Error processing order: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -50,6 +63,24 @@ public class TradeOrderController {
         }
     }
 
+    /**
+     * Creates trade orders in bulk from a JSON array or newline-delimited JSON body.
+     * The body is streamed rather than buffered, and one result per order is streamed back as
+     * newline-delimited JSON, in the order the orders were submitted.
+     *
+     * @param request the request whose body holds the orders
+     * @param response the response the results are written to
+     * @throws IOException if reading the body or writing the results fails
+     */
+    @PostMapping(path = "/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createOrders(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        orderBatchService.submitOrders(request.getInputStream(), response.getOutputStream());
+    }
+
     /**
      * Creates an error response with the given message and details.
      *
@@ -0,0 +1,116 @@
+package com.tradeplatform.tradeapi.ratelimit;
+
+import com.tradeplatform.common.exception.RateLimitExceededException;
+import com.tradeplatform.common.ratelimit.KeyedRateLimiter;
+import com.tradeplatform.common.ratelimit.RateLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user admission control for order submission.
+ * <p>
+ * Every user has a token bucket whose rate and burst come from the user's tier. Tiers are configured as
+ * {@code trade.rate-limit.tiers=name:ordersPerSecond:burst,...}, users are assigned to tiers with
+ * {@code trade.rate-limit.user-tiers=userId:tier,...}, and everyone else gets
+ * {@code trade.rate-limit.default-tier}. Up to {@code trade.rate-limit.max-users} buckets are kept, evicting
+ * the least recently active users. Rejections are counted by tier in {@code trade.ratelimit.rejections}.
+ */
+@Component
+@Slf4j
+public class UserRateLimiter {
+
+    private final boolean enabled;
+    private final KeyedRateLimiter limiter;
+    private final Map<String, RateLimit> tiers = new HashMap<>();
+    private final Map<String, RateLimit> userLimits = new HashMap<>();
+    private final Map<RateLimit, Counter> rejections = new HashMap<>();
+    private final RateLimit defaultLimit;
+
+    /**
+     * Creates the limiter from its configuration and registers its metrics.
+     *
+     * @param enabled whether orders are rate limited at all
+     * @param tierConfig the tiers, as comma-separated {@code name:ordersPerSecond:burst}
+     * @param userTierConfig the users with a non-default tier, as comma-separated {@code userId:tier}
+     * @param defaultTier the tier of users not listed in {@code userTierConfig}
+     * @param maxUsers the most user buckets kept at once
+     * @param stripes the number of lock stripes of the bucket map
+     * @param meterRegistry the registry for the rejection counters and bucket gauge
+     */
+    public UserRateLimiter(
+            @Value("${trade.rate-limit.enabled:true}") boolean enabled,
+            @Value("${trade.rate-limit.tiers:standard:50:100}") String tierConfig,
+            @Value("${trade.rate-limit.user-tiers:}") String userTierConfig,
+            @Value("${trade.rate-limit.default-tier:standard}") String defaultTier,
+            @Value("${trade.rate-limit.max-users:100000}") int maxUsers,
+            @Value("${trade.rate-limit.stripes:64}") int stripes,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limiter = new KeyedRateLimiter(maxUsers, stripes);
+
+        for (String entry : split(tierConfig)) {
+            String[] parts = entry.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid rate limit tier '" + entry + "', expected name:ordersPerSecond:burst");
+            }
+            RateLimit limit = new RateLimit(Double.parseDouble(parts[1].trim()), Integer.parseInt(parts[2].trim()));
+            tiers.put(parts[0].trim(), limit);
+            rejections.put(limit, Counter.builder("trade.ratelimit.rejections")
+                    .description("Orders rejected for exceeding the user's rate limit")
+                    .tag("tier", parts[0].trim())
+                    .register(meterRegistry));
+        }
+        this.defaultLimit = tier(defaultTier);
+        for (String entry : split(userTierConfig)) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid user tier '" + entry + "', expected userId:tier");
+            }
+            userLimits.put(parts[0].trim(), tier(parts[1].trim()));
+        }
+
+        Gauge.builder("trade.ratelimit.users", limiter, KeyedRateLimiter::size)
+                .description("Users with a rate limit bucket")
+                .register(meterRegistry);
+        log.info("Order rate limiting {}: tiers {}, default tier {}", enabled ? "enabled" : "disabled", tiers, defaultTier);
+    }
+
+    /**
+     * Admits an order from a user, or rejects it if the user has exceeded their rate.
+     *
+     * @param userId the ID of the user submitting the order
+     * @throws RateLimitExceededException if the user has no permit left
+     */
+    public void acquire(String userId) {
+        if (!enabled) {
+            return;
+        }
+        RateLimit limit = userLimits.getOrDefault(userId, defaultLimit);
+        long waitNanos = limiter.tryAcquire(userId, limit, System.nanoTime());
+        if (waitNanos > 0) {
+            rejections.get(limit).increment();
+            throw new RateLimitExceededException("Order rate limit exceeded for user " + userId,
+                    Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private RateLimit tier(String name) {
+        RateLimit limit = tiers.get(name);
+        if (limit == null) {
+            throw new IllegalArgumentException("Unknown rate limit tier '" + name + "'");
+        }
+        return limit;
+    }
+
+    private static String[] split(String config) {
+        return config.isBlank() ? new String[0] : config.split(",");
+    }
+}
@@ -0,0 +1,187 @@
+package com.tradeplatform.tradeapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tradeplatform.common.dto.OrderSubmissionResultDTO;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.RateLimitExceededException;
+import com.tradeplatform.common.exception.ValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Service for submitting trade orders in bulk from a single request body.
+ * <p>
+ * The body is parsed as a stream, one order at a time, and each order is validated and handed to the Kafka
+ * producer without waiting for earlier orders to be acknowledged. Results are written back as they complete,
+ * in submission order, and at most {@code trade.api.batch.max-in-flight} orders are awaiting
+ * acknowledgement at once, so memory stays flat however large the body is.
+ */
+@Service
+@Slf4j
+public class OrderBatchService {
+
+    private final TradeOrderService tradeOrderService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final Validator validator;
+
+    @Value("${trade.api.batch.max-in-flight:1000}")
+    private int maxInFlight;
+
+    /**
+     * Creates the service.
+     *
+     * @param tradeOrderService the service that validates and publishes single orders
+     * @param objectMapper the application's object mapper
+     * @param validator the bean validator applied to each order, as {@code @Valid} is for single orders
+     */
+    public OrderBatchService(TradeOrderService tradeOrderService, ObjectMapper objectMapper, Validator validator) {
+        this.tradeOrderService = tradeOrderService;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(OrderSubmissionResultDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.validator = validator;
+    }
+
+    /**
+     * Submits every order in a request body and writes one result per order.
+     * The body may be a JSON array of orders or newline-delimited JSON with one order per line. Results
+     * are written as newline-delimited JSON in the order the orders appeared. An order that cannot be read
+     * or fails validation is rejected on its own; a body that is not well-formed JSON ends the batch with a
+     * final rejected result at the position where parsing stopped.
+     *
+     * @param body the request body
+     * @param out the stream the results are written to
+     * @throws IOException if reading the body or writing the results fails
+     */
+    public void submitOrders(InputStream body, OutputStream out) throws IOException {
+        ArrayDeque<CompletableFuture<OrderSubmissionResultDTO>> inFlight = new ArrayDeque<>();
+        long index = 0;
+        long accepted = 0;
+
+        try (JsonParser parser = objectMapper.createParser(body);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    JsonNode node = parser.readValueAsTree();
+                    if (inFlight.size() >= maxInFlight) {
+                        // Let the client see what has completed before blocking on the oldest order
+                        generator.flush();
+                        accepted += writeResult(generator, inFlight.poll().join());
+                    }
+                    inFlight.add(submit(index++, node));
+                    while (!inFlight.isEmpty() && inFlight.peek().isDone()) {
+                        accepted += writeResult(generator, inFlight.poll().join());
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Malformed batch body after {} orders: {}", index, e.getOriginalMessage());
+                inFlight.add(CompletableFuture.completedFuture(
+                        rejected(index, "Malformed request body: " + e.getOriginalMessage(), null)));
+            }
+
+            generator.flush();
+            while (!inFlight.isEmpty()) {
+                accepted += writeResult(generator, inFlight.poll().join());
+            }
+        }
+
+        log.info("Batch submission finished: {} orders read, {} accepted", index, accepted);
+    }
+
+    /**
+     * Reads, validates and publishes one order of the batch.
+     *
+     * @param index the position of the order in the batch
+     * @param node the order as read from the body
+     * @return a future completed with the order's result
+     */
+    private CompletableFuture<OrderSubmissionResultDTO> submit(long index, JsonNode node) {
+        TradeOrderDTO order;
+        try {
+            order = objectMapper.treeToValue(node, TradeOrderDTO.class);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(rejected(index, "Malformed order: " + e.getOriginalMessage(), null));
+        }
+        if (order == null) {
+            return CompletableFuture.completedFuture(rejected(index, "Order is null", null));
+        }
+
+        Set<ConstraintViolation<TradeOrderDTO>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new HashMap<>();
+            violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+            return CompletableFuture.completedFuture(rejected(index, "Trade order validation failed", errors));
+        }
+
+        try {
+            return tradeOrderService.submitOrder(order).handle((submitted, ex) -> {
+                if (ex == null) {
+                    return OrderSubmissionResultDTO.builder()
+                            .index(index)
+                            .accepted(true)
+                            .orderId(submitted.getOrderId())
+                            .status(submitted.getStatus())
+                            .build();
+                }
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                OrderSubmissionResultDTO result = rejected(index, cause.getMessage(), null);
+                result.setOrderId(order.getOrderId());
+                return result;
+            });
+        } catch (ValidationException e) {
+            return CompletableFuture.completedFuture(rejected(index, e.getMessage(), e.getFieldErrors()));
+        } catch (RateLimitExceededException e) {
+            return CompletableFuture.completedFuture(rejected(index, e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Writes one result as a line of newline-delimited JSON.
+     *
+     * @param generator the generator writing the response
+     * @param result the result to write
+     * @return 1 if the order was accepted, otherwise 0
+     * @throws IOException if writing fails
+     */
+    private int writeResult(JsonGenerator generator, OrderSubmissionResultDTO result) throws IOException {
+        resultWriter.writeValue(generator, result);
+        generator.writeRaw('\n');
+        return result.isAccepted() ? 1 : 0;
+    }
+
+    private OrderSubmissionResultDTO rejected(long index, String message, Map<String, String> errors) {
+        return OrderSubmissionResultDTO.builder()
+                .index(index)
+                .accepted(false)
+                .message(message)
+                .errors(errors)
+                .build();
+    }
+}
@@ -4,21 +4,26 @@ import com.tradeplatform.common.dto.OrderStatus;
 import com.tradeplatform.common.dto.TradeOrderDTO;
 import com.tradeplatform.common.exception.OrderProcessingException;
 import com.tradeplatform.common.exception.ValidationException;
+import com.tradeplatform.common.exception.RateLimitExceededException;
+import com.tradeplatform.common.latency.LatencyHeaders;
+import com.tradeplatform.common.validation.TradeOrderValidator;
+import com.tradeplatform.tradeapi.ratelimit.UserRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for processing trade orders.
+ * Every order is published with its submission time in the {@link LatencyHeaders#SUBMITTED_AT} header, so
+ * the services downstream can measure how long it took to reach them.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,6 +31,7 @@ import java.util.concurrent.CompletableFuture;
 public class TradeOrderService {
 
     private final KafkaTemplate<String, TradeOrderDTO> kafkaTemplate;
+    private final UserRateLimiter userRateLimiter;
 
     @Value("${spring.kafka.topic.trade-orders}")
     private String tradeOrdersTopic;
@@ -36,26 +42,19 @@ public class TradeOrderService {
      * @param orderDTO the trade order to create
      * @return the created trade order with updated fields
      * @throws ValidationException if the order fails validation
+     * @throws RateLimitExceededException if the user has exceeded their order rate
      * @throws OrderProcessingException if there is an error publishing the order to Kafka
      */
     public TradeOrderDTO createOrder(TradeOrderDTO orderDTO) {
+        long submittedAt = LatencyHeaders.now();
         validateOrder(orderDTO);
-
-        // Set initial values for new order
-        orderDTO.setOrderId(UUID.randomUUID());
-        orderDTO.setStatus(OrderStatus.CREATED);
-        orderDTO.setCreatedAt(LocalDateTime.now());
-        orderDTO.setUpdatedAt(LocalDateTime.now());
-        
-        if (orderDTO.getQuantity() != null) {
-            orderDTO.setFilledQuantity(0);
-            orderDTO.setRemainingQuantity(orderDTO.getQuantity());
-        }
+        userRateLimiter.acquire(orderDTO.getUserId());
+        initializeOrder(orderDTO);
 
         // Publish to Kafka
         try {
             CompletableFuture<SendResult<String, TradeOrderDTO>> future = 
-                kafkaTemplate.send(tradeOrdersTopic, orderDTO.getOrderId().toString(), orderDTO);
+                kafkaTemplate.send(orderRecord(orderDTO, submittedAt));
             
             future.whenComplete((result, ex) -> {
                 if (ex == null) {
@@ -78,32 +77,83 @@ public class TradeOrderService {
     }
 
     /**
-     * Validates a trade order.
+     * Validates a trade order and publishes it to Kafka without waiting for the broker, so many orders
+     * can be in flight at once and the producer can batch them.
      *
-     * @param orderDTO the trade order to validate
+     * @param orderDTO the trade order to create
+     * @return a future completed with the order, marked PENDING, once Kafka has acknowledged it, or
+     *         completed exceptionally with an {@link OrderProcessingException} if publishing failed
      * @throws ValidationException if the order fails validation
+     * @throws RateLimitExceededException if the user has exceeded their order rate
      */
-    private void validateOrder(TradeOrderDTO orderDTO) {
-        Map<String, String> errors = new HashMap<>();
+    public CompletableFuture<TradeOrderDTO> submitOrder(TradeOrderDTO orderDTO) {
+        long submittedAt = LatencyHeaders.now();
+        validateOrder(orderDTO);
+        userRateLimiter.acquire(orderDTO.getUserId());
+        initializeOrder(orderDTO);
 
-        if (orderDTO.getUserId() == null || orderDTO.getUserId().trim().isEmpty()) {
-            errors.put("userId", "User ID is required");
+        CompletableFuture<SendResult<String, TradeOrderDTO>> future;
+        try {
+            future = kafkaTemplate.send(orderRecord(orderDTO, submittedAt));
+        } catch (Exception e) {
+            log.error("Error publishing order to Kafka: {}", orderDTO.getOrderId(), e);
+            return CompletableFuture.failedFuture(new OrderProcessingException(
+                    "Failed to publish order to processing queue", orderDTO.getOrderId(), "Kafka publishing error"));
         }
 
-        if (orderDTO.getSymbol() == null || orderDTO.getSymbol().trim().isEmpty()) {
-            errors.put("symbol", "Symbol is required");
-        }
+        CompletableFuture<TradeOrderDTO> submitted = new CompletableFuture<>();
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                orderDTO.setStatus(OrderStatus.PENDING);
+                orderDTO.setUpdatedAt(LocalDateTime.now());
+                submitted.complete(orderDTO);
+            } else {
+                log.error("Failed to send order to Kafka: {}", orderDTO.getOrderId(), ex);
+                submitted.completeExceptionally(new OrderProcessingException(
+                        "Failed to publish order to processing queue", orderDTO.getOrderId(), "Kafka publishing error"));
+            }
+        });
+        return submitted;
+    }
 
-        if (orderDTO.getOrderType() == null) {
-            errors.put("orderType", "Order type is required");
-        }
+    /**
+     * Builds the record that publishes an order, keyed by order ID and stamped with its submission time.
+     *
+     * @param orderDTO the initialized trade order
+     * @param submittedAt when the order was submitted, from {@link LatencyHeaders#now()}
+     * @return the record
+     */
+    private ProducerRecord<String, TradeOrderDTO> orderRecord(TradeOrderDTO orderDTO, long submittedAt) {
+        ProducerRecord<String, TradeOrderDTO> record =
+                new ProducerRecord<>(tradeOrdersTopic, orderDTO.getOrderId().toString(), orderDTO);
+        record.headers().add(LatencyHeaders.SUBMITTED_AT, LatencyHeaders.encode(submittedAt));
+        return record;
+    }
 
-        if (orderDTO.getQuantity() == null || orderDTO.getQuantity() <= 0) {
-            errors.put("quantity", "Quantity must be positive");
-        }
+    /**
+     * Sets the ID, status, timestamps and quantities of a new order.
+     *
+     * @param orderDTO the trade order to initialize
+     */
+    private void initializeOrder(TradeOrderDTO orderDTO) {
+        orderDTO.setOrderId(UUID.randomUUID());
+        orderDTO.setStatus(OrderStatus.CREATED);
+        orderDTO.setCreatedAt(LocalDateTime.now());
+        orderDTO.setUpdatedAt(LocalDateTime.now());
 
-        if (!errors.isEmpty()) {
-            throw new ValidationException("Trade order validation failed", errors);
+        if (orderDTO.getQuantity() != null) {
+            orderDTO.setFilledQuantity(0);
+            orderDTO.setRemainingQuantity(orderDTO.getQuantity());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Validates a trade order.
+     *
+     * @param orderDTO the trade order to validate
+     * @throws ValidationException if the order fails validation
+     */
+    private void validateOrder(TradeOrderDTO orderDTO) {
+        TradeOrderValidator.validate(orderDTO);
+    }
+}
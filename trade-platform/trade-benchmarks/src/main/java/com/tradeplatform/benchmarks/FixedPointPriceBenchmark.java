@@ -0,0 +1,101 @@
+package com.tradeplatform.benchmarks;
+
+import com.tradeplatform.common.price.FixedPointPrice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares BigDecimal and fixed-point long arithmetic for the price math on the order hot path:
+ * the average-price update of a buy fill and the valuation of a portfolio entry.
+ * <p>
+ * Run with the GC profiler to see the allocation difference:
+ * {@code java -jar trade-benchmarks/target/benchmarks.jar FixedPointPriceBenchmark -prof gc}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointPriceBenchmark {
+
+    private BigDecimal averagePrice;
+    private BigDecimal executionPrice;
+    private BigDecimal currentPrice;
+    private long averagePriceTicks;
+    private long executionPriceTicks;
+    private long currentPriceTicks;
+    private int quantity;
+    private int filledQuantity;
+
+    @Setup
+    public void setUp() {
+        averagePrice = new BigDecimal("151.2375");
+        executionPrice = new BigDecimal("153.4100");
+        currentPrice = new BigDecimal("155.0250");
+        averagePriceTicks = FixedPointPrice.fromBigDecimal(averagePrice);
+        executionPriceTicks = FixedPointPrice.fromBigDecimal(executionPrice);
+        currentPriceTicks = FixedPointPrice.fromBigDecimal(currentPrice);
+        quantity = 1_250;
+        filledQuantity = 300;
+    }
+
+    @Benchmark
+    public BigDecimal averagePriceBigDecimal() {
+        int newQuantity = quantity + filledQuantity;
+        BigDecimal oldValue = averagePrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal newValue = executionPrice.multiply(BigDecimal.valueOf(filledQuantity));
+        return oldValue.add(newValue).divide(BigDecimal.valueOf(newQuantity), 4, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long averagePriceFixedPoint() {
+        int newQuantity = quantity + filledQuantity;
+        long oldValue = FixedPointPrice.multiply(averagePriceTicks, quantity);
+        long newValue = FixedPointPrice.multiply(executionPriceTicks, filledQuantity);
+        return FixedPointPrice.divide(oldValue + newValue, newQuantity);
+    }
+
+    @Benchmark
+    public void valuationBigDecimal(Blackhole blackhole) {
+        BigDecimal costBasis = averagePrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal marketValue = currentPrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal unrealizedPnL = marketValue.subtract(costBasis);
+        BigDecimal percentageGainLoss = unrealizedPnL.divide(costBasis, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100));
+        blackhole.consume(costBasis);
+        blackhole.consume(marketValue);
+        blackhole.consume(unrealizedPnL);
+        blackhole.consume(percentageGainLoss);
+    }
+
+    @Benchmark
+    public void valuationFixedPoint(Blackhole blackhole) {
+        long costBasis = FixedPointPrice.multiply(averagePriceTicks, quantity);
+        long marketValue = FixedPointPrice.multiply(currentPriceTicks, quantity);
+        long unrealizedPnL = marketValue - costBasis;
+        long percentageGainLoss = FixedPointPrice.ratio(unrealizedPnL, costBasis) * 100;
+        blackhole.consume(costBasis);
+        blackhole.consume(marketValue);
+        blackhole.consume(unrealizedPnL);
+        blackhole.consume(percentageGainLoss);
+    }
+
+    @Benchmark
+    public BigDecimal edgeConversionRoundTrip() {
+        return FixedPointPrice.toBigDecimal(FixedPointPrice.fromBigDecimal(executionPrice));
+    }
+}
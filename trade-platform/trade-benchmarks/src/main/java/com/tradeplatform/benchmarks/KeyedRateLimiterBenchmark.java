@@ -0,0 +1,74 @@
+package com.tradeplatform.benchmarks;
+
+import com.tradeplatform.common.ratelimit.KeyedRateLimiter;
+import com.tradeplatform.common.ratelimit.RateLimit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of the per-user admission check in the Trade API, from one thread and from
+ * eight contending threads, over a population of active users that fits the limiter or overflows it.
+ * The limit is high enough that every request is admitted, so the result is the hot-path cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyedRateLimiterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+
+        @Param({"1000", "200000"})
+        public int activeUsers;
+
+        public KeyedRateLimiter limiter;
+        public RateLimit limit;
+        public String[] userIds;
+
+        @Setup
+        public void setUp() {
+            limiter = new KeyedRateLimiter(100_000, 64);
+            limit = new RateLimit(1_000_000_000, 1_000_000);
+            userIds = new String[activeUsers];
+            for (int i = 0; i < activeUsers; i++) {
+                userIds[i] = "user-" + i;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        public int next;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long acquireSingleThread(Limiter state, Cursor cursor) {
+        return acquire(state, cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long acquireContended(Limiter state, Cursor cursor) {
+        return acquire(state, cursor);
+    }
+
+    private static long acquire(Limiter state, Cursor cursor) {
+        String userId = state.userIds[cursor.next++ % state.userIds.length];
+        return state.limiter.tryAcquire(userId, state.limit, System.nanoTime());
+    }
+}
@@ -0,0 +1,144 @@
+package com.tradeplatform.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator for the order entry endpoints of the Trade API and the Trade Gateway.
+ * Each of {@code concurrency} simulated clients keeps one order request outstanding at a time for the
+ * given duration, and the throughput, latency percentiles and 503 (at capacity) responses are printed
+ * at the end.
+ * <p>
+ * Compare both services at the same concurrency and the same CPU budget, for example by pinning each to
+ * the same cores with {@code taskset}:
+ * {@code java -cp trade-benchmarks/target/benchmarks.jar com.tradeplatform.benchmarks.OrderEntryLoadGenerator
+ * http://localhost:8083/api/v1/orders 5000 30}
+ */
+public final class OrderEntryLoadGenerator {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA", "META", "TSLA", "JPM"};
+
+    /**
+     * Latency histogram with 100 microsecond buckets; the last bucket collects everything above 10 seconds.
+     */
+    private static final int BUCKET_MICROS = 100;
+    private static final int BUCKET_COUNT = 100_001;
+
+    private final HttpClient client;
+    private final URI uri;
+    private final long deadlineNanos;
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private OrderEntryLoadGenerator(URI uri, Duration duration) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.uri = uri;
+        this.deadlineNanos = System.nanoTime() + duration.toNanos();
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args the order endpoint URL, the number of concurrent clients and the duration in seconds
+     * @throws InterruptedException if interrupted while waiting for the clients to finish
+     */
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8083/api/v1/orders");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        System.out.printf("Sending orders to %s from %d concurrent clients for %ds%n",
+                uri, concurrency, duration.toSeconds());
+        OrderEntryLoadGenerator generator = new OrderEntryLoadGenerator(uri, duration);
+        long start = System.nanoTime();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            generator.next(done);
+        }
+        done.await();
+        generator.report(System.nanoTime() - start);
+    }
+
+    /**
+     * Sends the next order of one client, or counts the client down once the test is over.
+     */
+    private void next(CountDownLatch done) {
+        if (System.nanoTime() >= deadlineNanos) {
+            done.countDown();
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(randomOrder()))
+                .build();
+        long sentAt = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, e) -> {
+                    record(System.nanoTime() - sentAt, response, e);
+                    next(done);
+                });
+    }
+
+    private void record(long latencyNanos, HttpResponse<?> response, Throwable e) {
+        if (e != null) {
+            failed.increment();
+            return;
+        }
+        int status = response.statusCode();
+        if (status == 503) {
+            overloaded.increment();
+        } else if (status >= 200 && status < 300) {
+            succeeded.increment();
+            int bucket = (int) Math.min(latencyNanos / 1_000 / BUCKET_MICROS, BUCKET_COUNT - 1);
+            latencyBuckets.incrementAndGet(bucket);
+        } else {
+            failed.increment();
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long ok = succeeded.sum();
+        System.out.printf("Accepted: %d (%.0f orders/s), at capacity (503): %d, failed: %d%n",
+                ok, ok / seconds, overloaded.sum(), failed.sum());
+        System.out.printf("Latency of accepted orders: p50 %s, p99 %s, p99.9 %s, max %s%n",
+                percentile(ok, 0.50), percentile(ok, 0.99), percentile(ok, 0.999), percentile(ok, 1.0));
+    }
+
+    private String percentile(long count, double quantile) {
+        if (count == 0) {
+            return "n/a";
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * quantile));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= rank) {
+                return String.format("%.1fms", (i + 1) * BUCKET_MICROS / 1_000.0);
+            }
+        }
+        return "n/a";
+    }
+
+    private static String randomOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("{\"userId\":\"load-%d\",\"symbol\":\"%s\",\"orderType\":\"LIMIT\",\"side\":\"%s\","
+                        + "\"quantity\":%d,\"price\":%d.%02d}",
+                random.nextInt(1_000), SYMBOLS[random.nextInt(SYMBOLS.length)],
+                random.nextBoolean() ? "BUY" : "SELL", 1 + random.nextInt(500),
+                100 + random.nextInt(50), random.nextInt(100));
+    }
+}
@@ -0,0 +1,76 @@
+package com.tradeplatform.benchmarks;
+
+import com.tradeplatform.portfolioservice.entity.PortfolioEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the position math the Portfolio Service runs for every execution report: applying a buy fill,
+ * which recomputes the average price, applying a sell fill, and revaluing the entry before it is saved.
+ * Each fill starts from the same holding, so the quantity and average price are reset first; the reset is
+ * two field writes and does not show in the results.
+ * <p>
+ * Run with the GC profiler to see the allocation rate per fill:
+ * {@code java -jar trade-benchmarks/target/benchmarks.jar PortfolioEntryBenchmark -prof gc}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioEntryBenchmark {
+
+    private PortfolioEntry entry;
+    private int quantity;
+    private BigDecimal averagePrice;
+    private int filledQuantity;
+    private BigDecimal executionPrice;
+
+    @Setup
+    public void setUp() {
+        quantity = 1_250;
+        averagePrice = new BigDecimal("151.2375");
+        filledQuantity = 300;
+        executionPrice = new BigDecimal("153.4100");
+        entry = PortfolioEntry.builder()
+                .userId("user-48213")
+                .symbol("AAPL")
+                .quantity(quantity)
+                .averagePrice(averagePrice)
+                .currentPrice(new BigDecimal("155.0250"))
+                .build();
+    }
+
+    @Benchmark
+    public PortfolioEntry applyBuy() {
+        entry.setQuantity(quantity);
+        entry.setAveragePrice(averagePrice);
+        entry.applyBuy(filledQuantity, executionPrice);
+        return entry;
+    }
+
+    @Benchmark
+    public PortfolioEntry applySell() {
+        entry.setQuantity(quantity);
+        entry.applySell(filledQuantity, executionPrice);
+        return entry;
+    }
+
+    @Benchmark
+    public PortfolioEntry updateCalculatedFields() {
+        entry.updateCalculatedFields();
+        return entry;
+    }
+}
@@ -0,0 +1,398 @@
+package com.tradeplatform.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every finder of {@code TradeOrderRepository} and {@code PortfolioEntryRepository} against an
+ * embedded H2 database seeded with {@code orders} trade orders and a tenth as many portfolio entries, with
+ * and without the indexes declared on the {@code TradeOrder} and {@code PortfolioEntry} entities.
+ * <p>
+ * The schema and the SQL mirror what Hibernate generates for the entities and finders, and are run
+ * through plain JDBC so the numbers show the database's share of each call. The data is skewed like
+ * production: a market maker places 5% of all orders, most orders are FILLED, few are PROCESSING, and a
+ * seventh of all orders have an expiry. The database is file-backed so ten million orders fit in a
+ * modest heap. Seeding ten million orders takes about half an hour, so each database is seeded once,
+ * under {@code ${java.io.tmpdir}/trade-benchmarks}, and reused by every later trial and run; delete the
+ * directory to reseed.
+ * <p>
+ * {@code java -jar trade-benchmarks/target/benchmarks.jar RepositoryQueryBenchmark -rf json
+ * -rff trade-benchmarks/results/repository-queries.json}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RepositoryQueryBenchmark {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final int USERS = 100_000;
+    private static final int SYMBOLS = 500;
+    private static final int SEED_CHUNK = 500_000;
+
+    /**
+     * Indexes declared by the {@code TradeOrder} and {@code PortfolioEntry} entities; keep in sync.
+     */
+    private static final String[] INDEXES = {
+            "CREATE INDEX idx_trade_orders_created ON trade_orders (created_at DESC, order_id DESC)",
+            "CREATE INDEX idx_trade_orders_status_created ON trade_orders (status, created_at DESC, order_id DESC)",
+            "CREATE INDEX idx_trade_orders_symbol_created ON trade_orders (symbol, created_at DESC, order_id DESC)",
+            "CREATE INDEX idx_trade_orders_user_created ON trade_orders (user_id, created_at, order_id)",
+            "CREATE INDEX idx_trade_orders_status_attempt ON trade_orders (status, last_processing_attempt, order_id)",
+            "CREATE INDEX idx_trade_orders_updated ON trade_orders (updated_at, order_id)",
+            "CREATE INDEX idx_portfolio_entries_symbol ON portfolio_entries (symbol)"
+    };
+
+    private static final String ORDER_COLUMNS = "order_id, user_id, symbol, order_type, side, status, quantity, "
+            + "price, stop_price, created_at, updated_at, executed_at, triggered_at, expires_at, execution_price, "
+            + "filled_quantity, remaining_quantity, notes, processing_attempts, last_error_message, "
+            + "last_processing_attempt";
+
+    private static final String SUMMARY_COLUMNS = "order_id, user_id, symbol, order_type, side, status, quantity, "
+            + "price, execution_price, filled_quantity, remaining_quantity, created_at, updated_at, executed_at";
+
+    private static final String ENTRY_COLUMNS = "id, user_id, symbol, quantity, average_price, current_price, "
+            + "cost_basis, market_value, unrealized_pnl, percentage_gain_loss, last_updated, notes, "
+            + "position_sequence, version";
+
+    @Param({"10000000"})
+    public int orders;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Connection connection;
+    private UUID existingOrderId;
+    private Timestamp middle;
+    private UUID middleOrderId;
+
+    private PreparedStatement findById;
+    private PreparedStatement findByUserId;
+    private PreparedStatement findByStatus;
+    private PreparedStatement findBySymbol;
+    private PreparedStatement findByUserIdAndStatus;
+    private PreparedStatement findByCreatedAtBetween;
+    private PreparedStatement findStuckOrders;
+    private PreparedStatement findStuckOrdersPage;
+    private PreparedStatement findOrderIdsUpdatedSince;
+    private PreparedStatement findByStatusInAndExpiresAtIsNotNull;
+    private PreparedStatement findOrderSummaries;
+    private PreparedStatement findOrderSummariesByStatus;
+    private PreparedStatement findOrderSummariesBySymbol;
+    private PreparedStatement findOrderSummariesAfter;
+    private PreparedStatement streamByUserId;
+    private PreparedStatement findEntriesByUserId;
+    private PreparedStatement findEntryByUserIdAndSymbol;
+    private PreparedStatement findEntriesBySymbol;
+    private PreparedStatement countEntriesByUserId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"), "trade-benchmarks",
+                "orders-" + orders + (indexed ? "-indexed" : ""));
+        // H2 would otherwise return a cached result for a repeated query on a table that has not changed
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("db")
+                + ";CACHE_SIZE=262144;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        if (!isSeeded()) {
+            seed();
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT order_id, created_at FROM trade_orders WHERE user_id = "
+                     + "'user-4242' ORDER BY created_at, order_id")) {
+            rs.next();
+            existingOrderId = rs.getObject(1, UUID.class);
+        }
+        middle = Timestamp.valueOf(EPOCH.plusNanos(orders / 2 * 1_000_000L));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT order_id FROM trade_orders WHERE created_at = ?")) {
+            statement.setTimestamp(1, middle);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                middleOrderId = rs.getObject(1, UUID.class);
+            }
+        }
+        prepareStatements();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private boolean isSeeded() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                     + "WHERE TABLE_NAME = 'SEED_COMPLETE'")) {
+            rs.next();
+            return rs.getInt(1) > 0;
+        }
+    }
+
+    private void seed() throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        createSchema();
+        seedOrders();
+        seedPortfolioEntries();
+        try (Statement statement = connection.createStatement()) {
+            if (indexed) {
+                for (String index : INDEXES) {
+                    statement.execute(index);
+                }
+            }
+            statement.execute("ANALYZE");
+            statement.execute("CREATE TABLE seed_complete (seeded_at TIMESTAMP)");
+        }
+        System.out.printf("%nSeeded %,d orders (indexed: %s) in %d s%n", orders, indexed,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    private void createSchema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE trade_orders (order_id UUID NOT NULL PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, symbol VARCHAR(255) NOT NULL, order_type VARCHAR(255) NOT NULL, "
+                    + "side VARCHAR(255), status VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, "
+                    + "price NUMERIC(19,4), stop_price NUMERIC(19,4), created_at TIMESTAMP(6) NOT NULL, "
+                    + "updated_at TIMESTAMP(6) NOT NULL, executed_at TIMESTAMP(6), triggered_at TIMESTAMP(6), "
+                    + "expires_at TIMESTAMP(6), execution_price NUMERIC(19,4), filled_quantity INTEGER, "
+                    + "remaining_quantity INTEGER, notes VARCHAR(1000), processing_attempts INTEGER NOT NULL, "
+                    + "last_error_message VARCHAR(1000), last_processing_attempt TIMESTAMP(6))");
+            statement.execute("CREATE TABLE portfolio_entries (id UUID NOT NULL PRIMARY KEY, "
+                    + "user_id VARCHAR(255) NOT NULL, symbol VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, "
+                    + "average_price NUMERIC(19,4) NOT NULL, current_price NUMERIC(19,4), cost_basis NUMERIC(19,4), "
+                    + "market_value NUMERIC(19,4), unrealized_pnl NUMERIC(19,4), percentage_gain_loss NUMERIC(19,4), "
+                    + "last_updated TIMESTAMP(6) NOT NULL, notes VARCHAR(1000), position_sequence BIGINT, "
+                    + "version BIGINT, CONSTRAINT uk_portfolio_entries_user_symbol UNIQUE (user_id, symbol))");
+        }
+    }
+
+    /**
+     * Seeds one order per millisecond from {@link #EPOCH}, in chunks so no single transaction grows too large.
+     * Status and symbol are drawn at random so they do not correlate with the user.
+     */
+    private void seedOrders() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO trade_orders (" + ORDER_COLUMNS
+                + ") SELECT RANDOM_UUID(), "
+                + "CASE WHEN MOD(X, 20) = 0 THEN 'market-maker' ELSE 'user-' || MOD(X, " + USERS + ") END, "
+                + "'SYM' || CAST(FLOOR(S * " + SYMBOLS + ") AS INT), "
+                + "CASE MOD(X, 4) WHEN 0 THEN 'LIMIT' WHEN 1 THEN 'MARKET' WHEN 2 THEN 'BUY' ELSE 'SELL' END, "
+                + "CASE WHEN MOD(X, 2) = 0 THEN 'BUY' ELSE 'SELL' END, "
+                + "CASE WHEN R < 0.0001 THEN 'PROCESSING' WHEN R < 0.0101 THEN 'REJECTED' "
+                + "WHEN R < 0.0601 THEN 'PENDING' WHEN R < 0.0801 THEN 'PARTIALLY_FILLED' "
+                + "WHEN R < 0.0901 THEN 'CANCELLED' ELSE 'FILLED' END, "
+                + "1 + MOD(X, 500), 100 + MOD(X, 5000) / 100.0, NULL, C, DATEADD(MILLISECOND, 5, C), "
+                + "DATEADD(MILLISECOND, 3, C), NULL, CASE WHEN MOD(X, 7) = 0 THEN DATEADD(DAY, 1, C) END, "
+                + "100 + MOD(X, 5000) / 100.0, 1 + MOD(X, 500), 0, NULL, 1, NULL, C "
+                + "FROM (SELECT X, DATEADD(MILLISECOND, X, CAST(? AS TIMESTAMP(6))) C, RAND() R, RAND() S FROM SYSTEM_RANGE(?, ?))")) {
+            for (int from = 0; from < orders; from += SEED_CHUNK) {
+                statement.setTimestamp(1, Timestamp.valueOf(EPOCH));
+                statement.setInt(2, from);
+                statement.setInt(3, Math.min(from + SEED_CHUNK, orders) - 1);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Seeds ten holdings for each of a tenth as many users as there are orders, spread over the symbols.
+     */
+    private void seedPortfolioEntries() throws SQLException {
+        int entries = orders / 10;
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO portfolio_entries ("
+                + ENTRY_COLUMNS + ") SELECT RANDOM_UUID(), 'user-' || (X / 10), "
+                + "'SYM' || MOD(X / 10 + MOD(X, 10) * 50, " + SYMBOLS + "), 1 + MOD(X, 1000), 100, 101, 100, 101, 1, 1, "
+                + "CAST(? AS TIMESTAMP(6)), NULL, X, 0 FROM SYSTEM_RANGE(?, ?)")) {
+            for (int from = 0; from < entries; from += SEED_CHUNK) {
+                statement.setTimestamp(1, Timestamp.valueOf(EPOCH));
+                statement.setInt(2, from);
+                statement.setInt(3, Math.min(from + SEED_CHUNK, entries) - 1);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private void prepareStatements() throws SQLException {
+        String selectOrders = "SELECT " + ORDER_COLUMNS + " FROM trade_orders WHERE ";
+        String selectSummaries = "SELECT " + SUMMARY_COLUMNS + " FROM trade_orders ";
+        String newestFirst = "created_at DESC, order_id DESC FETCH FIRST 51 ROWS ONLY";
+        String selectEntries = "SELECT " + ENTRY_COLUMNS + " FROM portfolio_entries WHERE ";
+
+        findById = prepare(selectOrders + "order_id = ?", existingOrderId);
+        findByUserId = prepare(selectOrders + "user_id = ?", "user-4242");
+        findByStatus = prepare(selectOrders + "status = ?", "PROCESSING");
+        findBySymbol = prepare(selectOrders + "symbol = ?", "SYM42");
+        findByUserIdAndStatus = prepare(selectOrders + "user_id = ? AND status = ?", "user-4242", "FILLED");
+        findByCreatedAtBetween = prepare(selectOrders + "created_at BETWEEN ? AND ?",
+                middle, Timestamp.valueOf(middle.toLocalDateTime().plusSeconds(1)));
+        findStuckOrders = prepare(selectOrders + "status = ? AND last_processing_attempt < ?",
+                "PROCESSING", Timestamp.valueOf(EPOCH.plusHours(1)));
+        findStuckOrdersPage = prepare(selectOrders + "status = ? AND last_processing_attempt < ? AND order_id > ? "
+                        + "ORDER BY order_id FETCH FIRST 100 ROWS ONLY",
+                "PROCESSING", Timestamp.valueOf(EPOCH.plusHours(1)), new UUID(0, 0));
+        findOrderIdsUpdatedSince = prepare("SELECT order_id FROM trade_orders WHERE updated_at >= ?",
+                Timestamp.valueOf(EPOCH.plusNanos((orders - 1_000) * 1_000_000L)));
+        findByStatusInAndExpiresAtIsNotNull = prepare(selectOrders + "status IN (?, ?, ?) AND expires_at IS NOT NULL",
+                "CREATED", "PENDING", "PARTIALLY_FILLED");
+        findOrderSummaries = prepare(selectSummaries + "ORDER BY " + newestFirst);
+        findOrderSummariesByStatus = prepare(selectSummaries + "WHERE status = ? ORDER BY status, " + newestFirst,
+                "PENDING");
+        findOrderSummariesBySymbol = prepare(selectSummaries + "WHERE symbol = ? ORDER BY symbol, " + newestFirst,
+                "SYM42");
+        findOrderSummariesAfter = prepare(selectSummaries + "WHERE created_at <= ? AND (created_at < ? OR order_id < ?) "
+                + "ORDER BY " + newestFirst, middle, middle, middleOrderId);
+        streamByUserId = prepare(selectOrders + "user_id = ? ORDER BY created_at, order_id", "user-4242");
+        findEntriesByUserId = prepare(selectEntries + "user_id = ?", "user-4242");
+        findEntryByUserIdAndSymbol = prepare(selectEntries + "user_id = ? AND symbol = ?", "user-4242", "SYM42");
+        findEntriesBySymbol = prepare(selectEntries + "symbol = ?", "SYM42");
+        countEntriesByUserId = prepare("SELECT COUNT(*) FROM portfolio_entries WHERE user_id = ?", "user-4242");
+    }
+
+    private PreparedStatement prepare(String sql, Object... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        return statement;
+    }
+
+    /**
+     * Runs a query and reads every column of every row, as mapping the result to entities would.
+     */
+    private static int query(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int column = 1; column <= columns; column++) {
+                    blackhole.consume(rs.getObject(column));
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public int findById(Blackhole blackhole) throws SQLException {
+        return query(findById, blackhole);
+    }
+
+    @Benchmark
+    public int findByUserId(Blackhole blackhole) throws SQLException {
+        return query(findByUserId, blackhole);
+    }
+
+    @Benchmark
+    public int findByStatus(Blackhole blackhole) throws SQLException {
+        return query(findByStatus, blackhole);
+    }
+
+    @Benchmark
+    public int findBySymbol(Blackhole blackhole) throws SQLException {
+        return query(findBySymbol, blackhole);
+    }
+
+    @Benchmark
+    public int findByUserIdAndStatus(Blackhole blackhole) throws SQLException {
+        return query(findByUserIdAndStatus, blackhole);
+    }
+
+    @Benchmark
+    public int findByCreatedAtBetween(Blackhole blackhole) throws SQLException {
+        return query(findByCreatedAtBetween, blackhole);
+    }
+
+    @Benchmark
+    public int findStuckOrders(Blackhole blackhole) throws SQLException {
+        return query(findStuckOrders, blackhole);
+    }
+
+    @Benchmark
+    public int findStuckOrdersPage(Blackhole blackhole) throws SQLException {
+        return query(findStuckOrdersPage, blackhole);
+    }
+
+    @Benchmark
+    public int findOrderIdsUpdatedSince(Blackhole blackhole) throws SQLException {
+        return query(findOrderIdsUpdatedSince, blackhole);
+    }
+
+    @Benchmark
+    public int findByStatusInAndExpiresAtIsNotNull(Blackhole blackhole) throws SQLException {
+        return query(findByStatusInAndExpiresAtIsNotNull, blackhole);
+    }
+
+    @Benchmark
+    public int findOrderSummaries(Blackhole blackhole) throws SQLException {
+        return query(findOrderSummaries, blackhole);
+    }
+
+    @Benchmark
+    public int findOrderSummariesByStatus(Blackhole blackhole) throws SQLException {
+        return query(findOrderSummariesByStatus, blackhole);
+    }
+
+    @Benchmark
+    public int findOrderSummariesBySymbol(Blackhole blackhole) throws SQLException {
+        return query(findOrderSummariesBySymbol, blackhole);
+    }
+
+    @Benchmark
+    public int findOrderSummariesAfter(Blackhole blackhole) throws SQLException {
+        return query(findOrderSummariesAfter, blackhole);
+    }
+
+    @Benchmark
+    public int streamByUserId(Blackhole blackhole) throws SQLException {
+        return query(streamByUserId, blackhole);
+    }
+
+    @Benchmark
+    public int findEntriesByUserId(Blackhole blackhole) throws SQLException {
+        return query(findEntriesByUserId, blackhole);
+    }
+
+    @Benchmark
+    public int findEntryByUserIdAndSymbol(Blackhole blackhole) throws SQLException {
+        return query(findEntryByUserIdAndSymbol, blackhole);
+    }
+
+    @Benchmark
+    public int findEntriesBySymbol(Blackhole blackhole) throws SQLException {
+        return query(findEntriesBySymbol, blackhole);
+    }
+
+    @Benchmark
+    public int countEntriesByUserId(Blackhole blackhole) throws SQLException {
+        return query(countEntriesByUserId, blackhole);
+    }
+}
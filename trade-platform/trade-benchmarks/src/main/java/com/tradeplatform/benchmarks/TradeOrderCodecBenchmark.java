@@ -0,0 +1,106 @@
+package com.tradeplatform.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tradeplatform.common.codec.TradeOrderCodec;
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON and the binary codec for a trade order as it travels on the trade-orders topic:
+ * encoding, decoding into a new order as the Kafka consumer does, and decoding into a reused order.
+ * The message size of each format is printed once at setup.
+ * <p>
+ * Run with the GC profiler to see the allocation rate per message:
+ * {@code java -jar trade-benchmarks/target/benchmarks.jar TradeOrderCodecBenchmark -prof gc}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeOrderCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private TradeOrderCodec codec;
+    private TradeOrderDTO order;
+    private TradeOrderDTO reusedOrder;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Configured like the ObjectMapper of Spring Kafka's JsonSerializer and JsonDeserializer
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        codec = new TradeOrderCodec();
+        reusedOrder = new TradeOrderDTO();
+
+        LocalDateTime now = LocalDateTime.of(2024, 5, 14, 9, 30, 15);
+        order = TradeOrderDTO.builder()
+                .orderId(UUID.randomUUID())
+                .userId("user-48213")
+                .symbol("AAPL")
+                .orderType(OrderType.LIMIT)
+                .side(OrderSide.BUY)
+                .status(OrderStatus.CREATED)
+                .quantity(1_250)
+                .price(new BigDecimal("189.4200"))
+                .createdAt(now)
+                .updatedAt(now)
+                .expiresAt(now.plusHours(8))
+                .build();
+
+        json = objectMapper.writeValueAsBytes(order);
+        binary = codec.encode(order);
+        System.out.printf("%nMessage size: JSON %d bytes, binary %d bytes%n", json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return codec.encode(order);
+    }
+
+    @Benchmark
+    public TradeOrderDTO decodeJson() throws IOException {
+        return objectMapper.readValue(json, TradeOrderDTO.class);
+    }
+
+    @Benchmark
+    public TradeOrderDTO decodeBinary() {
+        return codec.decode(binary);
+    }
+
+    @Benchmark
+    public TradeOrderDTO decodeBinaryReused() {
+        return codec.decode(ByteBuffer.wrap(binary), reusedOrder);
+    }
+}
@@ -0,0 +1,83 @@
+package com.tradeplatform.benchmarks;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderSummaryDTO;
+import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.service.TradeOrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions of the Trade Processor between orders and their DTOs: an incoming order into
+ * an entity, and an entity into the DTO returned by the API and into the summary pushed to the order
+ * status stream. The orders are filled limit orders, so every field is copied.
+ * <p>
+ * Run with the GC profiler to see the allocation rate per conversion:
+ * {@code java -jar trade-benchmarks/target/benchmarks.jar TradeOrderMappingBenchmark -prof gc}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeOrderMappingBenchmark {
+
+    private TradeOrderDTO orderDTO;
+    private TradeOrder order;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 14, 9, 30, 15);
+        orderDTO = TradeOrderDTO.builder()
+                .orderId(UUID.randomUUID())
+                .userId("user-48213")
+                .symbol("AAPL")
+                .orderType(OrderType.LIMIT)
+                .side(OrderSide.BUY)
+                .status(OrderStatus.FILLED)
+                .quantity(1_250)
+                .price(new BigDecimal("189.4200"))
+                .createdAt(now)
+                .updatedAt(now.plusSeconds(2))
+                .executedAt(now.plusSeconds(2))
+                .expiresAt(now.plusHours(8))
+                .executionPrice(new BigDecimal("189.4100"))
+                .filledQuantity(1_250)
+                .remainingQuantity(0)
+                .notes("Filled against 3 resting orders")
+                .build();
+        order = TradeOrderMapper.toEntity(orderDTO);
+    }
+
+    @Benchmark
+    public TradeOrder toEntity() {
+        return TradeOrderMapper.toEntity(orderDTO);
+    }
+
+    @Benchmark
+    public TradeOrderDTO toDTO() {
+        return TradeOrderMapper.toDTO(order);
+    }
+
+    @Benchmark
+    public OrderSummaryDTO toSummary() {
+        return TradeOrderMapper.toSummary(order);
+    }
+}
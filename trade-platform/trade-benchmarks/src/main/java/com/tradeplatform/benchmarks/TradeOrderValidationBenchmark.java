@@ -0,0 +1,82 @@
+package com.tradeplatform.benchmarks;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.ValidationException;
+import com.tradeplatform.common.validation.TradeOrderValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validation every order entry service runs on a new order: a valid stop-limit order, which
+ * passes every rule, and a limit order without a price or quantity, which is rejected with a
+ * {@link ValidationException}.
+ * <p>
+ * Run with the GC profiler to see the allocation rate per order:
+ * {@code java -jar trade-benchmarks/target/benchmarks.jar TradeOrderValidationBenchmark -prof gc}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeOrderValidationBenchmark {
+
+    private TradeOrderDTO validOrder;
+    private TradeOrderDTO invalidOrder;
+
+    @Setup
+    public void setUp() {
+        validOrder = TradeOrderDTO.builder()
+                .orderId(UUID.randomUUID())
+                .userId("user-48213")
+                .symbol("AAPL")
+                .orderType(OrderType.STOP_LIMIT)
+                .side(OrderSide.SELL)
+                .status(OrderStatus.CREATED)
+                .quantity(1_250)
+                .price(new BigDecimal("185.0000"))
+                .stopPrice(new BigDecimal("186.5000"))
+                .build();
+        invalidOrder = TradeOrderDTO.builder()
+                .orderId(UUID.randomUUID())
+                .userId("user-48213")
+                .symbol("AAPL")
+                .orderType(OrderType.LIMIT)
+                .side(OrderSide.BUY)
+                .status(OrderStatus.CREATED)
+                .quantity(0)
+                .build();
+    }
+
+    @Benchmark
+    public TradeOrderDTO validateValid() {
+        TradeOrderValidator.validate(validOrder);
+        return validOrder;
+    }
+
+    @Benchmark
+    public ValidationException validateInvalid() {
+        try {
+            TradeOrderValidator.validate(invalidOrder);
+            throw new IllegalStateException("Order passed validation");
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
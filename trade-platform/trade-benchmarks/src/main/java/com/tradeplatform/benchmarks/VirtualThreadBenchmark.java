@@ -0,0 +1,146 @@
+package com.tradeplatform.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compares platform and virtual threads for the blocking request handling in the services: a burst of
+ * concurrent requests that each wait on I/O, as a controller or Kafka listener does while waiting on JPA.
+ * <p>
+ * The platform mode uses a fixed pool of 200 threads, Tomcat's default maximum; the virtual mode starts one
+ * virtual thread per request, as with {@code spring.threads.virtual.enabled=true}. The {@code guard}
+ * parameter wraps the wait in a {@code synchronized} block, which pins the virtual thread to its carrier on
+ * this JDK, or in a {@link ReentrantLock}, which does not. Each request has its own monitor, so any
+ * slowdown comes from pinning, not contention.
+ * <p>
+ * {@code java -jar trade-benchmarks/target/benchmarks.jar VirtualThreadBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    /**
+     * Platform threads in the fixed pool, matching Tomcat's default {@code server.tomcat.threads.max}.
+     */
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    /**
+     * Simulated time each request waits on the database.
+     */
+    private static final long IO_WAIT_MILLIS = 5;
+
+    @Param({"1000", "10000"})
+    private int concurrency;
+
+    @Param({"NONE", "SYNCHRONIZED", "REENTRANT_LOCK"})
+    private Guard guard;
+
+    private ExecutorService platformExecutor;
+    private ExecutorService virtualExecutor;
+    private Object[] monitors;
+    private ReentrantLock[] locks;
+
+    /**
+     * How the simulated I/O wait is guarded.
+     */
+    public enum Guard {
+        NONE, SYNCHRONIZED, REENTRANT_LOCK
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        platformExecutor = Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+        virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        monitors = new Object[concurrency];
+        locks = new ReentrantLock[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            monitors[i] = new Object();
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformExecutor.shutdownNow();
+        virtualExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int platformThreads() throws Exception {
+        return runBurst(platformExecutor);
+    }
+
+    @Benchmark
+    public int virtualThreads() throws Exception {
+        return runBurst(virtualExecutor);
+    }
+
+    /**
+     * Submits one request per unit of concurrency and waits for all of them.
+     *
+     * @param executor the executor to run the requests on
+     * @return the number of completed requests
+     * @throws Exception if a request fails
+     */
+    private int runBurst(ExecutorService executor) throws Exception {
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int request = i;
+            futures.add(executor.submit(() -> handle(request)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    private void handle(int request) {
+        switch (guard) {
+            case NONE -> waitForIo();
+            case SYNCHRONIZED -> {
+                synchronized (monitors[request]) {
+                    waitForIo();
+                }
+            }
+            case REENTRANT_LOCK -> {
+                locks[request].lock();
+                try {
+                    waitForIo();
+                } finally {
+                    locks[request].unlock();
+                }
+            }
+        }
+    }
+
+    private static void waitForIo() {
+        try {
+            Thread.sleep(IO_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class FixedPointPriceBenchmark_jmhType extends FixedPointPriceBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class KeyedRateLimiterBenchmark_Cursor_jmhType extends KeyedRateLimiterBenchmark_Cursor_jmhType_B3 {
+}
+
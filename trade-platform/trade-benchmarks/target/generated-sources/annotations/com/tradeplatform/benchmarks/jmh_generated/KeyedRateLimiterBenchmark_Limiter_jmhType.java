@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class KeyedRateLimiterBenchmark_Limiter_jmhType extends KeyedRateLimiterBenchmark_Limiter_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class PortfolioEntryBenchmark_jmhType extends PortfolioEntryBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class RepositoryQueryBenchmark_jmhType extends RepositoryQueryBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class TradeOrderCodecBenchmark_jmhType extends TradeOrderCodecBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class TradeOrderMappingBenchmark_jmhType extends TradeOrderMappingBenchmark_jmhType_B3 {
+}
+
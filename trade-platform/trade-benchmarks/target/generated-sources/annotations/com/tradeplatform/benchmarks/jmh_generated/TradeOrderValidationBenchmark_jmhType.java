@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class TradeOrderValidationBenchmark_jmhType extends TradeOrderValidationBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.tradeplatform.benchmarks.jmh_generated;
+public class VirtualThreadBenchmark_jmhType extends VirtualThreadBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,23 @@
+package com.tradeplatform.tradegateway;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Main application class for the Trade Gateway service.
+ * This service is a reactive alternative to the Trade API for order entry: it serves the same order
+ * submission endpoints on a small number of event loop threads and confirms each order only once Kafka
+ * has acknowledged it.
+ */
+@SpringBootApplication
+public class TradeGatewayApplication {
+
+    /**
+     * Main method to start the Trade Gateway application.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        SpringApplication.run(TradeGatewayApplication.class, args);
+    }
+}
@@ -0,0 +1,93 @@
+package com.tradeplatform.tradegateway.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradeplatform.common.codec.TradeOrderCodec;
+import com.tradeplatform.common.codec.WireFormat;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration class for the reactive Kafka producer.
+ */
+@Configuration
+public class KafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${trade.kafka.trade-orders.format:JSON}")
+    private WireFormat tradeOrdersFormat;
+
+    @Value("${trade.gateway.kafka.linger-ms:5}")
+    private int lingerMs;
+
+    @Value("${trade.gateway.kafka.buffer-memory:33554432}")
+    private long bufferMemory;
+
+    @Value("${trade.gateway.kafka.max-block-ms:100}")
+    private long maxBlockMs;
+
+    @Value("${trade.gateway.kafka.max-in-flight:1024}")
+    private int maxInFlight;
+
+    /**
+     * Creates the reactive Kafka sender for TradeOrderDTO objects.
+     * The producer is idempotent and waits for all replicas, as in the Trade API. It blocks for at most
+     * {@code trade.gateway.kafka.max-block-ms} when its buffer is full, after which the send fails and the
+     * gateway reports itself overloaded instead of queueing more orders. Orders are written as JSON, or in
+     * the compact binary format when {@code trade.kafka.trade-orders.format} is BINARY.
+     *
+     * @param objectMapper the application's object mapper, used for JSON
+     * @return the Kafka sender
+     */
+    @Bean(destroyMethod = "close")
+    public KafkaSender<String, TradeOrderDTO> kafkaSender(ObjectMapper objectMapper) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // Enable idempotence for exactly-once semantics
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+
+        SenderOptions<String, TradeOrderDTO> options = SenderOptions.<String, TradeOrderDTO>create(configProps)
+                .withKeySerializer(new StringSerializer())
+                .withValueSerializer(valueSerializer(objectMapper))
+                .maxInFlight(maxInFlight);
+        return KafkaSender.create(options);
+    }
+
+    /**
+     * Creates the serializer for the configured wire format of the trade-orders topic.
+     *
+     * @param objectMapper the object mapper used for JSON
+     * @return the value serializer
+     */
+    private Serializer<TradeOrderDTO> valueSerializer(ObjectMapper objectMapper) {
+        if (tradeOrdersFormat == WireFormat.BINARY) {
+            TradeOrderCodec codec = new TradeOrderCodec();
+            return (topic, order) -> order != null ? codec.encode(order) : null;
+        }
+        return (topic, order) -> {
+            try {
+                return order != null ? objectMapper.writeValueAsBytes(order) : null;
+            } catch (JsonProcessingException e) {
+                throw new SerializationException("Failed to serialize trade order", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.tradeplatform.tradegateway.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tradeplatform.common.dto.OrderSubmissionResultDTO;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.CapacityExceededException;
+import com.tradeplatform.common.exception.OrderProcessingException;
+import com.tradeplatform.common.exception.ValidationException;
+import com.tradeplatform.tradegateway.service.OrderGatewayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reactive REST controller for trade order submission, with the same contract as the Trade API.
+ */
+@RestController
+@RequestMapping("/api/v1/orders")
+@RequiredArgsConstructor
+@Slf4j
+public class TradeOrderController {
+
+    private final OrderGatewayService orderGatewayService;
+
+    /**
+     * Creates a new trade order, responding once Kafka has acknowledged it.
+     * Responds with 503 and a Retry-After header when the gateway is at capacity.
+     *
+     * @param orderDTO the trade order to create
+     * @return the created trade order
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> createOrder(@RequestBody TradeOrderDTO orderDTO) {
+        return orderGatewayService.submitOrder(orderDTO)
+                .<ResponseEntity<?>>map(createdOrder -> ResponseEntity.status(HttpStatus.CREATED).body(createdOrder))
+                .onErrorResume(ValidationException.class, e -> {
+                    log.warn("Validation error when creating order: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest()
+                            .body(createErrorResponse(e.getMessage(), e.getFieldErrors())));
+                })
+                .onErrorResume(CapacityExceededException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                                .body(createErrorResponse(e.getMessage(), null))))
+                .onErrorResume(OrderProcessingException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body(createErrorResponse(e.getMessage(), Map.of("reason", e.getReason())))))
+                .onErrorResume(e -> {
+                    log.error("Unexpected error when creating order", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(createErrorResponse("An unexpected error occurred", null)));
+                });
+    }
+
+    /**
+     * Creates trade orders in bulk from a JSON array or newline-delimited JSON body.
+     * The body is consumed only as fast as orders are acknowledged, and one result per order is streamed
+     * back as newline-delimited JSON, in the order the orders were submitted.
+     *
+     * @param orders the orders in the request body
+     * @return the result of each order
+     */
+    @PostMapping(path = "/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderSubmissionResultDTO> createOrders(@RequestBody Flux<JsonNode> orders) {
+        return orderGatewayService.submitOrders(orders);
+    }
+
+    /**
+     * Creates an error response with the given message and details.
+     *
+     * @param message the error message
+     * @param details the error details
+     * @return the error response
+     */
+    private Map<String, Object> createErrorResponse(String message, Map<String, String> details) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("message", message);
+        if (details != null && !details.isEmpty()) {
+            errorResponse.put("details", details);
+        }
+        return errorResponse;
+    }
+}
@@ -0,0 +1,268 @@
+package com.tradeplatform.tradegateway.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderSubmissionResultDTO;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.CapacityExceededException;
+import com.tradeplatform.common.exception.OrderProcessingException;
+import com.tradeplatform.common.exception.TradePlatformException;
+import com.tradeplatform.common.exception.ValidationException;
+import com.tradeplatform.common.latency.LatencyHeaders;
+import com.tradeplatform.common.validation.TradeOrderValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive service for validating trade orders and publishing them to Kafka.
+ * <p>
+ * An order is confirmed only once Kafka has acknowledged it. Backpressure reaches clients in two ways: a
+ * single order is refused with a {@link CapacityExceededException} when {@code trade.gateway.max-pending-orders}
+ * orders are already awaiting acknowledgement or the producer buffer stays full, and a batch is read from the
+ * request body only as fast as its orders are acknowledged, with at most {@code trade.gateway.batch.max-in-flight}
+ * outstanding.
+ */
+@Service
+@Slf4j
+public class OrderGatewayService {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final KafkaSender<String, TradeOrderDTO> kafkaSender;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AtomicInteger pendingOrders = new AtomicInteger();
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter overloadedCounter;
+    private final Counter failedCounter;
+
+    @Value("${spring.kafka.topic.trade-orders}")
+    private String tradeOrdersTopic;
+
+    @Value("${trade.gateway.max-pending-orders:10000}")
+    private int maxPendingOrders;
+
+    @Value("${trade.gateway.batch.max-in-flight:1000}")
+    private int batchMaxInFlight;
+
+    /**
+     * Creates the service and registers its metrics.
+     *
+     * @param kafkaSender the reactive Kafka sender
+     * @param objectMapper the application's object mapper, used to read batch orders
+     * @param validator the bean validator applied to each order
+     * @param meterRegistry the registry for the order outcome counters and pending orders gauge
+     */
+    public OrderGatewayService(KafkaSender<String, TradeOrderDTO> kafkaSender, ObjectMapper objectMapper,
+                               Validator validator, MeterRegistry meterRegistry) {
+        this.kafkaSender = kafkaSender;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.acceptedCounter = outcomeCounter(meterRegistry, "accepted");
+        this.rejectedCounter = outcomeCounter(meterRegistry, "rejected");
+        this.overloadedCounter = outcomeCounter(meterRegistry, "overloaded");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        Gauge.builder("trade.gateway.pending.orders", pendingOrders, AtomicInteger::get)
+                .description("Orders published and awaiting Kafka acknowledgement")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates a trade order and publishes it to Kafka.
+     *
+     * @param orderDTO the trade order to create
+     * @return a Mono emitting the order, marked PENDING, once Kafka has acknowledged it; it fails with a
+     *         {@link ValidationException} if the order is invalid, a {@link CapacityExceededException} if the
+     *         gateway is at capacity, or an {@link OrderProcessingException} if publishing failed
+     */
+    public Mono<TradeOrderDTO> submitOrder(TradeOrderDTO orderDTO) {
+        return Mono.defer(() -> {
+            validate(orderDTO);
+            if (pendingOrders.incrementAndGet() > maxPendingOrders) {
+                pendingOrders.decrementAndGet();
+                overloadedCounter.increment();
+                return Mono.error(new CapacityExceededException("Order gateway is at capacity", RETRY_AFTER));
+            }
+            return send(orderDTO).doFinally(signal -> pendingOrders.decrementAndGet());
+        });
+    }
+
+    /**
+     * Submits a stream of orders and emits one result per order, in the order they were read.
+     * Orders are read from the stream only as fast as they are acknowledged, so a large batch never
+     * buffers in the gateway. An order that cannot be read or fails validation is rejected on its own;
+     * a body that is not well-formed JSON ends the batch with a final rejected result at the position where
+     * decoding stopped.
+     *
+     * @param orders the orders as read from the request body
+     * @return the result of each order
+     */
+    public Flux<OrderSubmissionResultDTO> submitOrders(Flux<JsonNode> orders) {
+        AtomicLong read = new AtomicLong();
+        return orders
+                .doOnNext(node -> read.incrementAndGet())
+                .index()
+                .flatMapSequentialDelayError(order -> submitBatchOrder(order.getT1(), order.getT2()),
+                        batchMaxInFlight, 1)
+                .onErrorResume(e -> {
+                    log.warn("Malformed batch body after {} orders: {}", read.get(), e.getMessage());
+                    return Mono.just(rejected(read.get(), "Malformed request body: " + e.getMessage(), null));
+                });
+    }
+
+    /**
+     * Reads, validates and publishes one order of a batch.
+     *
+     * @param index the position of the order in the batch
+     * @param node the order as read from the body
+     * @return a Mono emitting the order's result
+     */
+    private Mono<OrderSubmissionResultDTO> submitBatchOrder(long index, JsonNode node) {
+        TradeOrderDTO order;
+        try {
+            order = objectMapper.treeToValue(node, TradeOrderDTO.class);
+        } catch (JsonProcessingException e) {
+            rejectedCounter.increment();
+            return Mono.just(rejected(index, "Malformed order: " + e.getOriginalMessage(), null));
+        }
+        if (order == null) {
+            rejectedCounter.increment();
+            return Mono.just(rejected(index, "Order is null", null));
+        }
+
+        return Mono.defer(() -> {
+                    validate(order);
+                    // Batch orders are bounded by the batch window rather than refused, but still count as pending
+                    pendingOrders.incrementAndGet();
+                    return send(order).doFinally(signal -> pendingOrders.decrementAndGet());
+                })
+                .map(submitted -> OrderSubmissionResultDTO.builder()
+                        .index(index)
+                        .accepted(true)
+                        .orderId(submitted.getOrderId())
+                        .status(submitted.getStatus())
+                        .build())
+                .onErrorResume(e -> {
+                    OrderSubmissionResultDTO result = rejected(index, e.getMessage(),
+                            e instanceof ValidationException ve ? ve.getFieldErrors() : null);
+                    result.setOrderId(order.getOrderId());
+                    return Mono.just(result);
+                });
+    }
+
+    /**
+     * Applies bean validation and the shared order rules.
+     *
+     * @param orderDTO the trade order to validate
+     * @throws ValidationException if the order fails validation
+     */
+    private void validate(TradeOrderDTO orderDTO) {
+        Set<ConstraintViolation<TradeOrderDTO>> violations = validator.validate(orderDTO);
+        try {
+            if (!violations.isEmpty()) {
+                Map<String, String> errors = new HashMap<>();
+                violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+                throw new ValidationException("Trade order validation failed", errors);
+            }
+            TradeOrderValidator.validate(orderDTO);
+        } catch (ValidationException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Initializes a validated order and publishes it, completing once Kafka has acknowledged it.
+     * The record is stamped with the submission time in the {@link LatencyHeaders#SUBMITTED_AT} header.
+     *
+     * @param orderDTO the trade order to publish
+     * @return a Mono emitting the order, marked PENDING
+     */
+    private Mono<TradeOrderDTO> send(TradeOrderDTO orderDTO) {
+        UUID orderId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        orderDTO.setOrderId(orderId);
+        orderDTO.setStatus(OrderStatus.CREATED);
+        orderDTO.setCreatedAt(now);
+        orderDTO.setUpdatedAt(now);
+        orderDTO.setFilledQuantity(0);
+        orderDTO.setRemainingQuantity(orderDTO.getQuantity());
+
+        ProducerRecord<String, TradeOrderDTO> producerRecord =
+                new ProducerRecord<>(tradeOrdersTopic, orderId.toString(), orderDTO);
+        producerRecord.headers().add(LatencyHeaders.SUBMITTED_AT, LatencyHeaders.encode(LatencyHeaders.now()));
+        SenderRecord<String, TradeOrderDTO, UUID> record = SenderRecord.create(producerRecord, orderId);
+        return kafkaSender.send(Mono.just(record))
+                .next()
+                .flatMap(result -> result.exception() == null
+                        ? Mono.just(orderDTO)
+                        : Mono.<TradeOrderDTO>error(result.exception()))
+                .map(order -> {
+                    order.setStatus(OrderStatus.PENDING);
+                    order.setUpdatedAt(LocalDateTime.now());
+                    acceptedCounter.increment();
+                    return order;
+                })
+                .onErrorMap(e -> !(e instanceof TradePlatformException), e -> translateSendError(orderId, e));
+    }
+
+    /**
+     * Maps a producer error to the exception reported to the client. A producer that could not buffer the
+     * record in time is overloaded, so the client is asked to retry later.
+     *
+     * @param orderId the ID of the order that failed
+     * @param e the producer error
+     * @return the exception to report
+     */
+    private TradePlatformException translateSendError(UUID orderId, Throwable e) {
+        if (e instanceof TimeoutException) {
+            overloadedCounter.increment();
+            log.warn("Kafka producer is saturated, refusing order {}: {}", orderId, e.getMessage());
+            return new CapacityExceededException("Order gateway is at capacity", e, RETRY_AFTER);
+        }
+        failedCounter.increment();
+        log.error("Failed to send order to Kafka: {}", orderId, e);
+        return new OrderProcessingException("Failed to publish order to processing queue", orderId,
+                "Kafka publishing error");
+    }
+
+    private OrderSubmissionResultDTO rejected(long index, String message, Map<String, String> errors) {
+        return OrderSubmissionResultDTO.builder()
+                .index(index)
+                .accepted(false)
+                .message(message)
+                .errors(errors)
+                .build();
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("trade.gateway.orders")
+                .description("Orders submitted to the gateway, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,117 @@
+package com.tradeplatform.tradeprocessor.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded near cache of trade orders by ID, serving the order lookups that clients poll while an order is
+ * in flight.
+ * <p>
+ * Entries are evicted once the cache holds {@code trade.cache.orders.max-size} orders, and expire
+ * {@code trade.cache.orders.ttl-ms} after they were loaded or last updated, which bounds how stale an order
+ * changed outside the execution path can be. When execution changes an order, a cached entry is replaced
+ * with the new state once the transaction commits; an order that is not cached is invalidated instead, in
+ * case a lookup cached it in the meantime. A rolled back change leaves the cache untouched.
+ * <p>
+ * Hits, misses, evictions and the size are exported as the {@code cache.*} metrics tagged
+ * {@code cache=orders}, and the latency of loads from the database as {@code trade.orders.cache.load}.
+ */
+@Component
+public class OrderLookupCache {
+
+    private final Cache<UUID, TradeOrderDTO> cache;
+    private final Timer loadTimer;
+
+    /**
+     * Creates the cache and registers its metrics.
+     *
+     * @param maxSize the maximum number of cached orders
+     * @param ttlMs how long an order stays cached after it was loaded or updated
+     * @param meterRegistry the registry for the cache metrics
+     */
+    public OrderLookupCache(@Value("${trade.cache.orders.max-size:10000}") long maxSize,
+                            @Value("${trade.cache.orders.ttl-ms:5000}") long ttlMs,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders");
+        this.loadTimer = Timer.builder("trade.orders.cache.load")
+                .description("Time to load an order that was not cached")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached order, loading and caching it on a miss. Concurrent lookups of the same missing
+     * order share one load.
+     *
+     * @param orderId the order ID
+     * @param loader loads the order; exceptions it throws are passed on and nothing is cached
+     * @return the order
+     */
+    public TradeOrderDTO get(UUID orderId, Function<UUID, TradeOrderDTO> loader) {
+        return cache.get(orderId, id -> loadTimer.record(() -> loader.apply(id)));
+    }
+
+    /**
+     * Records that execution changed some orders. Orders that are cached are converted now and replace
+     * their entries once the current transaction commits; the others are invalidated then.
+     *
+     * @param orders the changed orders
+     * @param converter converts an order to the form returned by lookups
+     */
+    public void update(Collection<TradeOrder> orders, Function<TradeOrder, TradeOrderDTO> converter) {
+        Map<UUID, TradeOrderDTO> cached = cache.asMap();
+        List<UUID> orderIds = new ArrayList<>(orders.size());
+        List<TradeOrderDTO> updates = new ArrayList<>(orders.size());
+        for (TradeOrder order : orders) {
+            orderIds.add(order.getOrderId());
+            // Reading through the map view does not count as a cache hit or miss
+            updates.add(cached.containsKey(order.getOrderId()) ? converter.apply(order) : null);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(orderIds, updates);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(orderIds, updates);
+            }
+        });
+    }
+
+    private void apply(List<UUID> orderIds, List<TradeOrderDTO> updates) {
+        Map<UUID, TradeOrderDTO> cached = cache.asMap();
+        for (int i = 0; i < orderIds.size(); i++) {
+            TradeOrderDTO update = updates.get(i);
+            if (update != null) {
+                // Only replace an entry that is still cached, waiting for a load of the same order to finish
+                cached.computeIfPresent(orderIds.get(i), (id, old) -> update);
+            } else {
+                cached.remove(orderIds.get(i));
+            }
+        }
+    }
+}
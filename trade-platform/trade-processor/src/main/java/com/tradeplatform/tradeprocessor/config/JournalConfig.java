@@ -0,0 +1,48 @@
+package com.tradeplatform.tradeprocessor.config;
+
+import com.tradeplatform.tradeprocessor.journal.JournalSnapshots;
+import com.tradeplatform.tradeprocessor.journal.OrderJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration class for the order event journal, enabled with {@code trade.journal.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "trade.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Value("${trade.journal.directory:./data/journal}")
+    private String directory;
+
+    @Value("${trade.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    /**
+     * Opens the order journal. It is closed only after the execution shards have stopped,
+     * since they are lifecycle beans stopped before singletons are destroyed.
+     *
+     * @return the order journal
+     * @throws IOException if the journal cannot be opened
+     */
+    @Bean(destroyMethod = "close")
+    public OrderJournal orderJournal() throws IOException {
+        return new OrderJournal(Path.of(directory), segmentSizeMb * 1024 * 1024);
+    }
+
+    /**
+     * Creates the snapshot store, kept in a subdirectory of the journal.
+     *
+     * @return the snapshot store
+     * @throws IOException if the snapshot directory cannot be created
+     */
+    @Bean
+    public JournalSnapshots journalSnapshots() throws IOException {
+        return new JournalSnapshots(Path.of(directory, "snapshots"));
+    }
+}
@@ -1,28 +1,41 @@
 package com.tradeplatform.tradeprocessor.config;
 
+import com.tradeplatform.common.config.ListenerExecutors;
+import com.tradeplatform.common.dto.ExecutionReportDTO;
 import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.tradeprocessor.metrics.OrderPipelineMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Configuration class for Kafka consumer settings.
+ * Configuration class for Kafka consumer and producer settings.
+ * Execution reports have their own batched, compressed producer; dead-lettered orders use a plain one.
  */
 @Configuration
 @EnableKafka
@@ -47,65 +60,183 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.backoff-interval:1000}")
     private long backoffInterval;
 
-    private final KafkaTemplate<String, TradeOrderDTO> kafkaTemplate;
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
 
-    public KafkaConfig(KafkaTemplate<String, TradeOrderDTO> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    @Value("${trade.kafka.batch-listener.enabled:false}")
+    private boolean batchListener;
+
+    @Value("${spring.kafka.topic.executions:executions}")
+    private String executionsTopic;
+
+    @Value("${spring.kafka.topic.partitions:3}")
+    private int partitions;
+
+    @Value("${spring.kafka.topic.replication-factor:1}")
+    private short replicationFactor;
+
+    @Value("${trade.executions.producer.linger-ms:5}")
+    private int executionsLingerMs;
+
+    @Value("${trade.executions.producer.batch-size:65536}")
+    private int executionsBatchSize;
+
+    @Value("${trade.executions.producer.compression-type:lz4}")
+    private String executionsCompressionType;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Creates a Kafka producer factory for dead-lettered orders.
+     *
+     * @return the producer factory
+     */
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    /**
+     * Creates a Kafka template for dead-lettered orders.
+     *
+     * @return the Kafka template
+     */
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    /**
+     * Creates a Kafka producer factory for execution reports.
+     * Reports are small and frequent, so the producer waits up to {@code trade.executions.producer.linger-ms}
+     * to fill batches of up to {@code trade.executions.producer.batch-size} bytes and compresses each batch,
+     * trading a few milliseconds of latency for far fewer requests and bytes on the wire.
+     *
+     * @return the producer factory
+     */
+    @Bean
+    public ProducerFactory<String, ExecutionReportDTO> executionReportProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, executionsLingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, executionsBatchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, executionsCompressionType);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    /**
+     * Creates a Kafka template for execution reports.
+     *
+     * @return the Kafka template
+     */
+    @Bean
+    public KafkaTemplate<String, ExecutionReportDTO> executionReportKafkaTemplate() {
+        return new KafkaTemplate<>(executionReportProducerFactory());
+    }
+
+    /**
+     * Creates the execution reports topic if it doesn't exist.
+     *
+     * @return the topic configuration
+     */
+    @Bean
+    public NewTopic executionsTopic() {
+        return TopicBuilder.name(executionsTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .build();
     }
 
     /**
      * Creates a Kafka consumer factory for TradeOrderDTO objects.
+     * Values are read by {@link TradeOrderDeserializer}, which accepts both JSON and binary messages and
+     * times their decoding. Every consumer's client metrics are bound to the meter registry, including
+     * the lag of each assigned partition as {@code kafka.consumer.fetch.manager.records.lag}.
      *
+     * @param pipelineMetrics the metrics decoding is timed with
+     * @param meterRegistry the registry for the consumer metrics
      * @return the consumer factory
      */
     @Bean
-    public ConsumerFactory<String, TradeOrderDTO> consumerFactory() {
+    public ConsumerFactory<String, TradeOrderDTO> consumerFactory(OrderPipelineMetrics pipelineMetrics,
+                                                                  MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, TradeOrderDTO.class.getName());
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.tradeplatform.common.dto");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-        return new DefaultKafkaConsumerFactory<>(props);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // Deserializers are supplied per consumer, since each listener thread decodes on its own
+        DefaultKafkaConsumerFactory<String, TradeOrderDTO> factory = new DefaultKafkaConsumerFactory<>(props,
+                StringDeserializer::new,
+                () -> new ErrorHandlingDeserializer<>(new TradeOrderDeserializer(pipelineMetrics)));
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     /**
      * Creates a Kafka listener container factory for TradeOrderDTO objects.
+     * In record mode, records are acknowledged manually by the execution shards once processed;
+     * asynchronous acks allow shards to acknowledge out of order while offsets are still committed in order.
+     * In batch mode, the listener receives a whole poll and acknowledges it once every shard has finished.
+     * With {@code spring.threads.virtual.enabled}, consumer threads are virtual threads.
      *
+     * @param consumerFactory the consumer factory
      * @return the listener container factory
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, TradeOrderDTO> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, TradeOrderDTO> kafkaListenerContainerFactory(
+            ConsumerFactory<String, TradeOrderDTO> consumerFactory) {
         ConcurrentKafkaListenerContainerFactory<String, TradeOrderDTO> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
         factory.setCommonErrorHandler(errorHandler());
+        factory.setBatchListener(batchListener);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(!batchListener);
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(ListenerExecutors.virtualThreads());
+        }
         return factory;
     }
 
     /**
-     * Creates an error handler for Kafka consumer errors.
+     * Creates the recoverer that sends failed messages to the dead-letter topic.
      *
-     * @return the error handler
+     * @return the dead-letter publishing recoverer
      */
     @Bean
-    public DefaultErrorHandler errorHandler() {
-        // Configure the recoverer to send failed messages to the DLT
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+    public DeadLetterPublishingRecoverer deadLetterRecoverer() {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate(),
                 (record, ex) -> {
                     log.error("Error processing record: {}", record.value(), ex);
                     return new org.apache.kafka.common.TopicPartition(deadLetterTopic, 0);
                 });
+    }
 
+    /**
+     * Creates an error handler for Kafka consumer errors.
+     *
+     * @return the error handler
+     */
+    @Bean
+    public DefaultErrorHandler errorHandler() {
         // Configure the backoff policy for retries
         FixedBackOff backOff = new FixedBackOff(backoffInterval, maxAttempts - 1);
 
-        // Create the error handler with the recoverer and backoff policy
-        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        // Create the error handler with the DLT recoverer and backoff policy
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(deadLetterRecoverer(), backOff);
 
         // Add exception types that should not be retried
         errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
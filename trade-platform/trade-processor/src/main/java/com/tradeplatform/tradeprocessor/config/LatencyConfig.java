@@ -0,0 +1,26 @@
+package com.tradeplatform.tradeprocessor.config;
+
+import com.tradeplatform.common.latency.HopLatencyRecorder;
+import com.tradeplatform.common.latency.LatencyHop;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the cross-service latency the trade processor records.
+ */
+@Configuration
+public class LatencyConfig {
+
+    /**
+     * Creates the recorder of the hop from submission to this service, also served as the {@code latency}
+     * Actuator endpoint.
+     *
+     * @param meterRegistry the registry for the hop metrics
+     * @return the hop latency recorder
+     */
+    @Bean
+    public HopLatencyRecorder hopLatencyRecorder(MeterRegistry meterRegistry) {
+        return new HopLatencyRecorder(meterRegistry, LatencyHop.SUBMIT_TO_PROCESSOR);
+    }
+}
@@ -0,0 +1,91 @@
+package com.tradeplatform.tradeprocessor.config;
+
+import com.tradeplatform.common.codec.TradeOrderCodec;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.tradeprocessor.metrics.OrderPipelineMetrics;
+import com.tradeplatform.tradeprocessor.metrics.PipelineStage;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Kafka deserializer for trade orders that accepts both wire formats.
+ * Each message is decoded by {@link TradeOrderCodec} if it starts with the binary magic byte and as JSON
+ * otherwise, so producers can switch a topic between the formats without a coordinated consumer deploy.
+ * <p>
+ * Every record gets a fresh DTO rather than a reused one, because the execution shards hold on to
+ * records after the poll that delivered them.
+ * <p>
+ * Decoding time is recorded as {@link PipelineStage#DESERIALIZE} when the deserializer is created with
+ * {@link OrderPipelineMetrics}; Kafka instantiates it without them when it is configured by class name.
+ */
+public class TradeOrderDeserializer implements Deserializer<TradeOrderDTO> {
+
+    private final TradeOrderCodec codec = new TradeOrderCodec();
+
+    private final JsonDeserializer<TradeOrderDTO> jsonDeserializer = new JsonDeserializer<>(TradeOrderDTO.class, false);
+
+    private final OrderPipelineMetrics pipelineMetrics;
+
+    /**
+     * Creates a deserializer that does not time decoding.
+     */
+    public TradeOrderDeserializer() {
+        this(null);
+    }
+
+    /**
+     * Creates a deserializer that times decoding.
+     *
+     * @param pipelineMetrics the metrics the decoding time is recorded to, or null to not time decoding
+     */
+    public TradeOrderDeserializer(OrderPipelineMetrics pipelineMetrics) {
+        this.pipelineMetrics = pipelineMetrics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TradeOrderDTO deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        TradeOrderDTO order = TradeOrderCodec.isBinary(data)
+                ? codec.decode(data)
+                : jsonDeserializer.deserialize(topic, data);
+        recordDeserialize(start);
+        return order;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TradeOrderDTO deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        TradeOrderDTO order = TradeOrderCodec.isBinary(data)
+                ? codec.decode(data)
+                : jsonDeserializer.deserialize(topic, headers, data);
+        recordDeserialize(start);
+        return order;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+
+    private void recordDeserialize(long start) {
+        if (pipelineMetrics != null) {
+            pipelineMetrics.record(PipelineStage.DESERIALIZE, start);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.tradeplatform.tradeprocessor.consumer;
+
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.OrderProcessingException;
+import com.tradeplatform.common.latency.HopLatencyRecorder;
+import com.tradeplatform.common.latency.LatencyHop;
+import com.tradeplatform.tradeprocessor.execution.BatchCompletion;
+import com.tradeplatform.tradeprocessor.execution.ShardedOrderExecutor;
+import com.tradeplatform.tradeprocessor.metrics.OrderSubmitTimes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch Kafka consumer for trade orders, enabled with {@code trade.kafka.batch-listener.enabled=true}.
+ * Each poll is split by owning shard, and every shard processes its share in a single transaction.
+ * The poll is committed once all shards have finished.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.kafka.batch-listener.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TradeOrderBatchConsumer {
+
+    private final ShardedOrderExecutor shardedOrderExecutor;
+    private final HopLatencyRecorder hopLatencyRecorder;
+
+    @Value("${trade.kafka.batch-listener.timeout-ms:60000}")
+    private long batchTimeoutMillis;
+
+    /**
+     * Consumes a poll of trade orders from the Kafka topic and processes them in batches, recording how long
+     * each order took to arrive since it was submitted.
+     *
+     * @param records the consumed records holding the decoded trade orders
+     * @param acknowledgment the acknowledgment used to commit the poll once it is processed
+     */
+    @KafkaListener(
+            topics = "${spring.kafka.topic.trade-orders}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void consumeTradeOrders(List<ConsumerRecord<String, TradeOrderDTO>> records, Acknowledgment acknowledgment) {
+        log.debug("Received batch of {} trade orders", records.size());
+        for (ConsumerRecord<String, TradeOrderDTO> record : records) {
+            hopLatencyRecorder.record(LatencyHop.SUBMIT_TO_PROCESSOR, OrderSubmitTimes.submittedAt(record));
+        }
+
+        BatchCompletion completion = shardedOrderExecutor.submitBatch(records);
+        try {
+            if (!completion.await(batchTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                // Not committing lets the error handler seek back and redeliver the batch
+                throw new OrderProcessingException("Timed out waiting for batch of " + records.size() + " orders");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderProcessingException("Interrupted while waiting for batch of " + records.size() + " orders");
+        }
+        acknowledgment.acknowledge();
+    }
+}
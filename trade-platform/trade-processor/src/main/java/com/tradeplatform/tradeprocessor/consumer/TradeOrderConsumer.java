@@ -1,63 +1,50 @@
 package com.tradeplatform.tradeprocessor.consumer;
 
 import com.tradeplatform.common.dto.TradeOrderDTO;
-import com.tradeplatform.common.exception.OrderProcessingException;
-import com.tradeplatform.tradeprocessor.service.TradeOrderService;
+import com.tradeplatform.common.latency.HopLatencyRecorder;
+import com.tradeplatform.common.latency.LatencyHop;
+import com.tradeplatform.tradeprocessor.execution.ShardedOrderExecutor;
+import com.tradeplatform.tradeprocessor.metrics.OrderSubmitTimes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 /**
  * Kafka consumer for trade orders.
+ * The listener thread only decodes records and hands them to the execution shards;
+ * matching, persistence and offset acknowledgment happen on the shard that owns the order's symbol.
  */
 @Component
+@ConditionalOnProperty(name = "trade.kafka.batch-listener.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class TradeOrderConsumer {
 
-    private final TradeOrderService tradeOrderService;
+    private final ShardedOrderExecutor shardedOrderExecutor;
+    private final HopLatencyRecorder hopLatencyRecorder;
 
     /**
-     * Consumes trade orders from the Kafka topic and processes them.
+     * Consumes trade orders from the Kafka topic and enqueues them for execution, recording how long each
+     * took to arrive since it was submitted.
      *
-     * @param orderDTO the trade order to process
-     * @param key the message key
-     * @param partition the partition from which the message was received
-     * @param topic the topic from which the message was received
-     * @param offset the offset of the message
+     * @param record the consumed record holding the decoded trade order
+     * @param acknowledgment the acknowledgment used to commit the offset once the order is processed
      */
     @KafkaListener(
             topics = "${spring.kafka.topic.trade-orders}",
             groupId = "${spring.kafka.consumer.group-id}",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void consumeTradeOrder(
-            @Payload TradeOrderDTO orderDTO,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.OFFSET) long offset) {
-        
-        log.info("Received trade order: key={}, partition={}, topic={}, offset={}", key, partition, topic, offset);
-        log.debug("Trade order details: {}", orderDTO);
+    public void consumeTradeOrder(ConsumerRecord<String, TradeOrderDTO> record, Acknowledgment acknowledgment) {
+        log.debug("Received trade order: key={}, partition={}, topic={}, offset={}",
+                record.key(), record.partition(), record.topic(), record.offset());
+        hopLatencyRecorder.record(LatencyHop.SUBMIT_TO_PROCESSOR, OrderSubmitTimes.submittedAt(record));
 
-        try {
-            TradeOrderDTO processedOrder = tradeOrderService.processOrder(orderDTO);
-            log.info("Successfully processed trade order: {}, new status: {}", 
-                    processedOrder.getOrderId(), processedOrder.getStatus());
-        } catch (OrderProcessingException e) {
-            log.error("Error processing trade order: {}, reason: {}", 
-                    orderDTO.getOrderId(), e.getReason(), e);
-            // The error handler in KafkaConfig will handle retries and DLT publishing
-            throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error processing trade order: {}", orderDTO.getOrderId(), e);
-            // The error handler in KafkaConfig will handle retries and DLT publishing
-            throw e;
-        }
+        // Processing errors are retried and dead-lettered by the owning shard
+        shardedOrderExecutor.submit(record, acknowledgment);
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,32 @@
 package com.tradeplatform.tradeprocessor.controller;
 
+import com.tradeplatform.common.dto.OrderPageDTO;
 import com.tradeplatform.common.dto.OrderStatus;
 import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.ValidationException;
 import com.tradeplatform.tradeprocessor.entity.TradeOrder;
 import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import com.tradeplatform.tradeprocessor.service.ExportFormat;
+import com.tradeplatform.tradeprocessor.service.OrderExportService;
 import com.tradeplatform.tradeprocessor.service.TradeOrderService;
+import com.tradeplatform.tradeprocessor.stream.OrderStatusStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for trade order operations.
@@ -25,40 +39,53 @@ import java.util.stream.Collectors;
 public class TradeOrderController {
 
     private final TradeOrderService tradeOrderService;
+    private final OrderExportService orderExportService;
     private final TradeOrderRepository tradeOrderRepository;
+    private final OrderStatusStream orderStatusStream;
 
     /**
-     * Retrieves all trade orders.
+     * Retrieves one page of trade orders, newest first, optionally filtered by status and symbol.
+     * Pages are read with keyset pagination: pass the {@code nextCursor} of a page as {@code after} to get
+     * the next one.
      *
-     * @return the list of all trade orders
+     * @param after the cursor returned with the previous page, or absent for the first page
+     * @param limit the page size, or absent for the default
+     * @param status the status to filter by, or absent for all statuses
+     * @param symbol the symbol to filter by, or absent for all symbols
+     * @return the page of order summaries and the cursor of the next page
      */
     @GetMapping
-    public ResponseEntity<List<TradeOrderDTO>> getAllOrders() {
-        log.info("Retrieving all orders");
-        // Get all orders from all statuses
-        List<TradeOrderDTO> pendingOrders = tradeOrderService.getOrdersByStatus(OrderStatus.PENDING);
-        List<TradeOrderDTO> processingOrders = tradeOrderService.getOrdersByStatus(OrderStatus.PROCESSING);
-        List<TradeOrderDTO> filledOrders = tradeOrderService.getOrdersByStatus(OrderStatus.FILLED);
-        List<TradeOrderDTO> failedOrders = tradeOrderService.getOrdersByStatus(OrderStatus.FAILED);
-        List<TradeOrderDTO> cancelledOrders = tradeOrderService.getOrdersByStatus(OrderStatus.CANCELLED);
-        List<TradeOrderDTO> createdOrders = tradeOrderService.getOrdersByStatus(OrderStatus.CREATED);
-        List<TradeOrderDTO> partiallyFilledOrders = tradeOrderService.getOrdersByStatus(OrderStatus.PARTIALLY_FILLED);
-        List<TradeOrderDTO> rejectedOrders = tradeOrderService.getOrdersByStatus(OrderStatus.REJECTED);
-        List<TradeOrderDTO> expiredOrders = tradeOrderService.getOrdersByStatus(OrderStatus.EXPIRED);
-
-        // Combine all orders
-        List<TradeOrderDTO> allOrders = new java.util.ArrayList<>();
-        allOrders.addAll(pendingOrders);
-        allOrders.addAll(processingOrders);
-        allOrders.addAll(filledOrders);
-        allOrders.addAll(failedOrders);
-        allOrders.addAll(cancelledOrders);
-        allOrders.addAll(createdOrders);
-        allOrders.addAll(partiallyFilledOrders);
-        allOrders.addAll(rejectedOrders);
-        allOrders.addAll(expiredOrders);
+    public ResponseEntity<?> getOrders(@RequestParam(required = false) String after,
+                                       @RequestParam(required = false) Integer limit,
+                                       @RequestParam(required = false) OrderStatus status,
+                                       @RequestParam(required = false) String symbol) {
+        log.info("Retrieving orders after: {}, limit: {}, status: {}, symbol: {}", after, limit, status, symbol);
+        try {
+            OrderPageDTO page = tradeOrderService.getOrders(status, symbol, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            log.warn("Invalid order listing request: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            errorResponse.put("details", e.getFieldErrors());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
 
-        return ResponseEntity.ok(allOrders);
+    /**
+     * Streams order state changes as server-sent events, for all orders or for one user's orders.
+     * A client that reconnects with the {@code Last-Event-ID} header is sent only the changes it missed,
+     * or a {@code reset} event if it has to reload its orders instead.
+     *
+     * @param userId the user whose orders to stream, or absent for all orders
+     * @param lastEventId the ID of the last event the client received, or absent for a new subscription
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(@RequestParam(required = false) String userId,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Streaming orders for user: {}, resuming after: {}", userId, lastEventId);
+        return orderStatusStream.subscribe(userId, lastEventId);
     }
 
     /**
@@ -86,4 +113,47 @@ public class TradeOrderController {
         List<TradeOrderDTO> orders = tradeOrderService.getOrdersByUserId(userId);
         return ResponseEntity.ok(orders);
     }
+
+    /**
+     * Exports a user's whole order history, oldest first, as newline-delimited JSON or CSV.
+     * Orders are streamed from the database as the response is written, gzip-compressed if the client
+     * accepts it, so the export never holds the history in memory.
+     *
+     * @param userId the user ID
+     * @param format the export format
+     * @param acceptEncoding the encodings the client accepts
+     * @return the streaming export
+     */
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportOrdersByUserId(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exporting orders for user: {} as {}", userId, format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                orderExportService.exportOrdersByUserId(userId, format, compressed);
+                compressed.finish();
+            } else {
+                orderExportService.exportOrdersByUserId(userId, format, out);
+            }
+        };
+
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders-" + userId + "." + extension, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
@@ -0,0 +1,154 @@
+package com.tradeplatform.tradeprocessor.dedup;
+
+import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import com.tradeplatform.tradeprocessor.store.TradeOrderStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Detects redelivered trade orders so they are not executed twice.
+ * <p>
+ * Checks go through three tiers, cheapest first: an exact LRU cache of the most recently processed order
+ * IDs, a Bloom filter of every order processed recently, and the {@link TradeOrderStore}. A new order is
+ * almost always rejected by the Bloom filter, and a redelivery shortly after a rebalance or retry is almost
+ * always found in the cache, so the store is only read when the filter reports a possible hit that the
+ * cache cannot confirm.
+ * <p>
+ * The filter is kept in two generations: once the current one holds {@code trade.dedup.expected-orders}
+ * orders it becomes the previous one and a new one is started, so memory and the false-positive rate stay
+ * bounded. Orders older than two generations are no longer detected. On startup the filter is filled with
+ * the orders updated within {@code trade.dedup.warmup-hours}, so redeliveries after a restart are caught.
+ * <p>
+ * Redeliveries of an order arrive on the shard that owns its symbol, so a check and the matching
+ * {@link #record} never race for the same order.
+ */
+@Component
+@Slf4j
+public class OrderDeduplicator {
+
+    private final TradeOrderStore tradeOrderStore;
+    private final TradeOrderRepository tradeOrderRepository;
+    private final Counter filterMissCounter;
+    private final Counter cacheHitCounter;
+    private final Counter storeHitCounter;
+    private final Counter falsePositiveCounter;
+
+    @Value("${trade.dedup.expected-orders:1000000}")
+    private long expectedOrders;
+
+    @Value("${trade.dedup.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${trade.dedup.cache-size:100000}")
+    private int cacheSize;
+
+    @Value("${trade.dedup.warmup-hours:24}")
+    private long warmupHours;
+
+    private volatile OrderIdBloomFilter current;
+    private volatile OrderIdBloomFilter previous;
+    private Map<UUID, Boolean> recent;
+
+    /**
+     * Creates the deduplicator and registers its metrics.
+     *
+     * @param tradeOrderStore the store consulted when the filter reports a possible duplicate
+     * @param tradeOrderRepository the repository the filter is warmed from on startup
+     * @param meterRegistry the registry for the deduplication metrics
+     */
+    public OrderDeduplicator(TradeOrderStore tradeOrderStore, TradeOrderRepository tradeOrderRepository,
+                             MeterRegistry meterRegistry) {
+        this.tradeOrderStore = tradeOrderStore;
+        this.tradeOrderRepository = tradeOrderRepository;
+        this.filterMissCounter = checkCounter(meterRegistry, "filter_miss");
+        this.cacheHitCounter = checkCounter(meterRegistry, "cache_hit");
+        this.storeHitCounter = checkCounter(meterRegistry, "store_hit");
+        this.falsePositiveCounter = checkCounter(meterRegistry, "false_positive");
+    }
+
+    /**
+     * Creates the filter and cache and fills them with the recently updated orders.
+     */
+    @PostConstruct
+    public void warmUp() {
+        current = new OrderIdBloomFilter(expectedOrders, falsePositiveRate);
+        previous = current;
+        recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        List<UUID> orderIds = tradeOrderRepository.findOrderIdsUpdatedSince(LocalDateTime.now().minusHours(warmupHours));
+        orderIds.forEach(this::record);
+        log.info("Warmed order deduplication with {} orders updated in the last {} hours", orderIds.size(), warmupHours);
+    }
+
+    /**
+     * Tells whether an order has already been processed.
+     *
+     * @param orderId the order ID
+     * @return true if the order is a redelivery
+     */
+    public boolean isDuplicate(UUID orderId) {
+        synchronized (recent) {
+            if (recent.get(orderId) != null) {
+                cacheHitCounter.increment();
+                return true;
+            }
+        }
+        if (!current.mightContain(orderId) && !previous.mightContain(orderId)) {
+            filterMissCounter.increment();
+            return false;
+        }
+        if (!tradeOrderStore.findExistingIds(List.of(orderId)).isEmpty()) {
+            storeHitCounter.increment();
+            return true;
+        }
+        falsePositiveCounter.increment();
+        return false;
+    }
+
+    /**
+     * Records that an order has been processed, whatever its outcome.
+     *
+     * @param orderId the order ID
+     */
+    public void record(UUID orderId) {
+        synchronized (recent) {
+            recent.put(orderId, Boolean.TRUE);
+        }
+        OrderIdBloomFilter filter = current;
+        filter.put(orderId);
+        if (filter.getInsertions() >= expectedOrders) {
+            rotate(filter);
+        }
+    }
+
+    private synchronized void rotate(OrderIdBloomFilter full) {
+        if (current != full) {
+            return;
+        }
+        previous = full;
+        current = new OrderIdBloomFilter(expectedOrders, falsePositiveRate);
+        log.info("Rotated order deduplication filter after {} orders", full.getInsertions());
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("trade.dedup.checks")
+                .description("Duplicate delivery checks by the tier that answered them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,5 +1,6 @@
 package com.tradeplatform.tradeprocessor.entity;
 
+import com.tradeplatform.common.dto.OrderSide;
 import com.tradeplatform.common.dto.OrderStatus;
 import com.tradeplatform.common.dto.OrderType;
 import jakarta.persistence.*;
@@ -7,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,14 +16,29 @@ import java.util.UUID;
 
 /**
  * Entity representing a trade order in the database.
+ * Implements {@link Persistable} so batch processing can insert new orders without the
+ * select-before-merge that an assigned identifier otherwise causes.
  */
 @Entity
-@Table(name = "trade_orders")
+@Table(name = "trade_orders", indexes = {
+        // Listings newest first and creation-time ranges; descending so a page is read in index order
+        @Index(name = "idx_trade_orders_created", columnList = "created_at DESC, order_id DESC"),
+        // Listings and lookups by status, including the open orders loaded by the expiry tracker
+        @Index(name = "idx_trade_orders_status_created", columnList = "status, created_at DESC, order_id DESC"),
+        // Listings and lookups by symbol
+        @Index(name = "idx_trade_orders_symbol_created", columnList = "symbol, created_at DESC, order_id DESC"),
+        // A user's order history in creation order, for lookups, status filters and streaming exports
+        @Index(name = "idx_trade_orders_user_created", columnList = "user_id, created_at, order_id"),
+        // Stuck order recovery: the few PROCESSING orders, by last attempt
+        @Index(name = "idx_trade_orders_status_attempt", columnList = "status, last_processing_attempt, order_id"),
+        // Deduplication warm-up reads only the IDs of recently updated orders, straight from the index
+        @Index(name = "idx_trade_orders_updated", columnList = "updated_at, order_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class TradeOrder {
+public class TradeOrder implements Persistable<UUID> {
 
     /**
      * Unique identifier for the order.
@@ -48,6 +65,12 @@ public class TradeOrder {
     @Column(nullable = false)
     private OrderType orderType;
 
+    /**
+     * Side of the order (BUY or SELL), required for order types that do not imply a side.
+     */
+    @Enumerated(EnumType.STRING)
+    private OrderSide side;
+
     /**
      * Current status of the order.
      */
@@ -64,11 +87,13 @@ public class TradeOrder {
     /**
      * Price at which the order should be executed (for LIMIT orders).
      */
+    @Column(precision = 19, scale = 4)
     private BigDecimal price;
 
     /**
      * Stop price that triggers a STOP or STOP_LIMIT order.
      */
+    @Column(precision = 19, scale = 4)
     private BigDecimal stopPrice;
 
     /**
@@ -88,6 +113,11 @@ public class TradeOrder {
      */
     private LocalDateTime executedAt;
 
+    /**
+     * Time when the stop price of a STOP or STOP_LIMIT order was reached.
+     */
+    private LocalDateTime triggeredAt;
+
     /**
      * Time when the order expires (for orders with time constraints).
      */
@@ -96,6 +126,7 @@ public class TradeOrder {
     /**
      * Average price at which the order was executed.
      */
+    @Column(precision = 19, scale = 4)
     private BigDecimal executionPrice;
 
     /**
@@ -130,4 +161,31 @@ public class TradeOrder {
      * Time when the last processing attempt was made.
      */
     private LocalDateTime lastProcessingAttempt;
+
+    /**
+     * Whether this order is known not to exist in the database yet.
+     * Defaults to false, in which case saving merges as usual.
+     */
+    @Transient
+    @Builder.Default
+    private boolean newEntity = false;
+
+    @Override
+    public UUID getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Marks the order as persisted once it has been inserted or loaded.
+     */
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.tradeplatform.tradeprocessor.execution;
+
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks completion of a polled batch that has been split across several execution shards.
+ * Each shard acknowledges its share; the listener thread waits for all shares and then commits the batch.
+ */
+public class BatchCompletion implements Acknowledgment {
+
+    private final CountDownLatch remaining;
+
+    /**
+     * Creates a completion for a batch split into the given number of shares.
+     *
+     * @param shares the number of shard shares
+     */
+    public BatchCompletion(int shares) {
+        this.remaining = new CountDownLatch(shares);
+    }
+
+    /**
+     * Marks one shard's share of the batch as processed.
+     */
+    @Override
+    public void acknowledge() {
+        remaining.countDown();
+    }
+
+    /**
+     * Waits for every share of the batch to be processed.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if all shares completed, false if the timeout elapsed
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return remaining.await(timeout, unit);
+    }
+}
@@ -0,0 +1,157 @@
+package com.tradeplatform.tradeprocessor.execution;
+
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A single-writer execution thread that owns a subset of symbols.
+ * Orders are handed over through a pre-allocated ring buffer and processed strictly in arrival order,
+ * so the order books of the owned symbols are only ever mutated by this thread.
+ */
+@Slf4j
+class ExecutionShard implements Runnable {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final int id;
+    private final RingBuffer<OrderEvent> ringBuffer;
+    private final Consumer<OrderEvent> handler;
+    private final int maxBatchSize;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    ExecutionShard(int id, int ringSize, int maxBatchSize, Consumer<OrderEvent> handler) {
+        this.id = id;
+        this.ringBuffer = new RingBuffer<>(ringSize, OrderEvent::new);
+        this.maxBatchSize = maxBatchSize;
+        this.handler = handler;
+    }
+
+    /**
+     * Starts the shard thread.
+     */
+    void start() {
+        running = true;
+        thread = new Thread(this, "execution-shard-" + id);
+        thread.start();
+    }
+
+    /**
+     * Stops the shard thread after the batch in progress completes.
+     * Records left in the ring buffer are not acknowledged and will be redelivered by Kafka.
+     *
+     * @param timeoutMillis how long to wait for the thread to finish
+     */
+    void stop(long timeoutMillis) {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Enqueues a consumed record, waiting while the ring buffer is full.
+     *
+     * @param record the consumed record
+     * @param acknowledgment the acknowledgment for the record
+     */
+    void publish(ConsumerRecord<String, TradeOrderDTO> record, Acknowledgment acknowledgment) {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).set(record, acknowledgment);
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * Enqueues a batch of consumed records, waiting while the ring buffer is full.
+     *
+     * @param batch the consumed records owned by this shard
+     * @param acknowledgment the acknowledgment for the batch
+     */
+    void publishBatch(List<ConsumerRecord<String, TradeOrderDTO>> batch, Acknowledgment acknowledgment) {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setBatch(batch, acknowledgment);
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * Enqueues a task to run on the shard thread, waiting while the ring buffer is full.
+     *
+     * @param task the task
+     */
+    void publishTask(Runnable task) {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setTask(task);
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * Returns the number of records waiting to be processed.
+     *
+     * @return the backlog
+     */
+    long backlog() {
+        return ringBuffer.backlog();
+    }
+
+    @Override
+    public void run() {
+        log.info("Execution shard {} started", id);
+        long next = ringBuffer.getConsumed() + 1;
+        int idleCount = 0;
+
+        while (running) {
+            long available = ringBuffer.highestPublished(next, maxBatchSize);
+            if (available < next) {
+                idleCount = idle(idleCount);
+                continue;
+            }
+            idleCount = 0;
+
+            for (long sequence = next; sequence <= available; sequence++) {
+                OrderEvent event = ringBuffer.get(sequence);
+                try {
+                    handler.accept(event);
+                } catch (Exception e) {
+                    log.error("Unhandled error in execution shard {}", id, e);
+                } finally {
+                    event.clear();
+                }
+            }
+            ringBuffer.release(available);
+            next = available + 1;
+        }
+        log.info("Execution shard {} stopped", id);
+    }
+
+    /**
+     * Backs off progressively while there is no work: spin, then yield, then park.
+     *
+     * @param idleCount the number of consecutive idle iterations
+     * @return the updated idle count
+     */
+    private int idle(int idleCount) {
+        if (idleCount < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return idleCount;
+        }
+        return idleCount + 1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.tradeplatform.tradeprocessor.execution;
+
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import lombok.Getter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+
+/**
+ * Reusable ring buffer slot carrying consumed trade orders to their execution shard.
+ * A slot holds either a single record, the shard's share of a poll in batch listener mode,
+ * or a task that must run on the shard, such as expiring orders.
+ */
+@Getter
+public class OrderEvent {
+
+    /**
+     * The consumed Kafka record holding the decoded order, or null for a batch.
+     */
+    private ConsumerRecord<String, TradeOrderDTO> record;
+
+    /**
+     * The consumed records of a batch, or null for a single record.
+     */
+    private List<ConsumerRecord<String, TradeOrderDTO>> batch;
+
+    /**
+     * Task to run on the shard thread, or null for records.
+     */
+    private Runnable task;
+
+    /**
+     * Acknowledgment invoked once the record or batch has been processed; null for a task.
+     */
+    private Acknowledgment acknowledgment;
+
+    /**
+     * When the slot was filled, from {@link System#nanoTime()}, to time how long it waited on the shard.
+     */
+    private long enqueuedAt;
+
+    /**
+     * Fills the slot with a consumed record.
+     *
+     * @param record the consumed record
+     * @param acknowledgment the acknowledgment for the record
+     */
+    void set(ConsumerRecord<String, TradeOrderDTO> record, Acknowledgment acknowledgment) {
+        this.record = record;
+        this.batch = null;
+        this.task = null;
+        this.acknowledgment = acknowledgment;
+        this.enqueuedAt = System.nanoTime();
+    }
+
+    /**
+     * Fills the slot with a batch of consumed records.
+     *
+     * @param batch the consumed records
+     * @param acknowledgment the acknowledgment for the batch
+     */
+    void setBatch(List<ConsumerRecord<String, TradeOrderDTO>> batch, Acknowledgment acknowledgment) {
+        this.record = null;
+        this.batch = batch;
+        this.task = null;
+        this.acknowledgment = acknowledgment;
+        this.enqueuedAt = System.nanoTime();
+    }
+
+    /**
+     * Fills the slot with a task.
+     *
+     * @param task the task to run on the shard thread
+     */
+    void setTask(Runnable task) {
+        this.record = null;
+        this.batch = null;
+        this.task = task;
+        this.acknowledgment = null;
+        this.enqueuedAt = System.nanoTime();
+    }
+
+    /**
+     * Returns whether the slot holds a batch.
+     *
+     * @return true for a batch, false for a single record
+     */
+    public boolean isBatch() {
+        return batch != null;
+    }
+
+    /**
+     * Returns whether the slot holds a task.
+     *
+     * @return true for a task
+     */
+    public boolean isTask() {
+        return task != null;
+    }
+
+    /**
+     * Clears the slot so the processed records can be garbage collected.
+     */
+    void clear() {
+        this.record = null;
+        this.batch = null;
+        this.task = null;
+        this.acknowledgment = null;
+    }
+}
@@ -0,0 +1,152 @@
+package com.tradeplatform.tradeprocessor.execution;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Pre-allocated, lock-free ring buffer for many producers and a single consumer.
+ * Slots are allocated once up front and reused; producers claim a sequence, fill the slot in place
+ * and publish it, and the consumer processes published slots in sequence order.
+ *
+ * @param <E> the type of the reusable slot objects
+ */
+public class RingBuffer<E> {
+
+    private final Object[] entries;
+    private final int mask;
+    private final int capacity;
+
+    /**
+     * Highest sequence claimed by a producer.
+     */
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * Highest sequence released by the consumer; producers may not wrap past it.
+     */
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    /**
+     * Sequence most recently published into each slot.
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity the number of slots, which must be a power of two
+     * @param factory the factory used to pre-allocate each slot
+     */
+    public RingBuffer(int capacity, Supplier<E> factory) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.entries = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = factory.get();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claims the next sequence, waiting while the buffer is full.
+     *
+     * @return the claimed sequence
+     */
+    public long next() {
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - capacity;
+        while (wrapPoint > consumed.get()) {
+            LockSupport.parkNanos(1_000);
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the slot for a sequence.
+     *
+     * @param sequence the sequence
+     * @return the slot object
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) (sequence & mask)];
+    }
+
+    /**
+     * Makes a claimed and filled slot visible to the consumer.
+     *
+     * @param sequence the sequence to publish
+     */
+    public void publish(long sequence) {
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+
+    /**
+     * Returns whether a sequence has been published.
+     *
+     * @param sequence the sequence
+     * @return true if the slot holds the published sequence
+     */
+    public boolean isPublished(long sequence) {
+        return published.get((int) (sequence & mask)) == sequence;
+    }
+
+    /**
+     * Returns the highest consecutively published sequence starting at {@code from}, scanning at most
+     * {@code maxBatch} slots.
+     *
+     * @param from the first sequence to check
+     * @param maxBatch the maximum number of sequences to return
+     * @return the highest available sequence, or {@code from - 1} if none is available
+     */
+    public long highestPublished(long from, int maxBatch) {
+        long sequence = from;
+        long limit = from + maxBatch;
+        while (sequence < limit && isPublished(sequence)) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    /**
+     * Releases all slots up to and including a sequence back to the producers.
+     *
+     * @param sequence the last processed sequence
+     */
+    public void release(long sequence) {
+        consumed.lazySet(sequence);
+    }
+
+    /**
+     * Returns the last sequence released by the consumer.
+     *
+     * @return the consumed sequence
+     */
+    public long getConsumed() {
+        return consumed.get();
+    }
+
+    /**
+     * Returns the number of slots claimed but not yet released.
+     *
+     * @return the approximate backlog
+     */
+    public long backlog() {
+        return claimed.get() - consumed.get();
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
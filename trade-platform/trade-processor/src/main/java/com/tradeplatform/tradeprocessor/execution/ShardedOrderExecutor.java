@@ -0,0 +1,328 @@
+package com.tradeplatform.tradeprocessor.execution;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.exception.OrderProcessingException;
+import com.tradeplatform.tradeprocessor.dedup.OrderDeduplicator;
+import com.tradeplatform.tradeprocessor.metrics.OrderPipelineMetrics;
+import com.tradeplatform.tradeprocessor.metrics.OrderSubmitTimes;
+import com.tradeplatform.tradeprocessor.metrics.PipelineStage;
+import com.tradeplatform.tradeprocessor.service.TradeOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Dispatches consumed trade orders to single-writer execution shards.
+ * Each symbol hashes to exactly one shard, so all orders for a symbol are executed in order
+ * on the same thread and its order book never needs locking.
+ * The record's offset is acknowledged only after the owning shard has finished with it.
+ * Redelivered orders are detected by the {@link OrderDeduplicator} and acknowledged without being executed again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedOrderExecutor implements SmartLifecycle {
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(ShardedOrderExecutor.class);
+
+    private final TradeOrderService tradeOrderService;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final OrderDeduplicator orderDeduplicator;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final OrderSubmitTimes orderSubmitTimes;
+
+    @Value("${trade.execution.shards.count:0}")
+    private int shardCount;
+
+    @Value("${trade.execution.shards.ring-size:1024}")
+    private int ringSize;
+
+    @Value("${trade.execution.shards.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${spring.kafka.consumer.max-attempts:3}")
+    private int maxAttempts;
+
+    private ExecutionShard[] shards;
+    private volatile boolean running;
+
+    /**
+     * Enqueues a consumed trade order on the shard that owns its symbol.
+     * Blocks the caller while that shard's ring buffer is full.
+     *
+     * @param record the consumed record
+     * @param acknowledgment the acknowledgment used to commit the offset after processing
+     */
+    public void submit(ConsumerRecord<String, TradeOrderDTO> record, Acknowledgment acknowledgment) {
+        shards[shardIndex(record.value().getSymbol())].publish(record, acknowledgment);
+    }
+
+    /**
+     * Splits a polled batch by owning shard and enqueues each shard's share as a single event.
+     * Records whose value could not be decoded reach a batch listener with a null value; they are sent to
+     * the dead-letter topic on their own, so they neither fail nor hold up the valid orders of the poll.
+     * Blocks the caller while a shard's ring buffer is full.
+     *
+     * @param records the consumed records
+     * @return a completion that is released once every shard has processed its share
+     */
+    public BatchCompletion submitBatch(List<ConsumerRecord<String, TradeOrderDTO>> records) {
+        List<List<ConsumerRecord<String, TradeOrderDTO>>> shares = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            shares.add(null);
+        }
+        int shareCount = 0;
+        for (ConsumerRecord<String, TradeOrderDTO> record : records) {
+            if (record.value() == null) {
+                deadLetterUndecodable(record);
+                continue;
+            }
+            int index = shardIndex(record.value().getSymbol());
+            List<ConsumerRecord<String, TradeOrderDTO>> share = shares.get(index);
+            if (share == null) {
+                share = new ArrayList<>();
+                shares.set(index, share);
+                shareCount++;
+            }
+            share.add(record);
+        }
+
+        BatchCompletion completion = new BatchCompletion(shareCount);
+        for (int i = 0; i < shards.length; i++) {
+            if (shares.get(i) != null) {
+                shards[i].publishBatch(shares.get(i), completion);
+            }
+        }
+        return completion;
+    }
+
+    /**
+     * Sends a record without a decoded value to the dead-letter topic, with the original bytes if decoding failed.
+     *
+     * @param record the record
+     */
+    private void deadLetterUndecodable(ConsumerRecord<String, TradeOrderDTO> record) {
+        DeserializationException failure = SerializationUtils.getExceptionFromHeader(record,
+                SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        log.error("Sending undecodable record at {}-{}@{} to the dead-letter topic",
+                record.topic(), record.partition(), record.offset());
+        deadLetterRecoverer.accept(record, failure != null ? failure
+                : new OrderProcessingException("Trade order record has no value"));
+    }
+
+    /**
+     * Runs a task on a shard thread, after the events already queued on that shard. Tasks that touch
+     * order books must run on the shard that owns the symbols involved.
+     * Blocks the caller while the shard's ring buffer is full.
+     *
+     * @param shardIndex the index of the shard, as returned by {@link #shardIndex(String)}
+     * @param task the task to run
+     */
+    public void executeOnShard(int shardIndex, Runnable task) {
+        shards[shardIndex].publishTask(task);
+    }
+
+    /**
+     * Returns the index of the shard that owns a symbol.
+     *
+     * @param symbol the symbol/ticker
+     * @return the shard index
+     */
+    public int shardIndex(String symbol) {
+        return symbol == null ? 0 : Math.floorMod(symbol.hashCode(), shards.length);
+    }
+
+    /**
+     * Returns the number of execution shards.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Processes an order event on its shard thread and acknowledges it, or runs a task.
+     * The time a record or batch waited in the ring buffer is recorded as {@link PipelineStage#QUEUE}, and
+     * the submission times of its orders are tracked for the execution reports they produce.
+     * If processing fails outside order execution, for example in the duplicate check or while dead-lettering,
+     * the event's records are sent to the dead-letter topic. The event is acknowledged in every case, so a
+     * failure never holds back the offsets committed after it.
+     *
+     * @param event the order event to process
+     */
+    private void handle(OrderEvent event) {
+        if (event.isTask()) {
+            event.getTask().run();
+            return;
+        }
+        pipelineMetrics.record(PipelineStage.QUEUE, event.getEnqueuedAt());
+        try {
+            if (event.isBatch()) {
+                event.getBatch().forEach(orderSubmitTimes::track);
+                processBatch(event.getBatch());
+            } else {
+                orderSubmitTimes.track(event.getRecord());
+                processRecord(event.getRecord());
+            }
+        } catch (Exception e) {
+            deadLetter(event.isBatch() ? event.getBatch() : List.of(event.getRecord()), e);
+        } finally {
+            orderSubmitTimes.clear();
+            event.getAcknowledgment().acknowledge();
+        }
+    }
+
+    /**
+     * Sends records whose processing failed to the dead-letter topic. Orders among them that were executed
+     * before the failure are recognised as redelivered if the dead-lettered records are replayed.
+     *
+     * @param records the records
+     * @param failure the failure
+     */
+    private void deadLetter(List<ConsumerRecord<String, TradeOrderDTO>> records, Exception failure) {
+        log.error("Processing of {} trade order(s) failed; sending them to the dead-letter topic", records.size(), failure);
+        for (ConsumerRecord<String, TradeOrderDTO> record : records) {
+            try {
+                deadLetterRecoverer.accept(record, failure);
+            } catch (Exception e) {
+                log.error("Could not dead-letter trade order: {}", record.value().getOrderId(), e);
+            }
+        }
+    }
+
+    /**
+     * Processes a shard's share of a polled batch in one transaction. Orders that fail before reaching the
+     * book are sent to the dead-letter topic individually. If the batch transaction itself fails, it rolls
+     * back the books, positions and expiry schedule with it, and every record is then reprocessed on its own
+     * so one bad order cannot fail the others.
+     * Redelivered orders, including repeats within the batch, are skipped.
+     *
+     * @param records the consumed records
+     */
+    private void processBatch(List<ConsumerRecord<String, TradeOrderDTO>> records) {
+        List<ConsumerRecord<String, TradeOrderDTO>> batch = new ArrayList<>(records.size());
+        Set<UUID> batchIds = new HashSet<>();
+        for (ConsumerRecord<String, TradeOrderDTO> record : records) {
+            UUID orderId = record.value().getOrderId();
+            if (!batchIds.add(orderId) || orderDeduplicator.isDuplicate(orderId)) {
+                log.info("Skipping redelivered trade order: {}", orderId);
+            } else {
+                batch.add(record);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<TradeOrderDTO> processedOrders;
+        try {
+            processedOrders = tradeOrderService.processBatch(batch.stream().map(ConsumerRecord::value).toList());
+        } catch (Exception e) {
+            log.warn("Batch of {} orders failed, falling back to per-record processing", batch.size(), e);
+            batch.forEach(this::processRecord);
+            return;
+        }
+        batch.forEach(record -> orderDeduplicator.record(record.value().getOrderId()));
+
+        for (int i = 0; i < processedOrders.size(); i++) {
+            TradeOrderDTO processedOrder = processedOrders.get(i);
+            if (processedOrder.getStatus() == OrderStatus.FAILED) {
+                log.error("Sending trade order {} to the dead-letter topic", processedOrder.getOrderId());
+                deadLetterRecoverer.accept(batch.get(i), new OrderProcessingException("Failed to process order",
+                        processedOrder.getOrderId(), "Execution failed in batch"));
+            }
+        }
+        log.info("Successfully processed batch of {} trade orders", batch.size());
+    }
+
+    /**
+     * Processes a single order. Failed orders are retried immediately, without backoff so that one
+     * bad order does not stall the other symbols on the shard, and are then sent to the dead-letter topic.
+     * A failed attempt rolls back the books, positions and expiry schedule along with its transaction, so
+     * each retry executes the order from scratch. A redelivered order is skipped.
+     *
+     * @param record the consumed record
+     */
+    private void processRecord(ConsumerRecord<String, TradeOrderDTO> record) {
+        TradeOrderDTO orderDTO = record.value();
+        if (orderDeduplicator.isDuplicate(orderDTO.getOrderId())) {
+            log.info("Skipping redelivered trade order: {}", orderDTO.getOrderId());
+            return;
+        }
+        Exception failure = null;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                TradeOrderDTO processedOrder = tradeOrderService.processOrder(orderDTO);
+                log.info("Successfully processed trade order: {}, new status: {}",
+                        processedOrder.getOrderId(), processedOrder.getStatus());
+                failure = null;
+                break;
+            } catch (Exception e) {
+                log.warn("Attempt {} of {} failed for trade order: {}", attempt, maxAttempts, orderDTO.getOrderId(), e);
+                failure = e;
+            }
+        }
+
+        orderDeduplicator.record(orderDTO.getOrderId());
+        if (failure != null) {
+            log.error("Sending trade order {} to the dead-letter topic", orderDTO.getOrderId());
+            deadLetterRecoverer.accept(record, failure);
+        }
+    }
+
+    @Override
+    public void start() {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        shards = new ExecutionShard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new ExecutionShard(i, ringSize, maxBatchSize, this::handle);
+            shards[i].start();
+        }
+        running = true;
+        log.info("Started {} execution shards with ring size {}", count, ringSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (shards == null) {
+            return;
+        }
+        for (ExecutionShard shard : shards) {
+            shard.stop(5_000);
+        }
+        log.info("Stopped execution shards");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the Kafka listener containers, so no record is handed to a stopped shard.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 200;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tradeplatform.tradeprocessor.expiry;
+
+import com.tradeplatform.tradeprocessor.execution.ShardedOrderExecutor;
+import com.tradeplatform.tradeprocessor.service.TradeOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expires orders whose {@code expiresAt} has passed.
+ * Every tick advances the {@link OrderExpiryTracker} and hands the expired orders, in batches, to the
+ * execution shard that owns their symbol, which removes them from the book and records them as EXPIRED.
+ * A batch that fails to expire, and whose changes are therefore rolled back, is scheduled again for the next tick.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExpiryService {
+
+    private final OrderExpiryTracker orderExpiryTracker;
+    private final ShardedOrderExecutor shardedOrderExecutor;
+    private final TradeOrderService tradeOrderService;
+
+    @Value("${trade.expiry.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Advances the expiry schedule and dispatches the expired orders.
+     */
+    @Scheduled(fixedRateString = "${trade.expiry.tick-ms:100}")
+    public void tick() {
+        if (!shardedOrderExecutor.isRunning()) {
+            return;
+        }
+
+        List<List<TimingWheel.Entry>> byShard = new ArrayList<>(shardedOrderExecutor.getShardCount());
+        for (int i = 0; i < shardedOrderExecutor.getShardCount(); i++) {
+            byShard.add(new ArrayList<>());
+        }
+
+        // Dispatch only after advancing: shards update the tracker, so it must not be locked while a ring is full
+        int expired = orderExpiryTracker.advance(entry ->
+                byShard.get(shardedOrderExecutor.shardIndex(entry.getSymbol())).add(entry));
+        if (expired == 0) {
+            return;
+        }
+
+        for (int shard = 0; shard < byShard.size(); shard++) {
+            List<TimingWheel.Entry> entries = byShard.get(shard);
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                dispatch(shard, entries.subList(from, Math.min(from + batchSize, entries.size())));
+            }
+        }
+        log.debug("Dispatched {} expired orders", expired);
+    }
+
+    private void dispatch(int shard, List<TimingWheel.Entry> entries) {
+        List<UUID> orderIds = entries.stream().map(TimingWheel.Entry::getOrderId).toList();
+        shardedOrderExecutor.executeOnShard(shard, () -> {
+            try {
+                tradeOrderService.expireOrders(orderIds);
+            } catch (Exception e) {
+                log.error("Failed to expire {} orders; retrying on the next tick", orderIds.size(), e);
+                orderExpiryTracker.retry(entries);
+            }
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package com.tradeplatform.tradeprocessor.expiry;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.store.TradeOrderStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the expiry deadline of every open order that has an {@code expiresAt} in a {@link TimingWheel}.
+ * Execution shards update it as orders change state, once the change has committed; the
+ * {@link OrderExpiryService} advances it.
+ * The schedule is rebuilt from the {@link TradeOrderStore} on startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExpiryTracker {
+
+    /**
+     * Statuses in which an order can expire. PROCESSING orders are left to stuck order recovery.
+     */
+    public static final Set<OrderStatus> EXPIRABLE_STATUSES = EnumSet.of(
+            OrderStatus.CREATED, OrderStatus.PENDING, OrderStatus.PARTIALLY_FILLED);
+
+    private final TradeOrderStore tradeOrderStore;
+
+    @Value("${trade.expiry.tick-ms:100}")
+    private long tickMillis;
+
+    private TimingWheel wheel;
+
+    /**
+     * Builds the schedule from the open orders in the store.
+     */
+    @PostConstruct
+    public void rebuild() {
+        wheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+        int count = 0;
+        for (TradeOrder order : tradeOrderStore.findWithExpiry(EXPIRABLE_STATUSES)) {
+            track(order);
+            count++;
+        }
+        log.info("Rebuilt order expiry schedule with {} orders", count);
+    }
+
+    /**
+     * Updates the schedule after an order has changed: open orders with an expiry time are scheduled,
+     * all others are removed.
+     *
+     * @param order the order
+     */
+    public void track(TradeOrder order) {
+        if (order.getExpiresAt() == null) {
+            // Never scheduled
+            return;
+        }
+        synchronized (this) {
+            if (EXPIRABLE_STATUSES.contains(order.getStatus())) {
+                wheel.schedule(order.getOrderId(), order.getSymbol(), toEpochMillis(order.getExpiresAt()));
+            } else {
+                wheel.cancel(order.getOrderId());
+            }
+        }
+    }
+
+    /**
+     * Updates the schedule after execution changed some orders, once the current transaction commits, so the
+     * schedule never follows a change that was rolled back.
+     *
+     * @param orders the changed orders
+     */
+    public void update(Collection<TradeOrder> orders) {
+        List<TradeOrder> scheduled = orders.stream().filter(order -> order.getExpiresAt() != null).toList();
+        if (scheduled.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduled.forEach(this::track);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduled.forEach(OrderExpiryTracker.this::track);
+            }
+        });
+    }
+
+    /**
+     * Schedules orders that were due but could not be expired to expire again on the next tick. Orders that
+     * have been scheduled again in the meantime keep their new deadline.
+     *
+     * @param entries the entries removed from the schedule when they expired
+     */
+    public synchronized void retry(Collection<TimingWheel.Entry> entries) {
+        long now = System.currentTimeMillis();
+        for (TimingWheel.Entry entry : entries) {
+            if (!wheel.isScheduled(entry.getOrderId())) {
+                wheel.schedule(entry.getOrderId(), entry.getSymbol(), now);
+            }
+        }
+    }
+
+    /**
+     * Advances the schedule to the current time, removing and passing on every order that has expired.
+     *
+     * @param expired the consumer of expired entries
+     * @return the number of expired orders
+     */
+    public synchronized int advance(Consumer<TimingWheel.Entry> expired) {
+        return wheel.advance(System.currentTimeMillis(), expired);
+    }
+
+    /**
+     * Returns the number of orders scheduled to expire.
+     *
+     * @return the scheduled order count
+     */
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,230 @@
+package com.tradeplatform.tradeprocessor.expiry;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of order expiry deadlines.
+ * <p>
+ * Level 0 has one slot per tick; each higher level has slots spanning a whole revolution of the level below.
+ * An order is placed on the lowest level whose current revolution contains its deadline, so scheduling and
+ * cancelling are O(1). Each tick expires the level-0 slot for that tick, and whenever a level completes a
+ * revolution the next slot of the level above is cascaded down, which amortizes to O(1) per order.
+ * This class is not thread-safe.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 9;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * Length of a tick in milliseconds.
+     */
+    @Getter
+    private final long tickMillis;
+
+    /**
+     * Head of the doubly-linked entry list of each slot, by level.
+     */
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+
+    /**
+     * Scheduled entries by order ID, used for cancellation.
+     */
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    /**
+     * The last tick that has been processed.
+     */
+    private long currentTick;
+
+    /**
+     * Creates a timing wheel starting at the given time.
+     *
+     * @param tickMillis the length of a tick in milliseconds
+     * @param startMillis the current time in epoch milliseconds
+     */
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules an order to expire at a deadline, replacing any deadline already scheduled for it.
+     * Deadlines are rounded up to the next tick, so an order never expires early; a deadline that has
+     * already passed expires on the next tick.
+     *
+     * @param orderId the order ID
+     * @param symbol the symbol of the order
+     * @param deadlineMillis the expiry time in epoch milliseconds
+     */
+    public void schedule(UUID orderId, String symbol, long deadlineMillis) {
+        cancel(orderId);
+        Entry entry = new Entry(orderId, symbol, Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1));
+        entries.put(orderId, entry);
+        place(entry);
+    }
+
+    /**
+     * Tells whether an order is scheduled.
+     *
+     * @param orderId the order ID
+     * @return true if the order has a scheduled deadline
+     */
+    public boolean isScheduled(UUID orderId) {
+        return entries.containsKey(orderId);
+    }
+
+    /**
+     * Cancels the scheduled expiry of an order.
+     *
+     * @param orderId the order ID
+     * @return true if the order was scheduled
+     */
+    public boolean cancel(UUID orderId) {
+        Entry entry = entries.remove(orderId);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time, passing every order whose deadline has been reached to the
+     * consumer. Expired orders are removed from the wheel.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @param expired the consumer of expired entries
+     * @return the number of expired entries
+     */
+    public int advance(long nowMillis, Consumer<Entry> expired) {
+        long targetTick = nowMillis / tickMillis;
+        int count = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+
+            int slot = (int) (currentTick & SLOT_MASK);
+            Entry entry = slots[0][slot];
+            slots[0][slot] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                entry.prev = null;
+                entries.remove(entry.orderId);
+                expired.accept(entry);
+                count++;
+                entry = next;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of scheduled orders.
+     *
+     * @return the scheduled order count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the entries of the higher-level slots that start at the current tick down the hierarchy,
+     * highest level first so entries can fall through several levels in one tick.
+     */
+    private void cascade() {
+        int top = 0;
+        while (top < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Entry entry = slots[level][slot];
+            slots[level][slot] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                entry.prev = null;
+                place(entry);
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * Links an entry into the slot for its deadline on the lowest level whose current revolution contains it.
+     *
+     * @param entry the entry to place
+     */
+    private void place(Entry entry) {
+        int level = 0;
+        while (level < LEVELS - 1
+                && (entry.deadlineTick >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((entry.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = slots[level][slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[level][slot] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.next = null;
+        entry.prev = null;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    /**
+     * An order scheduled on the wheel.
+     */
+    public static final class Entry {
+
+        /**
+         * ID of the order.
+         */
+        @Getter
+        private final UUID orderId;
+
+        /**
+         * Symbol of the order, used to route its expiry to the owning execution shard.
+         */
+        @Getter
+        private final String symbol;
+
+        private final long deadlineTick;
+        private int level;
+        private int slot;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(UUID orderId, String symbol, long deadlineTick) {
+            this.orderId = orderId;
+            this.symbol = symbol;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.tradeplatform.tradeprocessor.journal;
+
+import com.tradeplatform.common.exception.TradePlatformException;
+
+/**
+ * Exception thrown when the order journal or its snapshots cannot be read or written.
+ */
+public class JournalException extends TradePlatformException {
+
+    /**
+     * Constructs a new JournalException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public JournalException(String message) {
+        super(message, "JOURNAL_ERROR");
+    }
+
+    /**
+     * Constructs a new JournalException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause   the cause of the exception
+     */
+    public JournalException(String message, Throwable cause) {
+        super(message, cause, "JOURNAL_ERROR");
+    }
+}
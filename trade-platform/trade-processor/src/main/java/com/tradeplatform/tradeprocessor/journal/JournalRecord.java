@@ -0,0 +1,358 @@
+package com.tradeplatform.tradeprocessor.journal;
+
+import lombok.Data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * A single order state transition in the journal, encoded as a compact fixed-layout binary record.
+ * Instances are mutable so the writer and readers can reuse one record per thread instead of
+ * allocating for every event.
+ * <p>
+ * Prices are fixed-point ticks, times are nanoseconds since the epoch (UTC) and enums are written as
+ * ordinals, so new enum constants must only ever be appended. Absent values use the {@code NULL_*}
+ * sentinels.
+ */
+@Data
+public class JournalRecord {
+
+    /**
+     * Sentinel for an absent price or time.
+     */
+    public static final long NULL_LONG = Long.MIN_VALUE;
+
+    /**
+     * Sentinel for an absent quantity or count.
+     */
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    /**
+     * Sentinel for an absent enum value.
+     */
+    public static final byte NULL_BYTE = -1;
+
+    /**
+     * Maximum number of characters kept for free-text fields; matches the column length of the read model.
+     */
+    public static final int MAX_TEXT_LENGTH = 1000;
+
+    /**
+     * Type of the record.
+     */
+    private JournalRecordType type;
+
+    /**
+     * Sequence number assigned by the journal on append.
+     */
+    private long sequence;
+
+    /**
+     * Time the record was appended, in epoch milliseconds.
+     */
+    private long timestamp;
+
+    /**
+     * ID of the order the record belongs to.
+     */
+    private UUID orderId;
+
+    // Attributes fixed at acceptance, only present in ACCEPTED records
+
+    /**
+     * Sequence of the record that first accepted the order; preserves time priority when books are rebuilt
+     * from a snapshot, where the record's own sequence is that of the order's latest transition.
+     * Left absent when appending an acceptance, in which case it is the record's own sequence.
+     */
+    private long acceptedSequence = NULL_LONG;
+
+    /**
+     * User ID of the trader who placed the order.
+     */
+    private String userId;
+
+    /**
+     * Symbol/ticker of the security being traded.
+     */
+    private String symbol;
+
+    /**
+     * Ordinal of the order type.
+     */
+    private byte orderType = NULL_BYTE;
+
+    /**
+     * Ordinal of the order side.
+     */
+    private byte side = NULL_BYTE;
+
+    /**
+     * Quantity of securities to trade.
+     */
+    private int quantity = NULL_INT;
+
+    /**
+     * Limit price in ticks.
+     */
+    private long price = NULL_LONG;
+
+    /**
+     * Stop price in ticks.
+     */
+    private long stopPrice = NULL_LONG;
+
+    /**
+     * Time when the order was created.
+     */
+    private long createdAt = NULL_LONG;
+
+    /**
+     * Time when the order expires.
+     */
+    private long expiresAt = NULL_LONG;
+
+    // Execution state, present in every record
+
+    /**
+     * Ordinal of the order status.
+     */
+    private byte status = NULL_BYTE;
+
+    /**
+     * Quantity that has been filled so far.
+     */
+    private int filledQuantity = NULL_INT;
+
+    /**
+     * Remaining quantity to be filled.
+     */
+    private int remainingQuantity = NULL_INT;
+
+    /**
+     * Average execution price in ticks.
+     */
+    private long executionPrice = NULL_LONG;
+
+    /**
+     * Time when the order was last updated.
+     */
+    private long updatedAt = NULL_LONG;
+
+    /**
+     * Time when the order was executed (filled).
+     */
+    private long executedAt = NULL_LONG;
+
+    /**
+     * Time when the stop price was reached.
+     */
+    private long triggeredAt = NULL_LONG;
+
+    /**
+     * Number of processing attempts.
+     */
+    private int processingAttempts = NULL_INT;
+
+    /**
+     * Time when the last processing attempt was made.
+     */
+    private long lastProcessingAttempt = NULL_LONG;
+
+    /**
+     * Additional notes or comments about the order.
+     */
+    private String notes;
+
+    /**
+     * Last error message during processing.
+     */
+    private String lastErrorMessage;
+
+    /**
+     * Writes the record payload (everything but the frame header) at the buffer's position.
+     *
+     * @param buffer the buffer to write to
+     */
+    public void encode(ByteBuffer buffer) {
+        buffer.put(type.getCode());
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        buffer.putLong(orderId.getMostSignificantBits());
+        buffer.putLong(orderId.getLeastSignificantBits());
+
+        if (type == JournalRecordType.ACCEPTED) {
+            buffer.putLong(acceptedSequence);
+            putString(buffer, userId);
+            putString(buffer, symbol);
+            buffer.put(orderType);
+            buffer.put(side);
+            buffer.putInt(quantity);
+            buffer.putLong(price);
+            buffer.putLong(stopPrice);
+            buffer.putLong(createdAt);
+            buffer.putLong(expiresAt);
+        }
+
+        buffer.put(status);
+        buffer.putInt(filledQuantity);
+        buffer.putInt(remainingQuantity);
+        buffer.putLong(executionPrice);
+        buffer.putLong(updatedAt);
+        buffer.putLong(executedAt);
+        buffer.putLong(triggeredAt);
+        buffer.putInt(processingAttempts);
+        buffer.putLong(lastProcessingAttempt);
+        putString(buffer, notes);
+        putString(buffer, lastErrorMessage);
+    }
+
+    /**
+     * Reads a record payload from the buffer's position into this instance, replacing all fields.
+     *
+     * @param buffer the buffer to read from
+     */
+    public void decode(ByteBuffer buffer) {
+        clear();
+        type = JournalRecordType.fromCode(buffer.get());
+        sequence = buffer.getLong();
+        timestamp = buffer.getLong();
+        orderId = new UUID(buffer.getLong(), buffer.getLong());
+
+        if (type == JournalRecordType.ACCEPTED) {
+            acceptedSequence = buffer.getLong();
+            if (acceptedSequence == NULL_LONG) {
+                acceptedSequence = sequence;
+            }
+            userId = getString(buffer);
+            symbol = getString(buffer);
+            orderType = buffer.get();
+            side = buffer.get();
+            quantity = buffer.getInt();
+            price = buffer.getLong();
+            stopPrice = buffer.getLong();
+            createdAt = buffer.getLong();
+            expiresAt = buffer.getLong();
+        }
+
+        status = buffer.get();
+        filledQuantity = buffer.getInt();
+        remainingQuantity = buffer.getInt();
+        executionPrice = buffer.getLong();
+        updatedAt = buffer.getLong();
+        executedAt = buffer.getLong();
+        triggeredAt = buffer.getLong();
+        processingAttempts = buffer.getInt();
+        lastProcessingAttempt = buffer.getLong();
+        notes = getString(buffer);
+        lastErrorMessage = getString(buffer);
+    }
+
+    /**
+     * Returns an upper bound of the encoded payload size, used to decide when to roll a segment.
+     *
+     * @return the maximum number of bytes {@link #encode} may write
+     */
+    public int maxEncodedSize() {
+        // Fixed fields plus four strings of at most MAX_TEXT_LENGTH chars, 3 bytes per char in UTF-8
+        return 128 + 4 * (Short.BYTES + 3 * MAX_TEXT_LENGTH);
+    }
+
+    /**
+     * Resets every field to its absent value.
+     */
+    public void clear() {
+        type = null;
+        sequence = 0;
+        timestamp = 0;
+        orderId = null;
+        acceptedSequence = NULL_LONG;
+        userId = null;
+        symbol = null;
+        orderType = NULL_BYTE;
+        side = NULL_BYTE;
+        quantity = NULL_INT;
+        price = NULL_LONG;
+        stopPrice = NULL_LONG;
+        createdAt = NULL_LONG;
+        expiresAt = NULL_LONG;
+        status = NULL_BYTE;
+        filledQuantity = NULL_INT;
+        remainingQuantity = NULL_INT;
+        executionPrice = NULL_LONG;
+        updatedAt = NULL_LONG;
+        executedAt = NULL_LONG;
+        triggeredAt = NULL_LONG;
+        processingAttempts = NULL_INT;
+        lastProcessingAttempt = NULL_LONG;
+        notes = null;
+        lastErrorMessage = null;
+    }
+
+    /**
+     * Copies every field of another record into this one.
+     *
+     * @param other the record to copy
+     */
+    public void copyFrom(JournalRecord other) {
+        type = other.type;
+        sequence = other.sequence;
+        timestamp = other.timestamp;
+        orderId = other.orderId;
+        acceptedSequence = other.acceptedSequence;
+        userId = other.userId;
+        symbol = other.symbol;
+        orderType = other.orderType;
+        side = other.side;
+        quantity = other.quantity;
+        price = other.price;
+        stopPrice = other.stopPrice;
+        createdAt = other.createdAt;
+        expiresAt = other.expiresAt;
+        copyStateFrom(other);
+    }
+
+    /**
+     * Copies the sequence, timestamp and execution state of another record into this one,
+     * leaving the attributes fixed at acceptance untouched.
+     *
+     * @param other the record to copy
+     */
+    public void copyStateFrom(JournalRecord other) {
+        sequence = other.sequence;
+        timestamp = other.timestamp;
+        orderId = other.orderId;
+        status = other.status;
+        filledQuantity = other.filledQuantity;
+        remainingQuantity = other.remainingQuantity;
+        executionPrice = other.executionPrice;
+        updatedAt = other.updatedAt;
+        executedAt = other.executedAt;
+        triggeredAt = other.triggeredAt;
+        processingAttempts = other.processingAttempts;
+        lastProcessingAttempt = other.lastProcessingAttempt;
+        notes = other.notes;
+        lastErrorMessage = other.lastErrorMessage;
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        String text = value.length() > MAX_TEXT_LENGTH ? value.substring(0, MAX_TEXT_LENGTH) : value;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tradeplatform.tradeprocessor.journal;
+
+/**
+ * Enum representing the kinds of records written to the order event journal.
+ */
+public enum JournalRecordType {
+    /**
+     * An order was accepted; carries the order's immutable attributes and its initial state.
+     */
+    ACCEPTED((byte) 1),
+
+    /**
+     * An order changed state; carries only the mutable execution state.
+     */
+    TRANSITION((byte) 2);
+
+    private final byte code;
+
+    JournalRecordType(byte code) {
+        this.code = code;
+    }
+
+    /**
+     * Returns the code written to the journal for this type.
+     *
+     * @return the type code
+     */
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the record type for a code read from the journal.
+     *
+     * @param code the type code
+     * @return the record type
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static JournalRecordType fromCode(byte code) {
+        return switch (code) {
+            case 1 -> ACCEPTED;
+            case 2 -> TRANSITION;
+            default -> throw new IllegalArgumentException("Unknown journal record type: " + code);
+        };
+    }
+}
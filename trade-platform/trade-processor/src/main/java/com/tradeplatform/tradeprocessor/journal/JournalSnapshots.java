@@ -0,0 +1,166 @@
+package com.tradeplatform.tradeprocessor.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time snapshots of the open orders in the journal, so a restart replays only the records
+ * appended after the latest snapshot instead of the whole journal.
+ * <p>
+ * A snapshot file holds a header (magic, format version, snapshot sequence, record count), one
+ * length-prefixed ACCEPTED record per open order carrying its full state, and a CRC32C of everything before
+ * it. Files are written to a temporary name and atomically renamed; the two most recent are kept so a
+ * damaged latest snapshot falls back to the previous one.
+ */
+@Slf4j
+public class JournalSnapshots {
+
+    private static final int SNAPSHOT_MAGIC = 0x4F534E50;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    /**
+     * Directory holding the snapshot files.
+     */
+    private final Path directory;
+
+    /**
+     * Creates the snapshot store, creating its directory if needed.
+     *
+     * @param directory the snapshot directory
+     * @throws IOException if the directory cannot be created
+     */
+    public JournalSnapshots(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Writes a snapshot.
+     *
+     * @param sequence the journal sequence the snapshot covers; replay resumes after it
+     * @param records the full state of every open order, as ACCEPTED records
+     * @throws JournalException if the snapshot cannot be written
+     */
+    public void write(long sequence, Collection<JournalRecord> records) {
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(new JournalRecord().maxEncodedSize());
+        CRC32C crc = new CRC32C();
+
+        try (OutputStream file = Files.newOutputStream(temp);
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc);
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(records.size());
+            for (JournalRecord record : records) {
+                buffer.clear();
+                record.encode(buffer);
+                out.writeInt(buffer.position());
+                out.write(buffer.array(), 0, buffer.position());
+            }
+            out.flush();
+            file.write(ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).array());
+        } catch (IOException e) {
+            throw new JournalException("Failed to write journal snapshot " + target, e);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new JournalException("Failed to publish journal snapshot " + target, e);
+        }
+        log.info("Wrote journal snapshot at sequence {} with {} open orders", sequence, records.size());
+        deleteOldSnapshots();
+    }
+
+    /**
+     * Loads the most recent readable snapshot. Each record is passed to the consumer as a new instance.
+     *
+     * @param consumer the consumer of the snapshot records
+     * @return the journal sequence covered by the loaded snapshot, or zero if there is none
+     */
+    public long load(Consumer<JournalRecord> consumer) {
+        for (Path file : listSnapshots()) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+                if (!isValid(buffer)) {
+                    log.warn("Ignoring damaged journal snapshot {}", file);
+                    continue;
+                }
+                buffer.position(2 * Integer.BYTES);
+                long sequence = buffer.getLong();
+                int count = buffer.getInt();
+                for (int i = 0; i < count; i++) {
+                    int length = buffer.getInt();
+                    JournalRecord record = new JournalRecord();
+                    record.decode(buffer.slice(buffer.position(), length));
+                    buffer.position(buffer.position() + length);
+                    consumer.accept(record);
+                }
+                log.info("Loaded journal snapshot at sequence {} with {} open orders", sequence, count);
+                return sequence;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not read journal snapshot {}", file, e);
+            }
+        }
+        return 0;
+    }
+
+    private boolean isValid(ByteBuffer buffer) {
+        if (buffer.limit() < 24 || buffer.getInt(0) != SNAPSHOT_MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, buffer.limit() - Integer.BYTES));
+        return (int) crc.getValue() == buffer.getInt(buffer.limit() - Integer.BYTES);
+    }
+
+    /**
+     * Lists snapshot files, most recent first.
+     *
+     * @return the snapshot files
+     */
+    private List<Path> listSnapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new JournalException("Failed to list journal snapshots in " + directory, e);
+        }
+    }
+
+    private void deleteOldSnapshots() {
+        List<Path> snapshots = listSnapshots();
+        for (Path file : snapshots.subList(Math.min(SNAPSHOTS_KEPT, snapshots.size()), snapshots.size())) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete journal snapshot {}", file, e);
+            }
+        }
+    }
+}
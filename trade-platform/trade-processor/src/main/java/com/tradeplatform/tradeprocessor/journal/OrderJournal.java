@@ -0,0 +1,459 @@
+package com.tradeplatform.tradeprocessor.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of order state transitions stored in memory-mapped, fixed-size segment files.
+ * <p>
+ * Each segment starts with a header (magic, format version, first sequence) followed by frames of
+ * {@code [int length][int crc32c][payload]}. The length is written last, so a frame with a zero length marks
+ * the end of the written data and a frame whose checksum does not match is a torn write from a crash; both
+ * end recovery of the active segment. When a record no longer fits, the segment is sealed and a new one is
+ * created, named after the first sequence it will hold.
+ * <p>
+ * Appends are serialized by the journal; any number of threads may replay concurrently and see every
+ * record up to the last published sequence. A {@link Reader} tails the journal from where it stopped instead
+ * of scanning its segment from the start on every read, and sealed segments are mapped once and shared by
+ * all readers until they are deleted. Appended records reach the page cache immediately and the disk on
+ * {@link #flush()}, so the durability window is the flush interval.
+ */
+@Slf4j
+public class OrderJournal implements Closeable {
+
+    private static final int SEGMENT_MAGIC = 0x4F4A524E;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 16;
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Directory holding the segment files.
+     */
+    private final Path directory;
+
+    /**
+     * Size of each segment file in bytes.
+     */
+    private final int segmentSize;
+
+    /**
+     * Segment files keyed by the first sequence they hold.
+     */
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * Read-only mappings of sealed segments, keyed by their first sequence.
+     */
+    private final Map<Long, ByteBuffer> sealedBuffers = new ConcurrentHashMap<>();
+
+    /**
+     * Checksum used by the writer.
+     */
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * Channel of the active segment.
+     */
+    private FileChannel activeChannel;
+
+    /**
+     * Mapping of the active segment; its position is the append position.
+     */
+    private MappedByteBuffer activeBuffer;
+
+    /**
+     * First sequence of the active segment.
+     */
+    private long activeFirstSequence;
+
+    /**
+     * Sequence of the last appended record; readers never look past it.
+     */
+    private volatile long lastSequence;
+
+    /**
+     * Opens the journal in a directory, creating it if needed and recovering the append position of the
+     * most recent segment.
+     *
+     * @param directory the journal directory
+     * @param segmentSize the size of each segment file in bytes
+     * @throws IOException if the journal cannot be opened
+     */
+    public OrderJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(firstSequenceOf(file), file));
+        }
+
+        if (segments.isEmpty()) {
+            lastSequence = 0;
+            openSegment(1, true);
+        } else {
+            Map.Entry<Long, Path> last = segments.lastEntry();
+            openSegment(last.getKey(), false);
+            lastSequence = recover(activeBuffer, last.getKey());
+        }
+        log.info("Opened order journal in {} with {} segment(s), last sequence {}",
+                directory, segments.size(), lastSequence);
+    }
+
+    /**
+     * Appends a record, assigning its sequence number and timestamp.
+     *
+     * @param record the record to append
+     * @return the sequence number assigned to the record
+     * @throws JournalException if the journal cannot roll to a new segment
+     */
+    public synchronized long append(JournalRecord record) {
+        long sequence = lastSequence + 1;
+        record.setSequence(sequence);
+        record.setTimestamp(System.currentTimeMillis());
+
+        MappedByteBuffer buffer = activeBuffer;
+        if (buffer.remaining() < FRAME_HEADER_SIZE + record.maxEncodedSize()) {
+            roll(sequence);
+            buffer = activeBuffer;
+        }
+
+        int start = buffer.position();
+        buffer.position(start + FRAME_HEADER_SIZE);
+        record.encode(buffer);
+        int length = buffer.position() - start - FRAME_HEADER_SIZE;
+
+        crc.reset();
+        crc.update(buffer.slice(start + FRAME_HEADER_SIZE, length));
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        // Publishing the length last makes the frame visible to recovery only once it is complete
+        buffer.putInt(start, length);
+
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Replays records in sequence order, starting at a sequence and stopping at the last record published
+     * when the replay started. The same record instance is passed to the consumer for every record, so it
+     * must copy anything it keeps.
+     *
+     * @param fromSequence the first sequence to deliver
+     * @param maxRecords the maximum number of records to deliver
+     * @param record the record instance to decode into
+     * @param consumer the consumer of the records
+     * @return the sequence of the last delivered record, or {@code fromSequence - 1} if none was delivered
+     * @throws JournalException if a segment cannot be read
+     */
+    public long replay(long fromSequence, int maxRecords, JournalRecord record, Consumer<JournalRecord> consumer) {
+        return reader(fromSequence).read(maxRecords, record, consumer);
+    }
+
+    /**
+     * Opens a reader positioned at a sequence, for tailing the journal in repeated reads.
+     *
+     * @param fromSequence the first sequence the reader delivers
+     * @return the reader
+     */
+    public Reader reader(long fromSequence) {
+        return new Reader(fromSequence);
+    }
+
+    /**
+     * Forces appended records of the active segment to disk.
+     */
+    public void flush() {
+        MappedByteBuffer buffer;
+        synchronized (this) {
+            buffer = activeBuffer;
+        }
+        // Forcing outside the lock keeps appends going; a concurrent roll forces the old segment itself
+        buffer.force();
+    }
+
+    /**
+     * Deletes sealed segments whose records all have a sequence at or below the given one.
+     * The active segment is never deleted.
+     *
+     * @param sequence the highest sequence that is no longer needed
+     * @return the number of deleted segments
+     */
+    public int deleteSegmentsThrough(long sequence) {
+        long active;
+        synchronized (this) {
+            active = activeFirstSequence;
+        }
+        int deleted = 0;
+        for (Map.Entry<Long, Path> segment : segments.headMap(active, false).entrySet()) {
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next - 1 > sequence) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                segments.remove(segment.getKey());
+                sealedBuffers.remove(segment.getKey());
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}", segment.getValue(), e);
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the sequence of the last appended record.
+     *
+     * @return the last sequence, or zero if the journal is empty
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Returns the number of segment files.
+     *
+     * @return the segment count
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        activeBuffer.force();
+        activeChannel.close();
+        log.info("Closed order journal in {} at sequence {}", directory, lastSequence);
+    }
+
+    /**
+     * Seals the active segment and starts a new one.
+     *
+     * @param firstSequence the first sequence of the new segment
+     */
+    private void roll(long firstSequence) {
+        try {
+            activeBuffer.force();
+            activeChannel.close();
+            // The mapping stays valid after its channel is closed, so readers keep using it
+            sealedBuffers.put(activeFirstSequence, activeBuffer.asReadOnlyBuffer().clear());
+            openSegment(firstSequence, true);
+            log.debug("Rolled order journal to segment starting at sequence {}", firstSequence);
+        } catch (IOException e) {
+            throw new JournalException("Failed to roll order journal segment", e);
+        }
+    }
+
+    /**
+     * Maps a segment file as the active segment.
+     *
+     * @param firstSequence the first sequence of the segment
+     * @param create whether to create a new segment file
+     * @throws IOException if the segment cannot be opened
+     */
+    private void openSegment(long firstSequence, boolean create) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        activeChannel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+        if (create) {
+            buffer.putInt(SEGMENT_MAGIC);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putLong(firstSequence);
+        } else {
+            checkHeader(buffer, file);
+            buffer.position(SEGMENT_HEADER_SIZE);
+        }
+        segments.put(firstSequence, file);
+        activeFirstSequence = firstSequence;
+        activeBuffer = buffer;
+    }
+
+    /**
+     * Scans the active segment for the end of its valid records and positions the buffer there.
+     * A torn frame at the tail is cleared, together with anything after it, so that no stale bytes can be
+     * mistaken for a frame once shorter records are appended over it.
+     *
+     * @param buffer the mapping of the segment
+     * @param firstSequence the first sequence of the segment
+     * @return the sequence of the last valid record in the journal
+     */
+    private long recover(MappedByteBuffer buffer, long firstSequence) {
+        long last = firstSequence - 1;
+        int position = SEGMENT_HEADER_SIZE;
+        CRC32C check = new CRC32C();
+        while (position + FRAME_HEADER_SIZE <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0) {
+                break;
+            }
+            if (position + FRAME_HEADER_SIZE + length > buffer.limit()) {
+                log.warn("Discarding truncated journal frame at offset {} of segment {}", position, firstSequence);
+                clearFrom(buffer, position);
+                break;
+            }
+            check.reset();
+            check.update(buffer.slice(position + FRAME_HEADER_SIZE, length));
+            if ((int) check.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                log.warn("Discarding torn journal frame at offset {} of segment {}", position, firstSequence);
+                clearFrom(buffer, position);
+                break;
+            }
+            last = buffer.getLong(position + FRAME_HEADER_SIZE + 1);
+            position += FRAME_HEADER_SIZE + length;
+        }
+        buffer.position(position);
+        return last;
+    }
+
+    /**
+     * Returns a read-only view of a segment. The active segment is read through the writer's mapping, and
+     * sealed segments through a mapping shared by all readers.
+     *
+     * @param firstSequence the first sequence of the segment
+     * @return the segment contents
+     */
+    private ByteBuffer readBuffer(long firstSequence) {
+        synchronized (this) {
+            if (firstSequence == activeFirstSequence) {
+                return activeBuffer.asReadOnlyBuffer().clear();
+            }
+        }
+        ByteBuffer buffer = sealedBuffers.computeIfAbsent(firstSequence, this::mapSealed);
+        // Each reader needs its own position and limit
+        return buffer.duplicate();
+    }
+
+    private ByteBuffer mapSealed(long firstSequence) {
+        Path file = segments.get(firstSequence);
+        if (file == null) {
+            throw new JournalException("Order journal segment " + firstSequence + " has been deleted");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new JournalException("Failed to read order journal segment " + file, e);
+        }
+    }
+
+    private static void clearFrom(MappedByteBuffer buffer, int position) {
+        byte[] zeros = new byte[8192];
+        for (int offset = position; offset < buffer.limit(); offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.limit() - offset));
+        }
+        buffer.force();
+    }
+
+    private void checkHeader(ByteBuffer buffer, Path file) {
+        if (buffer.getInt(0) != SEGMENT_MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            throw new JournalException("Not an order journal segment of version " + FORMAT_VERSION + ": " + file);
+        }
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the journal forward from a sequence, remembering the segment and byte offset it stopped at so that
+     * the next read continues from there. A reader is used by one thread at a time.
+     */
+    public final class Reader {
+
+        /**
+         * First sequence of the segment being read, or null before the first read.
+         */
+        private Long segment;
+
+        /**
+         * View of the segment being read.
+         */
+        private ByteBuffer buffer;
+
+        /**
+         * Offset of the next frame to read in the segment.
+         */
+        private int position;
+
+        /**
+         * Next sequence to deliver; frames below it are skipped.
+         */
+        private long nextSequence;
+
+        private Reader(long fromSequence) {
+            this.nextSequence = fromSequence;
+        }
+
+        /**
+         * Delivers the records after the last one read, stopping at the last record published when the read
+         * started. The same record instance is passed to the consumer for every record, so it must copy
+         * anything it keeps.
+         *
+         * @param maxRecords the maximum number of records to deliver
+         * @param record the record instance to decode into
+         * @param consumer the consumer of the records
+         * @return the sequence of the last record delivered by this reader, or the one before its first sequence
+         * if none was delivered yet
+         * @throws JournalException if a segment cannot be read
+         */
+        public long read(int maxRecords, JournalRecord record, Consumer<JournalRecord> consumer) {
+            long upTo = lastSequence;
+            int count = 0;
+            if (segment == null && nextSequence <= upTo) {
+                Long first = segments.floorKey(nextSequence);
+                open(first != null ? first : segments.firstKey());
+            }
+            while (count < maxRecords && nextSequence <= upTo) {
+                int length = position + FRAME_HEADER_SIZE <= buffer.limit() ? buffer.getInt(position) : 0;
+                if (length <= 0) {
+                    // End of a sealed segment; the writer has moved on to the next one
+                    Long next = segments.higherKey(segment);
+                    if (next == null) {
+                        break;
+                    }
+                    open(next);
+                    continue;
+                }
+                long sequence = buffer.getLong(position + FRAME_HEADER_SIZE + 1);
+                if (sequence > upTo) {
+                    break;
+                }
+                if (sequence >= nextSequence) {
+                    record.decode(buffer.slice(position + FRAME_HEADER_SIZE, length));
+                    consumer.accept(record);
+                    nextSequence = sequence + 1;
+                    count++;
+                }
+                position += FRAME_HEADER_SIZE + length;
+            }
+            return nextSequence - 1;
+        }
+
+        private void open(long firstSequence) {
+            segment = firstSequence;
+            buffer = readBuffer(firstSequence);
+            position = SEGMENT_HEADER_SIZE;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import com.tradeplatform.common.dto.OrderSide;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * An order resting in (or being matched against) an order book.
+ * Instances are mutated only by the order book that owns them.
+ */
+@Getter
+public class BookOrder {
+
+    /**
+     * Unique identifier of the order.
+     */
+    private final UUID orderId;
+
+    /**
+     * Side of the order.
+     */
+    private final OrderSide side;
+
+    /**
+     * Limit price of the order in fixed-point ticks; meaningless for a market order.
+     */
+    private final long price;
+
+    /**
+     * Whether this is a market order, which trades at any price and never rests.
+     */
+    private final boolean market;
+
+    /**
+     * Quantity still open on the book.
+     */
+    private int remainingQuantity;
+
+    /**
+     * Quantity that has been filled so far.
+     */
+    private int filledQuantity;
+
+    /**
+     * Creates a new book order.
+     *
+     * @param orderId the order ID
+     * @param side the side of the order
+     * @param price the limit price in ticks, ignored for a market order
+     * @param market whether this is a market order
+     * @param quantity the quantity to trade
+     */
+    public BookOrder(UUID orderId, OrderSide side, long price, boolean market, int quantity) {
+        this.orderId = orderId;
+        this.side = side;
+        this.price = price;
+        this.market = market;
+        this.remainingQuantity = quantity;
+    }
+
+    /**
+     * Returns whether the order has no open quantity left.
+     *
+     * @return true if the order is completely filled
+     */
+    public boolean isFilled() {
+        return remainingQuantity == 0;
+    }
+
+    /**
+     * Records a fill against this order.
+     *
+     * @param quantity the filled quantity
+     */
+    void fill(int quantity) {
+        remainingQuantity -= quantity;
+        filledQuantity += quantity;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A single execution between an incoming (taker) order and a resting (maker) order.
+ */
+@Value
+public class Fill {
+
+    /**
+     * ID of the resting order that provided liquidity.
+     */
+    UUID makerOrderId;
+
+    /**
+     * ID of the incoming order that took liquidity.
+     */
+    UUID takerOrderId;
+
+    /**
+     * Execution price in fixed-point ticks, which is always the maker's limit price.
+     */
+    long price;
+
+    /**
+     * Executed quantity.
+     */
+    int quantity;
+
+    /**
+     * Quantity still open on the maker order after this fill.
+     */
+    int makerRemainingQuantity;
+}
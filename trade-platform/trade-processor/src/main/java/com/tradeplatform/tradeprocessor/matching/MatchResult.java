@@ -0,0 +1,69 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import com.tradeplatform.common.price.FixedPointPrice;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of submitting an order to the matching engine.
+ */
+@Value
+public class MatchResult {
+
+    /**
+     * Fills generated by the order, in execution order.
+     */
+    List<Fill> fills;
+
+    /**
+     * Total quantity filled.
+     */
+    int filledQuantity;
+
+    /**
+     * Quantity left unfilled.
+     */
+    int remainingQuantity;
+
+    /**
+     * Whether the unfilled remainder is resting on the book.
+     */
+    boolean resting;
+
+    /**
+     * Total traded value of all fills in fixed-point ticks.
+     */
+    long notional;
+
+    /**
+     * Whether the order is a stop order waiting for its stop price to be reached.
+     */
+    boolean stopPending;
+
+    /**
+     * Stop orders triggered by the trades of this order, and by the trades of those stops in turn,
+     * in the order they were released to the book.
+     */
+    List<StopActivation> activations;
+
+    /**
+     * Creates the result of a stop order that was parked until its stop price is reached.
+     *
+     * @param quantity the quantity of the order
+     * @return the result
+     */
+    static MatchResult stopPending(int quantity) {
+        return new MatchResult(Collections.emptyList(), 0, quantity, false, 0, true, Collections.emptyList());
+    }
+
+    /**
+     * Returns the volume-weighted average price of all fills.
+     *
+     * @return the average execution price in ticks, or zero if nothing was filled
+     */
+    public long getAveragePrice() {
+        return filledQuantity == 0 ? FixedPointPrice.ZERO : FixedPointPrice.divide(notional, filledQuantity);
+    }
+}
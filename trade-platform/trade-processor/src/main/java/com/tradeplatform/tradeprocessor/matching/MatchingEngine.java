@@ -0,0 +1,127 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import com.tradeplatform.common.dto.OrderSide;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory matching engine holding one price-time-priority order book per symbol.
+ * Books are not synchronized: every symbol is owned by a single execution shard,
+ * which is the only thread that may submit to or cancel from that symbol's book.
+ */
+@Component
+@Slf4j
+public class MatchingEngine {
+
+    private final ConcurrentMap<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    /**
+     * Submits an order to the book for its symbol, creating the book on first use.
+     *
+     * @param orderId the order ID
+     * @param symbol the symbol/ticker
+     * @param side the side of the order
+     * @param limitPrice the limit price in fixed-point ticks, ignored for a market order
+     * @param market whether this is a market order
+     * @param quantity the quantity to trade
+     * @return the result of the submission
+     */
+    public MatchResult submit(UUID orderId, String symbol, OrderSide side, long limitPrice, boolean market, int quantity) {
+        OrderBook book = books.computeIfAbsent(symbol, OrderBook::new);
+        MatchResult result = book.submit(orderId, side, limitPrice, market, quantity);
+        log.debug("Matched order {} on {}: filled={}, remaining={}, resting={}",
+                orderId, symbol, result.getFilledQuantity(), result.getRemainingQuantity(), result.isResting());
+        return result;
+    }
+
+    /**
+     * Submits a stop or stop-limit order to the book for its symbol, creating the book on first use.
+     *
+     * @param orderId the order ID
+     * @param symbol the symbol/ticker
+     * @param side the side of the order
+     * @param stopPrice the stop price in fixed-point ticks
+     * @param limitPrice the limit price in fixed-point ticks once triggered, ignored for a market order
+     * @param market whether the order becomes a market order when triggered
+     * @param quantity the quantity to trade
+     * @return the result of the submission
+     */
+    public MatchResult submitStop(UUID orderId, String symbol, OrderSide side, long stopPrice, long limitPrice,
+                                  boolean market, int quantity) {
+        OrderBook book = books.computeIfAbsent(symbol, OrderBook::new);
+        MatchResult result = book.submitStop(orderId, side, stopPrice, limitPrice, market, quantity);
+        log.debug("Submitted stop order {} on {}: pending={}, filled={}, activations={}",
+                orderId, symbol, result.isStopPending(), result.getFilledQuantity(), result.getActivations().size());
+        return result;
+    }
+
+    /**
+     * Puts a previously resting order back on the book for its symbol without matching it.
+     * Only called while rebuilding books, on startup or on the shard that owns the symbol.
+     *
+     * @param orderId the order ID
+     * @param symbol the symbol/ticker
+     * @param side the side of the order
+     * @param price the limit price in fixed-point ticks
+     * @param remainingQuantity the quantity still open
+     */
+    public void restore(UUID orderId, String symbol, OrderSide side, long price, int remainingQuantity) {
+        books.computeIfAbsent(symbol, OrderBook::new).restore(orderId, side, price, remainingQuantity);
+    }
+
+    /**
+     * Puts a previously pending stop order back in its book's trigger index.
+     * Only called while rebuilding books, on startup or on the shard that owns the symbol.
+     *
+     * @param orderId the order ID
+     * @param symbol the symbol/ticker
+     * @param side the side of the order
+     * @param stopPrice the stop price in fixed-point ticks
+     * @param limitPrice the limit price in fixed-point ticks once triggered, ignored for a market order
+     * @param market whether the order becomes a market order when triggered
+     * @param quantity the quantity to trade
+     */
+    public void restoreStop(UUID orderId, String symbol, OrderSide side, long stopPrice, long limitPrice,
+                            boolean market, int quantity) {
+        books.computeIfAbsent(symbol, OrderBook::new).restoreStop(orderId, side, stopPrice, limitPrice, market, quantity);
+    }
+
+    /**
+     * Discards the book for a symbol, before it is rebuilt. Must run on the shard that owns the symbol.
+     *
+     * @param symbol the symbol/ticker
+     */
+    public void reset(String symbol) {
+        books.remove(symbol);
+    }
+
+    /**
+     * Cancels a resting order or a pending stop order.
+     *
+     * @param symbol the symbol/ticker
+     * @param orderId the order ID
+     * @return true if the order was resting or pending and has been removed
+     */
+    public boolean cancel(String symbol, UUID orderId) {
+        OrderBook book = books.get(symbol);
+        if (book == null) {
+            return false;
+        }
+        return book.cancel(orderId);
+    }
+
+    /**
+     * Returns the order book for a symbol.
+     *
+     * @param symbol the symbol/ticker
+     * @return the order book, or empty if no order has been submitted for the symbol
+     */
+    public Optional<OrderBook> getBook(String symbol) {
+        return Optional.ofNullable(books.get(symbol));
+    }
+}
@@ -0,0 +1,326 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.price.FixedPointPrice;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Limit order book for a single symbol with price-time priority.
+ * Bids are kept highest price first and asks lowest price first; each price level is a FIFO queue.
+ * Stop orders wait in a trigger index until a trade reaches their stop price, and are then matched
+ * like any incoming order, possibly triggering further stops.
+ * This class is not thread-safe; callers must serialize access per book.
+ */
+public class OrderBook {
+
+    /**
+     * Symbol/ticker traded on this book.
+     */
+    @Getter
+    private final String symbol;
+
+    /**
+     * Bid levels, best (highest) price first.
+     */
+    private final NavigableMap<Long, PriceLevel> bids = new TreeMap<>(Comparator.reverseOrder());
+
+    /**
+     * Ask levels, best (lowest) price first.
+     */
+    private final NavigableMap<Long, PriceLevel> asks = new TreeMap<>();
+
+    /**
+     * Index of resting orders by ID, used for cancellation.
+     */
+    private final Map<UUID, BookOrder> restingOrders = new HashMap<>();
+
+    /**
+     * Stop orders waiting for their stop price.
+     */
+    private final StopTriggerIndex stops = new StopTriggerIndex();
+
+    /**
+     * Price of the most recent execution on this book in ticks, or zero before the first trade.
+     */
+    @Getter
+    private long lastTradePrice;
+
+    /**
+     * Highest and lowest trade prices since the trigger index was last checked.
+     */
+    private long sweepHigh = Long.MIN_VALUE;
+    private long sweepLow = Long.MAX_VALUE;
+
+    public OrderBook(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Submits an order to the book. The order is matched against the opposite side while prices cross;
+     * any unfilled remainder of a limit order rests on the book, while the remainder of a market order is dropped.
+     * Stop orders triggered by the resulting trades are matched afterwards and reported as activations.
+     *
+     * @param orderId the order ID
+     * @param side the side of the order
+     * @param limitPrice the limit price in ticks, ignored for a market order
+     * @param market whether this is a market order
+     * @param quantity the quantity to trade
+     * @return the result of the submission
+     */
+    public MatchResult submit(UUID orderId, OrderSide side, long limitPrice, boolean market, int quantity) {
+        MatchResult result = execute(orderId, side, limitPrice, market, quantity);
+        List<StopActivation> activations = releaseStops();
+        if (activations.isEmpty()) {
+            return result;
+        }
+        return new MatchResult(result.getFills(), result.getFilledQuantity(), result.getRemainingQuantity(),
+                result.isResting(), result.getNotional(), false, activations);
+    }
+
+    /**
+     * Submits a stop or stop-limit order. If the last trade price has already reached the stop price the
+     * order is submitted immediately; otherwise it waits in the trigger index.
+     *
+     * @param orderId the order ID
+     * @param side the side of the order
+     * @param stopPrice the stop price in ticks
+     * @param limitPrice the limit price in ticks once triggered, ignored for a market order
+     * @param market whether the order becomes a market order when triggered
+     * @param quantity the quantity to trade
+     * @return the result of the submission, {@link MatchResult#isStopPending() stop pending} if the order waits
+     */
+    public MatchResult submitStop(UUID orderId, OrderSide side, long stopPrice, long limitPrice, boolean market,
+                                  int quantity) {
+        if (lastTradePrice != 0 && StopTriggerIndex.isTriggered(side, stopPrice, lastTradePrice)) {
+            return submit(orderId, side, limitPrice, market, quantity);
+        }
+        stops.add(new StopOrder(orderId, side, stopPrice, limitPrice, market, quantity));
+        return MatchResult.stopPending(quantity);
+    }
+
+    /**
+     * Puts a previously pending stop order back in the trigger index, used when rebuilding books on startup.
+     *
+     * @param orderId the order ID
+     * @param side the side of the order
+     * @param stopPrice the stop price in ticks
+     * @param limitPrice the limit price in ticks once triggered, ignored for a market order
+     * @param market whether the order becomes a market order when triggered
+     * @param quantity the quantity to trade
+     */
+    public void restoreStop(UUID orderId, OrderSide side, long stopPrice, long limitPrice, boolean market,
+                            int quantity) {
+        stops.add(new StopOrder(orderId, side, stopPrice, limitPrice, market, quantity));
+    }
+
+    /**
+     * Puts a previously resting order back on the book without matching it, used when rebuilding
+     * books on startup. Orders must be restored in their original time priority.
+     *
+     * @param orderId the order ID
+     * @param side the side of the order
+     * @param price the limit price in ticks
+     * @param remainingQuantity the quantity still open
+     */
+    public void restore(UUID orderId, OrderSide side, long price, int remainingQuantity) {
+        rest(new BookOrder(orderId, side, price, false, remainingQuantity));
+    }
+
+    /**
+     * Removes a resting order from the book, or a pending stop order from the trigger index.
+     *
+     * @param orderId the order ID
+     * @return true if the order was resting or pending on this book
+     */
+    public boolean cancel(UUID orderId) {
+        BookOrder order = restingOrders.remove(orderId);
+        if (order == null) {
+            return stops.remove(orderId) != null;
+        }
+        NavigableMap<Long, PriceLevel> levels = sideOf(order.getSide());
+        PriceLevel level = levels.get(order.getPrice());
+        if (level != null) {
+            level.remove(order);
+            if (level.isEmpty()) {
+                levels.remove(order.getPrice());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the best (highest) bid price.
+     *
+     * @return the best bid in ticks, or null if there are no bids
+     */
+    public Long getBestBid() {
+        return bids.isEmpty() ? null : bids.firstKey();
+    }
+
+    /**
+     * Returns the best (lowest) ask price.
+     *
+     * @return the best ask in ticks, or null if there are no asks
+     */
+    public Long getBestAsk() {
+        return asks.isEmpty() ? null : asks.firstKey();
+    }
+
+    /**
+     * Returns the number of orders resting on the book.
+     *
+     * @return the resting order count
+     */
+    public int getRestingOrderCount() {
+        return restingOrders.size();
+    }
+
+    /**
+     * Returns the number of stop orders waiting for their stop price.
+     *
+     * @return the pending stop order count
+     */
+    public int getPendingStopCount() {
+        return stops.size();
+    }
+
+    /**
+     * Matches an order and rests any unfilled remainder of a limit order.
+     *
+     * @param orderId the order ID
+     * @param side the side of the order
+     * @param limitPrice the limit price in ticks, ignored for a market order
+     * @param market whether this is a market order
+     * @param quantity the quantity to trade
+     * @return the result of the order, without activations
+     */
+    private MatchResult execute(UUID orderId, OrderSide side, long limitPrice, boolean market, int quantity) {
+        BookOrder taker = new BookOrder(orderId, side, limitPrice, market, quantity);
+        List<Fill> fills = new ArrayList<>();
+        long notional = match(taker, fills);
+
+        boolean resting = false;
+        if (!taker.isFilled() && !taker.isMarket()) {
+            rest(taker);
+            resting = true;
+        }
+        return new MatchResult(fills, taker.getFilledQuantity(), taker.getRemainingQuantity(), resting, notional,
+                false, Collections.emptyList());
+    }
+
+    /**
+     * Releases the stops triggered by the trades since the last check and matches them, repeating while the
+     * released orders trade and trigger further stops. Each stop is released at most once, so this terminates.
+     *
+     * @return the activations in release order
+     */
+    private List<StopActivation> releaseStops() {
+        if (sweepHigh == Long.MIN_VALUE || stops.size() == 0) {
+            resetSweep();
+            return Collections.emptyList();
+        }
+
+        List<StopActivation> activations = new ArrayList<>();
+        List<StopOrder> released = new ArrayList<>();
+        while (sweepHigh != Long.MIN_VALUE && stops.size() > 0) {
+            long high = sweepHigh;
+            long low = sweepLow;
+            resetSweep();
+            stops.release(high, low, released);
+            for (StopOrder stop : released) {
+                MatchResult result = execute(stop.getOrderId(), stop.getSide(), stop.getLimitPrice(),
+                        stop.isMarket(), stop.getQuantity());
+                activations.add(new StopActivation(stop.getOrderId(),
+                        stop.getSide() == OrderSide.BUY ? high : low, result));
+            }
+            released.clear();
+        }
+        resetSweep();
+        return activations;
+    }
+
+    private void resetSweep() {
+        sweepHigh = Long.MIN_VALUE;
+        sweepLow = Long.MAX_VALUE;
+    }
+
+    /**
+     * Matches an incoming order against the opposite side of the book.
+     *
+     * @param taker the incoming order
+     * @param fills the list to which generated fills are appended
+     * @return the traded notional in ticks
+     */
+    private long match(BookOrder taker, List<Fill> fills) {
+        long notional = 0;
+        NavigableMap<Long, PriceLevel> opposite = sideOf(taker.getSide().opposite());
+
+        while (!taker.isFilled() && !opposite.isEmpty()) {
+            PriceLevel level = opposite.firstEntry().getValue();
+            if (!crosses(taker, level.getPrice())) {
+                break;
+            }
+
+            while (!taker.isFilled() && !level.isEmpty()) {
+                BookOrder maker = level.peek();
+                int quantity = Math.min(taker.getRemainingQuantity(), maker.getRemainingQuantity());
+                level.fillHead(quantity);
+                taker.fill(quantity);
+                if (maker.isFilled()) {
+                    restingOrders.remove(maker.getOrderId());
+                }
+                fills.add(new Fill(maker.getOrderId(), taker.getOrderId(), level.getPrice(),
+                        quantity, maker.getRemainingQuantity()));
+                notional += FixedPointPrice.multiply(level.getPrice(), quantity);
+                lastTradePrice = level.getPrice();
+                sweepHigh = Math.max(sweepHigh, lastTradePrice);
+                sweepLow = Math.min(sweepLow, lastTradePrice);
+            }
+
+            if (level.isEmpty()) {
+                opposite.pollFirstEntry();
+            }
+        }
+        return notional;
+    }
+
+    /**
+     * Adds an order to its side of the book at the back of its price level.
+     *
+     * @param order the order to rest
+     */
+    private void rest(BookOrder order) {
+        sideOf(order.getSide())
+                .computeIfAbsent(order.getPrice(), PriceLevel::new)
+                .add(order);
+        restingOrders.put(order.getOrderId(), order);
+    }
+
+    /**
+     * Checks whether an incoming order is marketable against a resting price.
+     *
+     * @param taker the incoming order
+     * @param restingPrice the price of the best opposite level in ticks
+     * @return true if the order can trade at that price
+     */
+    private boolean crosses(BookOrder taker, long restingPrice) {
+        if (taker.isMarket()) {
+            return true;
+        }
+        return taker.getSide() == OrderSide.BUY ? restingPrice <= taker.getPrice() : restingPrice >= taker.getPrice();
+    }
+
+    private NavigableMap<Long, PriceLevel> sideOf(OrderSide side) {
+        return side == OrderSide.BUY ? bids : asks;
+    }
+}
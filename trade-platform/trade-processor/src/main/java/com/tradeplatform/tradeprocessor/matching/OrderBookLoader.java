@@ -0,0 +1,137 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.price.FixedPointPrice;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.store.TradeOrderStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rebuilds the {@link MatchingEngine}'s books from the {@link TradeOrderStore} on startup, whichever store is
+ * in use: resting orders go back on their book and stop orders that have not been triggered back in its
+ * trigger index, in the order they were accepted in. Orders left PROCESSING by a crash are not waiting on a
+ * book and are left for stuck order recovery.
+ * <p>
+ * Books are changed as orders execute, before the transaction recording the outcome commits. When such a
+ * transaction rolls back, the books it changed are marked stale and rebuilt from the store the next time
+ * they are about to change, in the next transaction, so no execution is ever matched against liquidity
+ * the store does not hold.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBookLoader {
+
+    private final TradeOrderStore tradeOrderStore;
+    private final MatchingEngine matchingEngine;
+    private final Set<String> staleSymbols = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Puts every waiting order in the store back on the books, before any execution shard is running.
+     */
+    @PostConstruct
+    public void load() {
+        int restored = 0;
+        for (TradeOrder order : tradeOrderStore.findWaiting()) {
+            if (restore(order)) {
+                restored++;
+            }
+        }
+        log.info("Rebuilt order books with {} waiting orders", restored);
+    }
+
+    /**
+     * Called before the current transaction changes the book of a symbol. Rebuilds the book first if a
+     * transaction that changed it has rolled back, and marks it stale if this one does not commit.
+     * Must run on the execution shard that owns the symbol.
+     *
+     * @param symbol the symbol/ticker
+     */
+    public void beforeChange(String symbol) {
+        if (!staleSymbols.isEmpty() && staleSymbols.remove(symbol)) {
+            reload(symbol);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> changed = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<String> symbols = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, symbols);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderBookLoader.this);
+                    if (status != STATUS_COMMITTED) {
+                        // The store cannot be read from here, so the books are rebuilt before their next use
+                        staleSymbols.addAll(symbols);
+                        log.warn("Transaction rolled back; order books for {} will be rebuilt", symbols);
+                    }
+                }
+            });
+            changed = symbols;
+        }
+        changed.add(symbol);
+    }
+
+    /**
+     * Replaces the book of a symbol with one rebuilt from the store.
+     *
+     * @param symbol the symbol/ticker
+     */
+    private void reload(String symbol) {
+        matchingEngine.reset(symbol);
+        int restored = 0;
+        for (TradeOrder order : tradeOrderStore.findWaiting(symbol)) {
+            if (restore(order)) {
+                restored++;
+            }
+        }
+        log.info("Rebuilt order book for {} with {} waiting orders", symbol, restored);
+    }
+
+    /**
+     * Puts one waiting order back on its book.
+     *
+     * @param order the order
+     * @return false if the order cannot wait on a book and was skipped
+     */
+    private boolean restore(TradeOrder order) {
+        OrderSide side = OrderSide.resolve(order.getOrderType(), order.getSide());
+        Integer remaining = order.getRemainingQuantity();
+        if (side == null || remaining == null || remaining <= 0) {
+            return false;
+        }
+        OrderType type = order.getOrderType();
+        boolean stop = type == OrderType.STOP || type == OrderType.STOP_LIMIT;
+        if (stop && order.getTriggeredAt() == null) {
+            if (order.getStopPrice() == null) {
+                return false;
+            }
+            // Same rule as execution: a STOP order, or one without a limit price, trades at market once triggered
+            boolean market = type == OrderType.STOP || order.getPrice() == null;
+            matchingEngine.restoreStop(order.getOrderId(), order.getSymbol(), side,
+                    FixedPointPrice.fromBigDecimal(order.getStopPrice()),
+                    market ? FixedPointPrice.ZERO : FixedPointPrice.fromBigDecimal(order.getPrice()),
+                    market, remaining);
+            return true;
+        }
+        if (order.getPrice() == null) {
+            return false;
+        }
+        matchingEngine.restore(order.getOrderId(), order.getSymbol(), side,
+                FixedPointPrice.fromBigDecimal(order.getPrice()), remaining);
+        return true;
+    }
+}
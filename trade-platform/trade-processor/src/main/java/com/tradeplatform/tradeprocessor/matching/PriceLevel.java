@@ -0,0 +1,97 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+
+/**
+ * A single price level of an order book holding resting orders in time priority (FIFO).
+ */
+class PriceLevel {
+
+    /**
+     * Price of this level in fixed-point ticks.
+     */
+    @Getter
+    private final long price;
+
+    /**
+     * Resting orders at this price, oldest first.
+     */
+    private final ArrayDeque<BookOrder> orders = new ArrayDeque<>();
+
+    /**
+     * Total open quantity at this level.
+     */
+    @Getter
+    private long totalQuantity;
+
+    PriceLevel(long price) {
+        this.price = price;
+    }
+
+    /**
+     * Appends an order to the back of the queue.
+     *
+     * @param order the order to add
+     */
+    void add(BookOrder order) {
+        orders.addLast(order);
+        totalQuantity += order.getRemainingQuantity();
+    }
+
+    /**
+     * Returns the order at the front of the queue without removing it.
+     *
+     * @return the oldest order, or null if the level is empty
+     */
+    BookOrder peek() {
+        return orders.peekFirst();
+    }
+
+    /**
+     * Fills the order at the front of the queue, removing it once it is completely filled.
+     *
+     * @param quantity the quantity to fill
+     */
+    void fillHead(int quantity) {
+        BookOrder head = orders.peekFirst();
+        head.fill(quantity);
+        totalQuantity -= quantity;
+        if (head.isFilled()) {
+            orders.pollFirst();
+        }
+    }
+
+    /**
+     * Removes a specific order from this level.
+     *
+     * @param order the order to remove
+     * @return true if the order was found and removed
+     */
+    boolean remove(BookOrder order) {
+        if (orders.remove(order)) {
+            totalQuantity -= order.getRemainingQuantity();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether this level has no resting orders.
+     *
+     * @return true if the level is empty
+     */
+    boolean isEmpty() {
+        return orders.isEmpty();
+    }
+
+    /**
+     * Returns the number of resting orders at this level.
+     *
+     * @return the order count
+     */
+    int size() {
+        return orders.size();
+    }
+}
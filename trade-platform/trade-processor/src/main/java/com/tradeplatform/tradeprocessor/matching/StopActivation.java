@@ -0,0 +1,28 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A stop order released by a trade and the outcome of submitting it to the book.
+ */
+@Value
+public class StopActivation {
+
+    /**
+     * ID of the triggered stop order.
+     */
+    UUID orderId;
+
+    /**
+     * Trade price in fixed-point ticks that triggered the order.
+     */
+    long triggerPrice;
+
+    /**
+     * Result of submitting the triggered order; its own activations are always empty, since the
+     * cascade is reported flat on the result of the order that started it.
+     */
+    MatchResult result;
+}
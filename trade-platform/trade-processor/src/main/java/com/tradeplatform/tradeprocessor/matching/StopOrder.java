@@ -0,0 +1,52 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import com.tradeplatform.common.dto.OrderSide;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * A stop or stop-limit order waiting in a trigger index for the last trade price to reach its stop price.
+ */
+@Getter
+class StopOrder {
+
+    /**
+     * Unique identifier of the order.
+     */
+    private final UUID orderId;
+
+    /**
+     * Side of the order.
+     */
+    private final OrderSide side;
+
+    /**
+     * Stop price in fixed-point ticks.
+     */
+    private final long stopPrice;
+
+    /**
+     * Limit price in fixed-point ticks once triggered; meaningless for a stop (market) order.
+     */
+    private final long limitPrice;
+
+    /**
+     * Whether the order becomes a market order when triggered.
+     */
+    private final boolean market;
+
+    /**
+     * Quantity to trade once triggered.
+     */
+    private final int quantity;
+
+    StopOrder(UUID orderId, OrderSide side, long stopPrice, long limitPrice, boolean market, int quantity) {
+        this.orderId = orderId;
+        this.side = side;
+        this.stopPrice = stopPrice;
+        this.limitPrice = limitPrice;
+        this.market = market;
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,197 @@
+package com.tradeplatform.tradeprocessor.matching;
+
+import com.tradeplatform.common.dto.OrderSide;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Index of pending stop orders for one order book, releasing them when the last trade price reaches
+ * their stop price. A buy stop triggers once a trade prints at or above its stop price, a sell stop once
+ * a trade prints at or below it.
+ * <p>
+ * Each side keeps its distinct stop prices in a sorted primitive array with a FIFO queue per price,
+ * ordered so that the stops nearest to triggering are at the tail: a release is a binary search followed
+ * by truncating the tail, O(log n + k) for k released orders. New prices are usually inserted near the
+ * tail as well, since stops are placed around the market, which keeps array shifts short.
+ * This class is not thread-safe; it is owned by its order book.
+ */
+class StopTriggerIndex {
+
+    private final Side buyStops = new Side(true);
+    private final Side sellStops = new Side(false);
+
+    /**
+     * Pending stops by order ID, used for cancellation.
+     */
+    private final Map<UUID, StopOrder> orders = new HashMap<>();
+
+    /**
+     * Returns whether a stop price has been reached by a trade price.
+     *
+     * @param side the side of the stop order
+     * @param stopPrice the stop price in ticks
+     * @param tradePrice the trade price in ticks
+     * @return true if the stop is triggered
+     */
+    static boolean isTriggered(OrderSide side, long stopPrice, long tradePrice) {
+        return side == OrderSide.BUY ? tradePrice >= stopPrice : tradePrice <= stopPrice;
+    }
+
+    /**
+     * Adds a pending stop order behind any other stops at the same price.
+     *
+     * @param order the stop order
+     */
+    void add(StopOrder order) {
+        sideOf(order.getSide()).add(order);
+        orders.put(order.getOrderId(), order);
+    }
+
+    /**
+     * Removes a pending stop order.
+     *
+     * @param orderId the order ID
+     * @return the removed order, or null if it was not pending
+     */
+    StopOrder remove(UUID orderId) {
+        StopOrder order = orders.remove(orderId);
+        if (order != null) {
+            sideOf(order.getSide()).remove(order);
+        }
+        return order;
+    }
+
+    /**
+     * Removes and returns every stop triggered by trades in a price range: buy stops at or below the
+     * highest price and sell stops at or above the lowest price, nearest stop price first.
+     *
+     * @param highPrice the highest trade price in ticks
+     * @param lowPrice the lowest trade price in ticks
+     * @param released the list to which the triggered orders are appended
+     */
+    void release(long highPrice, long lowPrice, List<StopOrder> released) {
+        int from = released.size();
+        buyStops.release(-highPrice, released);
+        sellStops.release(lowPrice, released);
+        for (int i = from; i < released.size(); i++) {
+            orders.remove(released.get(i).getOrderId());
+        }
+    }
+
+    /**
+     * Returns the number of pending stop orders.
+     *
+     * @return the pending stop count
+     */
+    int size() {
+        return orders.size();
+    }
+
+    private Side sideOf(OrderSide side) {
+        return side == OrderSide.BUY ? buyStops : sellStops;
+    }
+
+    /**
+     * Pending stops of one side. Prices are stored as keys in ascending order with the stops nearest to
+     * triggering at the tail: sell stops trigger from the highest price down, so their key is the price;
+     * buy stops trigger from the lowest price up, so their key is the negated price. A stop is then
+     * triggered exactly when its key is at or above a threshold.
+     */
+    private static final class Side {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final boolean buy;
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Object[] queues = new Object[INITIAL_CAPACITY];
+        private int size;
+
+        Side(boolean buy) {
+            this.buy = buy;
+        }
+
+        void add(StopOrder order) {
+            long key = keyOf(order.getStopPrice());
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index < 0) {
+                index = -index - 1;
+                insertLevel(index, key);
+            }
+            queueAt(index).addLast(order);
+        }
+
+        void remove(StopOrder order) {
+            int index = Arrays.binarySearch(keys, 0, size, keyOf(order.getStopPrice()));
+            if (index < 0) {
+                return;
+            }
+            ArrayDeque<StopOrder> queue = queueAt(index);
+            queue.remove(order);
+            if (queue.isEmpty()) {
+                removeLevel(index);
+            }
+        }
+
+        /**
+         * Releases every level whose key is at or above the threshold, nearest level first.
+         *
+         * @param threshold the key threshold
+         * @param released the list to which released orders are appended
+         */
+        void release(long threshold, List<StopOrder> released) {
+            int from = lowerBound(threshold);
+            for (int i = size - 1; i >= from; i--) {
+                released.addAll(queueAt(i));
+                queues[i] = null;
+            }
+            size = from;
+        }
+
+        private long keyOf(long stopPrice) {
+            return buy ? -stopPrice : stopPrice;
+        }
+
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void insertLevel(int index, long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                queues = Arrays.copyOf(queues, size * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(queues, index, queues, index + 1, size - index);
+            keys[index] = key;
+            queues[index] = new ArrayDeque<StopOrder>();
+            size++;
+        }
+
+        private void removeLevel(int index) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(queues, index + 1, queues, index, size - index - 1);
+            size--;
+            queues[size] = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private ArrayDeque<StopOrder> queueAt(int index) {
+            return (ArrayDeque<StopOrder>) queues[index];
+        }
+    }
+}
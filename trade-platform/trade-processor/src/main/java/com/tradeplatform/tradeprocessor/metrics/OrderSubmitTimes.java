@@ -0,0 +1,81 @@
+package com.tradeplatform.tradeprocessor.metrics;
+
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.common.latency.LatencyHeaders;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Carries the submission times of the orders an execution shard is processing to the execution reports
+ * their fills produce, so the Portfolio Service can measure latency from submission.
+ * <p>
+ * State is kept per thread: the shard records the submission time of every order it is about to process,
+ * execution marks the order it is executing, and every fill reported meanwhile, including the fills of the
+ * resting orders it trades against, is stamped with that order's submission time.
+ */
+@Component
+public class OrderSubmitTimes {
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    /**
+     * Reads the submission time of a consumed order.
+     *
+     * @param record the consumed record
+     * @return nanoseconds since the epoch, or {@link LatencyHeaders#UNKNOWN} if the record is not stamped
+     */
+    public static long submittedAt(ConsumerRecord<String, TradeOrderDTO> record) {
+        Header header = record.headers().lastHeader(LatencyHeaders.SUBMITTED_AT);
+        return LatencyHeaders.decode(header == null ? null : header.value());
+    }
+
+    /**
+     * Records the submission time of an order the current thread is about to process.
+     *
+     * @param record the consumed record
+     */
+    public void track(ConsumerRecord<String, TradeOrderDTO> record) {
+        long submittedAt = submittedAt(record);
+        if (submittedAt != LatencyHeaders.UNKNOWN) {
+            state.get().submitted.put(record.value().getOrderId(), submittedAt);
+        }
+    }
+
+    /**
+     * Marks the order the current thread starts executing.
+     *
+     * @param orderId the ID of the order
+     */
+    public void executing(UUID orderId) {
+        State current = state.get();
+        current.executing = current.submitted.getOrDefault(orderId, LatencyHeaders.UNKNOWN);
+    }
+
+    /**
+     * Returns the submission time of the order the current thread is executing.
+     *
+     * @return nanoseconds since the epoch, or {@link LatencyHeaders#UNKNOWN} if it is not known
+     */
+    public long current() {
+        return state.get().executing;
+    }
+
+    /**
+     * Forgets the orders the current thread has finished processing.
+     */
+    public void clear() {
+        State current = state.get();
+        current.submitted.clear();
+        current.executing = LatencyHeaders.UNKNOWN;
+    }
+
+    private static final class State {
+        private final Map<UUID, Long> submitted = new HashMap<>();
+        private long executing = LatencyHeaders.UNKNOWN;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tradeplatform.tradeprocessor.metrics;
+
+/**
+ * Stages an order passes through in the trade processor, each timed by {@link OrderPipelineMetrics}.
+ */
+public enum PipelineStage {
+
+    /**
+     * Decoding the Kafka record into an order, on the listener thread.
+     */
+    DESERIALIZE,
+
+    /**
+     * Waiting in the ring buffer of the execution shard that owns the order's symbol.
+     */
+    QUEUE,
+
+    /**
+     * Checking the order before it reaches the book: expiry and the pre-trade position check.
+     */
+    VALIDATE,
+
+    /**
+     * Recording the order as PROCESSING.
+     */
+    PERSIST_PROCESSING,
+
+    /**
+     * Matching the order against the book, or simulating its fill.
+     */
+    EXECUTE,
+
+    /**
+     * Saving the outcome of execution and committing the transaction.
+     */
+    PERSIST_RESULT,
+
+    /**
+     * Handing the committed changes to the execution report producer, the lookup cache and the order
+     * status stream.
+     */
+    PUBLISH;
+
+    /**
+     * Returns the value of the {@code stage} tag.
+     *
+     * @return the lower-case stage name
+     */
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,224 @@
+package com.tradeplatform.tradeprocessor.recovery;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.execution.ShardedOrderExecutor;
+import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import com.tradeplatform.tradeprocessor.service.TradeOrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovers orders left in PROCESSING, typically by a crash between recording the PROCESSING state and the
+ * outcome of execution.
+ * <p>
+ * Every sweep pages through the orders whose last processing attempt is older than
+ * {@code trade.recovery.stuck-after-ms} with keyset pagination, so it never loads them all at once. Each
+ * page is split by owning shard and re-driven on the execution shards, which act as the parallel workers
+ * and keep each order book single-writer. At most {@code trade.recovery.max-in-flight} batches are queued
+ * at a time and dispatch is paced to {@code trade.recovery.max-orders-per-second}, so recovery cannot crowd
+ * live orders out of the ring buffers.
+ * <p>
+ * Sweeps run on a dedicated thread, since pacing blocks and would otherwise delay other scheduled tasks.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.recovery.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StuckOrderRecoveryService implements SmartLifecycle {
+
+    private final TradeOrderRepository tradeOrderRepository;
+    private final TradeOrderService tradeOrderService;
+    private final ShardedOrderExecutor shardedOrderExecutor;
+    private final Counter recoveredCounter;
+    private final Counter failedCounter;
+    private final Timer sweepTimer;
+
+    @Value("${trade.recovery.interval-ms:60000}")
+    private long intervalMs;
+
+    @Value("${trade.recovery.stuck-after-ms:300000}")
+    private long stuckAfterMs;
+
+    @Value("${trade.recovery.page-size:200}")
+    private int pageSize;
+
+    @Value("${trade.recovery.max-in-flight:4}")
+    private int maxInFlight;
+
+    @Value("${trade.recovery.max-orders-per-second:200}")
+    private int maxOrdersPerSecond;
+
+    @Value("${trade.recovery.max-attempts:3}")
+    private int maxAttempts;
+
+    private ScheduledExecutorService scheduler;
+    private Semaphore inFlight;
+    private volatile boolean running;
+
+    /**
+     * Creates the recovery service and registers its metrics.
+     *
+     * @param tradeOrderRepository the repository that stuck orders are read from
+     * @param tradeOrderService the service that re-drives stuck orders
+     * @param shardedOrderExecutor the executor whose shards run the recovery batches
+     * @param meterRegistry the registry for the recovery metrics
+     */
+    public StuckOrderRecoveryService(TradeOrderRepository tradeOrderRepository, TradeOrderService tradeOrderService,
+                                     ShardedOrderExecutor shardedOrderExecutor, MeterRegistry meterRegistry) {
+        this.tradeOrderRepository = tradeOrderRepository;
+        this.tradeOrderService = tradeOrderService;
+        this.shardedOrderExecutor = shardedOrderExecutor;
+        this.recoveredCounter = Counter.builder("trade.recovery.orders")
+                .description("Stuck orders re-driven by recovery")
+                .tag("outcome", "recovered")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("trade.recovery.orders")
+                .description("Stuck orders re-driven by recovery")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("trade.recovery.sweep.duration")
+                .description("Time taken by a stuck order recovery sweep, including its batches")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs one recovery sweep over every order stuck at the time the sweep starts, and waits for the
+     * dispatched batches to complete.
+     *
+     * @return the number of stuck orders dispatched
+     * @throws InterruptedException if the sweep is interrupted while paced or waiting for batches
+     */
+    public int sweep() throws InterruptedException {
+        LocalDateTime cutoffTime = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(stuckAfterMs));
+        long started = System.nanoTime();
+        long nanosPerOrder = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxOrdersPerSecond);
+        long nextDispatch = started;
+        UUID afterId = new UUID(0L, 0L);
+        int dispatched = 0;
+
+        List<TradeOrder> page;
+        do {
+            page = tradeOrderRepository.findStuckOrders(OrderStatus.PROCESSING, cutoffTime, afterId, Limit.of(pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getOrderId();
+
+            List<List<UUID>> byShard = new ArrayList<>(shardedOrderExecutor.getShardCount());
+            for (int i = 0; i < shardedOrderExecutor.getShardCount(); i++) {
+                byShard.add(new ArrayList<>());
+            }
+            for (TradeOrder order : page) {
+                byShard.get(shardedOrderExecutor.shardIndex(order.getSymbol())).add(order.getOrderId());
+            }
+
+            for (int shard = 0; shard < byShard.size(); shard++) {
+                List<UUID> orderIds = byShard.get(shard);
+                if (orderIds.isEmpty()) {
+                    continue;
+                }
+                long wait = nextDispatch - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                nextDispatch = Math.max(nextDispatch, System.nanoTime()) + orderIds.size() * nanosPerOrder;
+                inFlight.acquire();
+                dispatch(shard, orderIds, cutoffTime);
+                dispatched += orderIds.size();
+            }
+        } while (page.size() == pageSize && running);
+
+        // Wait for the last batches so the sweep duration covers the work done
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        sweepTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (dispatched > 0) {
+            log.info("Stuck order recovery sweep re-drove {} orders in {} ms", dispatched,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+        return dispatched;
+    }
+
+    private void dispatch(int shard, List<UUID> orderIds, LocalDateTime cutoffTime) {
+        shardedOrderExecutor.executeOnShard(shard, () -> {
+            try {
+                List<TradeOrderDTO> recovered = tradeOrderService.recoverOrders(orderIds, cutoffTime, maxAttempts);
+                long failed = recovered.stream().filter(order -> order.getStatus() == OrderStatus.FAILED).count();
+                recoveredCounter.increment(recovered.size() - failed);
+                failedCounter.increment(failed);
+            } catch (Exception e) {
+                log.error("Failed to recover {} stuck orders", orderIds.size(), e);
+                failedCounter.increment(orderIds.size());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void runSweep() {
+        if (!shardedOrderExecutor.isRunning()) {
+            return;
+        }
+        try {
+            sweep();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Stuck order recovery sweep failed", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        inFlight = new Semaphore(maxInFlight);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stuck-order-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSweep, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Started stuck order recovery every {} ms for orders processing longer than {} ms",
+                intervalMs, stuckAfterMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts after and stops before the execution shards, so batches are never dispatched to a stopped shard.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 150;
+    }
+}
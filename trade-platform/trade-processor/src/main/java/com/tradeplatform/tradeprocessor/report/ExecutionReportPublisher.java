@@ -0,0 +1,86 @@
+package com.tradeplatform.tradeprocessor.report;
+
+import com.tradeplatform.common.dto.ExecutionReportDTO;
+import com.tradeplatform.common.latency.LatencyHeaders;
+import com.tradeplatform.tradeprocessor.metrics.OrderSubmitTimes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes an execution report for every fill to the executions topic.
+ * Reports are keyed by user ID, so all fills of a user are consumed in order by the same portfolio consumer.
+ * Reports produced inside a transaction are held back until it commits, so a fill that is rolled back
+ * is never reported.
+ * <p>
+ * Each report carries the submission time of the order whose execution produced the fill, when known, in the
+ * {@link LatencyHeaders#SUBMITTED_AT} header, and the time it was sent in {@link LatencyHeaders#PUBLISHED_AT}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionReportPublisher {
+
+    private final KafkaTemplate<String, ExecutionReportDTO> executionReportKafkaTemplate;
+    private final OrderSubmitTimes orderSubmitTimes;
+
+    @Value("${spring.kafka.topic.executions:executions}")
+    private String executionsTopic;
+
+    /**
+     * Publishes a report, after the current transaction commits if there is one.
+     *
+     * @param report the execution report
+     */
+    public void publish(ExecutionReportDTO report) {
+        ProducerRecord<String, ExecutionReportDTO> record =
+                new ProducerRecord<>(executionsTopic, report.getUserId(), report);
+        long submittedAt = orderSubmitTimes.current();
+        if (submittedAt != LatencyHeaders.UNKNOWN) {
+            record.headers().add(LatencyHeaders.SUBMITTED_AT, LatencyHeaders.encode(submittedAt));
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(record);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<ProducerRecord<String, ExecutionReportDTO>> pending =
+                (List<ProducerRecord<String, ExecutionReportDTO>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<ProducerRecord<String, ExecutionReportDTO>> reports = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, reports);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reports.forEach(ExecutionReportPublisher.this::send);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ExecutionReportPublisher.this);
+                }
+            });
+            pending = reports;
+        }
+        pending.add(record);
+    }
+
+    private void send(ProducerRecord<String, ExecutionReportDTO> record) {
+        record.headers().add(LatencyHeaders.PUBLISHED_AT, LatencyHeaders.encode(LatencyHeaders.now()));
+        executionReportKafkaTemplate.send(record)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Failed to publish execution report for order {}", record.value().getOrderId(), e);
+                    }
+                });
+    }
+}
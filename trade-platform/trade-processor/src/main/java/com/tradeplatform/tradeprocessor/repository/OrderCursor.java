@@ -0,0 +1,61 @@
+package com.tradeplatform.tradeprocessor.repository;
+
+import com.tradeplatform.common.exception.ValidationException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Position in an order listing sorted newest first, used for keyset pagination: the next page starts
+ * with the orders created before {@code createdAt}, or created at the same time with a lower ID.
+ * Clients receive it as an opaque URL-safe token.
+ */
+@Value
+public class OrderCursor {
+
+    /**
+     * Creation time of the last order on the previous page.
+     */
+    LocalDateTime createdAt;
+
+    /**
+     * ID of the last order on the previous page, breaking ties between orders created at the same time.
+     */
+    UUID orderId;
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        String value = createdAt + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws ValidationException if the token is not a valid cursor
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            return new OrderCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor", e, Map.of("after", "Not a cursor returned by this API"));
+        }
+    }
+}
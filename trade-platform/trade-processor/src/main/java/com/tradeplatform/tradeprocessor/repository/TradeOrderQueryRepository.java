@@ -0,0 +1,25 @@
+package com.tradeplatform.tradeprocessor.repository;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderSummaryDTO;
+
+import java.util.List;
+
+/**
+ * Hand-written trade order queries that Spring Data cannot derive, mixed into {@link TradeOrderRepository}.
+ */
+public interface TradeOrderQueryRepository {
+
+    /**
+     * Finds a page of order summaries, newest first, using keyset pagination. The query selects only the
+     * summary columns and adds a predicate only for the filters that are set, so each page is one index
+     * range scan however deep into the history it is.
+     *
+     * @param status the status to filter by, or null for all statuses
+     * @param symbol the symbol to filter by, or null for all symbols
+     * @param after the position of the last order on the previous page, or null for the first page
+     * @param limit the maximum number of orders to return
+     * @return the page of order summaries, ordered by creation time and then order ID, both descending
+     */
+    List<OrderSummaryDTO> findOrderSummaries(OrderStatus status, String symbol, OrderCursor after, int limit);
+}
@@ -0,0 +1,67 @@
+package com.tradeplatform.tradeprocessor.repository;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderSummaryDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPQL implementation of {@link TradeOrderQueryRepository}.
+ */
+public class TradeOrderQueryRepositoryImpl implements TradeOrderQueryRepository {
+
+    private static final String SELECT_SUMMARY = "SELECT new com.tradeplatform.common.dto.OrderSummaryDTO("
+            + "t.orderId, t.userId, t.symbol, t.orderType, t.side, t.status, t.quantity, t.price, "
+            + "t.executionPrice, t.filledQuantity, t.remainingQuantity, t.createdAt, t.updatedAt, t.executedAt) "
+            + "FROM TradeOrder t";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryDTO> findOrderSummaries(OrderStatus status, String symbol, OrderCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_SUMMARY);
+        List<String> predicates = new ArrayList<>(3);
+        if (status != null) {
+            predicates.add("t.status = :status");
+        }
+        if (symbol != null) {
+            predicates.add("t.symbol = :symbol");
+        }
+        if (after != null) {
+            // The leading bound lets the database seek to the cursor instead of filtering every newer row
+            predicates.add("t.createdAt <= :afterCreatedAt "
+                    + "AND (t.createdAt < :afterCreatedAt OR t.orderId < :afterId)");
+        }
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        // Sorting by the filtered column too, though it is constant, lets the database see that the index on
+        // (column, createdAt DESC, orderId DESC) already returns the rows in order
+        jpql.append(" ORDER BY ");
+        if (status != null) {
+            jpql.append("t.status, ");
+        } else if (symbol != null) {
+            jpql.append("t.symbol, ");
+        }
+        jpql.append("t.createdAt DESC, t.orderId DESC");
+
+        TypedQuery<OrderSummaryDTO> query = entityManager.createQuery(jpql.toString(), OrderSummaryDTO.class)
+                .setMaxResults(limit);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (symbol != null) {
+            query.setParameter("symbol", symbol);
+        }
+        if (after != null) {
+            query.setParameter("afterCreatedAt", after.getCreatedAt());
+            query.setParameter("afterId", after.getOrderId());
+        }
+        return query.getResultList();
+    }
+}
@@ -1,20 +1,28 @@
 package com.tradeplatform.tradeprocessor.repository;
 
 import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.TradeOrderDTO;
 import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for accessing and manipulating trade orders in the database.
+ * Paginated listings are provided by {@link TradeOrderQueryRepository}.
  */
 @Repository
-public interface TradeOrderRepository extends JpaRepository<TradeOrder, UUID> {
+public interface TradeOrderRepository extends JpaRepository<TradeOrder, UUID>, TradeOrderQueryRepository {
 
     /**
      * Finds all trade orders for a specific user.
@@ -24,6 +32,21 @@ public interface TradeOrderRepository extends JpaRepository<TradeOrder, UUID> {
      */
     List<TradeOrder> findByUserId(String userId);
 
+    /**
+     * Streams a user's whole order history, oldest first, as DTOs rather than managed entities, so rows
+     * are not retained by the persistence context and can be read as a forward-only cursor, fetching 1000
+     * rows per round trip. The caller must consume and close the stream within a transaction.
+     *
+     * @param userId the user ID
+     * @return the stream of trade orders
+     */
+    @Query("SELECT new com.tradeplatform.common.dto.TradeOrderDTO(t.orderId, t.userId, t.symbol, t.orderType, "
+            + "t.side, t.status, t.quantity, t.price, t.stopPrice, t.createdAt, t.updatedAt, t.executedAt, "
+            + "t.triggeredAt, t.expiresAt, t.executionPrice, t.filledQuantity, t.remainingQuantity, t.notes) "
+            + "FROM TradeOrder t WHERE t.userId = ?1 ORDER BY t.createdAt, t.orderId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TradeOrderDTO> streamByUserId(String userId);
+
     /**
      * Finds all trade orders with a specific status.
      *
@@ -67,4 +90,57 @@ public interface TradeOrderRepository extends JpaRepository<TradeOrder, UUID> {
      */
     @Query("SELECT t FROM TradeOrder t WHERE t.status = ?1 AND t.lastProcessingAttempt < ?2")
     List<TradeOrder> findStuckOrders(OrderStatus status, LocalDateTime cutoffTime);
+
+    /**
+     * Finds the next page of trade orders that have been stuck in processing for too long, using keyset
+     * pagination: orders are returned by ascending ID, starting after the last ID of the previous page, so
+     * each page is an index range scan however far the sweep has progressed.
+     *
+     * @param status the processing status
+     * @param cutoffTime the cutoff time
+     * @param afterId the last order ID of the previous page, or the nil UUID for the first page
+     * @param limit the maximum number of orders to return
+     * @return the page of stuck trade orders
+     */
+    @Query("SELECT t FROM TradeOrder t WHERE t.status = ?1 AND t.lastProcessingAttempt < ?2 AND t.orderId > ?3 "
+            + "ORDER BY t.orderId")
+    List<TradeOrder> findStuckOrders(OrderStatus status, LocalDateTime cutoffTime, UUID afterId, Limit limit);
+
+    /**
+     * Finds the IDs of all trade orders updated since the given time.
+     *
+     * @param since the earliest update time
+     * @return the order IDs
+     */
+    @Query("SELECT t.orderId FROM TradeOrder t WHERE t.updatedAt >= ?1")
+    List<UUID> findOrderIdsUpdatedSince(LocalDateTime since);
+
+    /**
+     * Finds all trade orders in one of the given statuses that have an expiry time.
+     *
+     * @param statuses the order statuses
+     * @return the list of trade orders
+     */
+    List<TradeOrder> findByStatusInAndExpiresAtIsNotNull(Collection<OrderStatus> statuses);
+
+    /**
+     * Finds all trade orders in one of the given statuses with a quantity still open, oldest first.
+     *
+     * @param statuses the order statuses
+     * @return the list of trade orders
+     */
+    @Query("SELECT t FROM TradeOrder t WHERE t.status IN ?1 AND t.remainingQuantity > 0 "
+            + "ORDER BY t.createdAt, t.orderId")
+    List<TradeOrder> findWaiting(Collection<OrderStatus> statuses);
+
+    /**
+     * Finds the trade orders for a symbol in one of the given statuses with a quantity still open, oldest first.
+     *
+     * @param symbol the symbol/ticker
+     * @param statuses the order statuses
+     * @return the list of trade orders
+     */
+    @Query("SELECT t FROM TradeOrder t WHERE t.symbol = ?1 AND t.status IN ?2 AND t.remainingQuantity > 0 "
+            + "ORDER BY t.createdAt, t.orderId")
+    List<TradeOrder> findWaiting(String symbol, Collection<OrderStatus> statuses);
 }
\ No newline at end of file
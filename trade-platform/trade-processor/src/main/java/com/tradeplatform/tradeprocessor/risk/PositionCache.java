@@ -0,0 +1,272 @@
+package com.tradeplatform.tradeprocessor.risk;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.PortfolioEntryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory copy of every user's position in every symbol, used to reject SELL orders for more shares than
+ * the user holds before they execute.
+ * <p>
+ * A position is fed from two sides. The Trade Processor applies each of its own fills the moment it
+ * reports them, numbering the fills of the position with a sequence that travels in the execution report.
+ * The Portfolio Service publishes every position it updates, with the sequence of the last fill it
+ * applied, which is accepted unless the local copy has already moved past that fill. The local copy is
+ * therefore never behind the fills that were executed, and converges on the portfolio after a restart.
+ * Sequences of each run start above a base taken from the clock at startup, so fills of a new run always
+ * number above those of earlier runs, including fills the Portfolio Service has not applied yet, and are
+ * never mistaken for redelivered ones.
+ * Open SELL orders reserve their quantity until they fill or end, so two orders cannot sell the same shares.
+ * Changes made inside a transaction are reverted if it rolls back, since its fills are never reported.
+ * <p>
+ * Lookups are lock-free. All local changes to a position happen on the execution shard that owns its
+ * symbol, so a position's monitor is only ever contended by an update from the Portfolio Service.
+ */
+@Component
+public class PositionCache {
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Position>> positions = new ConcurrentHashMap<>();
+    private final AtomicInteger positionCount = new AtomicInteger();
+
+    /**
+     * Sequence after which this run numbers fills; leaves room for a million fills per position per millisecond.
+     */
+    private final long sequenceBase = System.currentTimeMillis() * 1_000_000L;
+    private final boolean checkEnabled;
+    private final Counter rejections;
+
+    /**
+     * Creates the cache and registers its metrics.
+     *
+     * @param checkEnabled whether SELL orders are checked against the cached positions
+     * @param meterRegistry the registry for the rejection counter and position gauge
+     */
+    public PositionCache(@Value("${trade.risk.position-check.enabled:true}") boolean checkEnabled,
+                         MeterRegistry meterRegistry) {
+        this.checkEnabled = checkEnabled;
+        this.rejections = Counter.builder("trade.risk.rejections")
+                .description("SELL orders rejected for exceeding the user's available position")
+                .register(meterRegistry);
+        Gauge.builder("trade.risk.positions", positionCount, AtomicInteger::get)
+                .description("Positions held in the pre-trade position cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether SELL orders are checked against the cached positions.
+     *
+     * @return true if the check is enabled
+     */
+    public boolean isCheckEnabled() {
+        return checkEnabled;
+    }
+
+    /**
+     * Reserves the quantity of a SELL order if the user holds enough shares that are not already reserved
+     * by other open SELL orders. Must run on the execution shard that owns the symbol.
+     *
+     * @param userId the user ID
+     * @param symbol the symbol/ticker
+     * @param quantity the quantity of the order
+     * @return true if the quantity was reserved, false if the order exceeds the available position
+     */
+    public boolean tryReserveSell(String userId, String symbol, int quantity) {
+        Change change = position(userId, symbol).tryReserve(quantity);
+        if (change != null) {
+            logChange(change);
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    /**
+     * Releases the unfilled quantity of a SELL order that has ended without filling completely.
+     * Must run on the execution shard that owns the symbol.
+     *
+     * @param userId the user ID
+     * @param symbol the symbol/ticker
+     * @param quantity the unfilled quantity
+     */
+    public void releaseSell(String userId, String symbol, int quantity) {
+        Position position = find(userId, symbol);
+        if (position != null) {
+            logChange(position.release(quantity));
+        }
+    }
+
+    /**
+     * Returns the quantity a user could sell now: the shares held less those reserved by open SELL orders.
+     *
+     * @param userId the user ID
+     * @param symbol the symbol/ticker
+     * @return the available quantity
+     */
+    public long getAvailable(String userId, String symbol) {
+        Position position = find(userId, symbol);
+        return position != null ? position.available() : 0;
+    }
+
+    /**
+     * Applies a fill executed by this processor. A SELL fill also consumes the reservation of its order.
+     * Must run on the execution shard that owns the symbol.
+     *
+     * @param userId the user ID
+     * @param symbol the symbol/ticker
+     * @param side the side of the filled order
+     * @param quantity the filled quantity
+     * @return the position sequence assigned to the fill
+     */
+    public long applyFill(String userId, String symbol, OrderSide side, int quantity) {
+        Change change = position(userId, symbol).applyFill(side, quantity, sequenceBase);
+        logChange(change);
+        return change.sequenceAfter();
+    }
+
+    /**
+     * Applies a position update published by the Portfolio Service, unless the cache has already applied
+     * fills that the update does not include.
+     *
+     * @param entry the position as the Portfolio Service holds it
+     */
+    public void applyPositionUpdate(PortfolioEntryDTO entry) {
+        if (entry.getUserId() == null || entry.getSymbol() == null || entry.getQuantity() == null) {
+            return;
+        }
+        long sequence = entry.getPositionSequence() != null ? entry.getPositionSequence() : 0;
+        position(entry.getUserId(), entry.getSymbol()).applyUpdate(entry.getQuantity(), sequence);
+    }
+
+    /**
+     * Remembers a change made by the current transaction, to revert it if the transaction does not commit.
+     *
+     * @param change the change
+     */
+    private void logChange(Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Change> changes = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<Change> log = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, log);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PositionCache.this);
+                    if (status != STATUS_COMMITTED) {
+                        for (int i = log.size() - 1; i >= 0; i--) {
+                            log.get(i).revert();
+                        }
+                    }
+                }
+            });
+            changes = log;
+        }
+        changes.add(change);
+    }
+
+    private Position find(String userId, String symbol) {
+        ConcurrentHashMap<String, Position> userPositions = positions.get(userId);
+        return userPositions != null ? userPositions.get(symbol) : null;
+    }
+
+    private Position position(String userId, String symbol) {
+        Position position = find(userId, symbol);
+        if (position != null) {
+            return position;
+        }
+        return positions.computeIfAbsent(userId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(symbol, s -> {
+                    positionCount.incrementAndGet();
+                    return new Position();
+                });
+    }
+
+    /**
+     * One user's position in one symbol.
+     */
+    private static final class Position {
+
+        private long quantity;
+        private long sequence;
+        private long reserved;
+
+        synchronized Change tryReserve(int requested) {
+            if (quantity - reserved < requested) {
+                return null;
+            }
+            reserved += requested;
+            return new Change(this, 0, requested, sequence, sequence);
+        }
+
+        synchronized Change release(int unfilled) {
+            long released = Math.min(reserved, unfilled);
+            reserved -= released;
+            return new Change(this, 0, -released, sequence, sequence);
+        }
+
+        synchronized long available() {
+            return Math.max(0, quantity - reserved);
+        }
+
+        synchronized Change applyFill(OrderSide side, int filled, long sequenceBase) {
+            long sequenceBefore = sequence;
+            long delta = side == OrderSide.SELL ? -filled : filled;
+            // A SELL order restored from the journal or accepted with the check off holds no reservation
+            long consumed = side == OrderSide.SELL ? Math.min(reserved, filled) : 0;
+            quantity += delta;
+            reserved -= consumed;
+            sequence = Math.max(sequence, sequenceBase) + 1;
+            return new Change(this, delta, -consumed, sequenceBefore, sequence);
+        }
+
+        synchronized void applyUpdate(long portfolioQuantity, long portfolioSequence) {
+            if (portfolioSequence >= sequence) {
+                quantity = portfolioQuantity;
+                sequence = portfolioSequence;
+            }
+        }
+
+        /**
+         * Reverts a change. Reservations are always given back; a fill is only taken back while no update from
+         * the Portfolio Service has replaced the quantity since, as such an update is authoritative.
+         */
+        synchronized void revert(Change change) {
+            reserved = Math.max(0, reserved - change.reservedDelta());
+            if (sequence == change.sequenceAfter()) {
+                quantity -= change.quantityDelta();
+                sequence = change.sequenceBefore();
+            }
+        }
+    }
+
+    /**
+     * A change made to a position, kept until the transaction that made it completes.
+     *
+     * @param position the changed position
+     * @param quantityDelta the change in the quantity held
+     * @param reservedDelta the change in the quantity reserved by open SELL orders
+     * @param sequenceBefore the position sequence before the change
+     * @param sequenceAfter the position sequence after the change, equal to the one before unless it was a fill
+     */
+    private record Change(Position position, long quantityDelta, long reservedDelta, long sequenceBefore,
+                          long sequenceAfter) {
+
+        void revert() {
+            position.revert(this);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.tradeplatform.tradeprocessor.risk;
+
+import com.tradeplatform.common.dto.PortfolioEntryDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds the {@link PositionCache} from the compacted positions topic published by the Portfolio Service.
+ * <p>
+ * On startup the whole topic is read from the beginning, before the order listeners start, so SELL orders
+ * are checked against every known position from the first order on. Startup fails if the topic cannot be
+ * read to its end within the bootstrap timeout, rather than checking orders against an empty or partial
+ * cache; only a topic that does not exist yet counts as no positions. The feed then keeps following the topic
+ * on its own thread. It reads every partition without a consumer group, since each processor instance
+ * needs all positions and the topic is re-read on every start.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.risk.position-check.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PositionFeed implements SmartLifecycle {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final PositionCache positionCache;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.topic.positions:positions}")
+    private String positionsTopic;
+
+    @Value("${trade.risk.positions.bootstrap-timeout-ms:30000}")
+    private long bootstrapTimeoutMs;
+
+    private KafkaConsumer<String, PortfolioEntryDTO> consumer;
+    private Thread feedThread;
+    private volatile boolean running;
+
+    /**
+     * Loads all positions, then starts following the topic.
+     */
+    @Override
+    public void start() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        consumer = new KafkaConsumer<>(props, new StringDeserializer(),
+                new JsonDeserializer<>(PortfolioEntryDTO.class, false));
+
+        running = true;
+        bootstrap();
+        feedThread = new Thread(this::follow, "position-feed");
+        feedThread.setDaemon(true);
+        feedThread.start();
+    }
+
+    /**
+     * Stops following the topic.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            consumer.wakeup();
+        }
+        if (feedThread != null) {
+            try {
+                feedThread.join(POLL_TIMEOUT.toMillis() * 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the Kafka listener containers, so no order is checked against a half-loaded cache.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 250;
+    }
+
+    /**
+     * Reads the topic up to the end offsets it had at startup.
+     *
+     * @throws IllegalStateException if the topic cannot be read to those offsets within the bootstrap timeout
+     */
+    private void bootstrap() {
+        long deadline = System.currentTimeMillis() + bootstrapTimeoutMs;
+        long loaded = 0;
+        try {
+            if (!assignPartitions()) {
+                log.info("Positions topic {} not found, starting with an empty position cache", positionsTopic);
+                return;
+            }
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(consumer.assignment(),
+                    Duration.ofMillis(Math.max(0, deadline - System.currentTimeMillis())));
+            while (!caughtUp(endOffsets)) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new TimeoutException("Reached " + loaded + " position updates");
+                }
+                loaded += apply(consumer.poll(POLL_TIMEOUT));
+            }
+        } catch (TimeoutException e) {
+            running = false;
+            consumer.close();
+            throw new IllegalStateException("Could not load positions from " + positionsTopic + " within "
+                    + bootstrapTimeoutMs + " ms; disable trade.risk.position-check.enabled to start without them", e);
+        }
+        log.info("Loaded {} position updates from {}", loaded, positionsTopic);
+    }
+
+    /**
+     * Follows the topic until stopped, assigning its partitions once it exists.
+     */
+    private void follow() {
+        try {
+            while (running) {
+                if (consumer.assignment().isEmpty() && !tryAssignPartitions()) {
+                    Thread.sleep(POLL_TIMEOUT.toMillis());
+                    continue;
+                }
+                apply(consumer.poll(POLL_TIMEOUT));
+            }
+        } catch (WakeupException e) {
+            // Expected on stop
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Position feed failed; the position cache will no longer receive portfolio updates", e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private boolean tryAssignPartitions() {
+        try {
+            return assignPartitions();
+        } catch (TimeoutException e) {
+            log.warn("Timed out looking up positions topic {}", positionsTopic);
+            return false;
+        }
+    }
+
+    /**
+     * Assigns every partition of the topic, positioned at its beginning.
+     *
+     * @return false if the topic does not exist
+     * @throws TimeoutException if the brokers cannot be reached within the bootstrap timeout
+     */
+    private boolean assignPartitions() {
+        List<PartitionInfo> partitions = consumer.partitionsFor(positionsTopic, Duration.ofMillis(bootstrapTimeoutMs));
+        if (partitions == null || partitions.isEmpty()) {
+            return false;
+        }
+        List<TopicPartition> topicPartitions = partitions.stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+        consumer.assign(topicPartitions);
+        consumer.seekToBeginning(topicPartitions);
+        return true;
+    }
+
+    private boolean caughtUp(Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int apply(Iterable<ConsumerRecord<String, PortfolioEntryDTO>> records) {
+        int count = 0;
+        for (ConsumerRecord<String, PortfolioEntryDTO> record : records) {
+            if (record.value() != null) {
+                positionCache.applyPositionUpdate(record.value());
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,16 @@
+package com.tradeplatform.tradeprocessor.service;
+
+/**
+ * Enum representing how trade orders are executed by the processor.
+ */
+public enum ExecutionMode {
+    /**
+     * Orders are filled immediately at a random price after an artificial delay.
+     */
+    SIMULATED,
+
+    /**
+     * Orders are matched against each other in the in-memory price-time-priority order book.
+     */
+    MATCHING
+}
@@ -0,0 +1,16 @@
+package com.tradeplatform.tradeprocessor.service;
+
+/**
+ * Enum representing the file formats an order history can be exported in.
+ */
+public enum ExportFormat {
+    /**
+     * One JSON order per line, with the same fields as the order API.
+     */
+    NDJSON,
+
+    /**
+     * Comma-separated values with a header row.
+     */
+    CSV
+}
@@ -0,0 +1,154 @@
+package com.tradeplatform.tradeprocessor.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for exporting a user's whole order history.
+ * Orders are read through a forward-only database cursor and written as they arrive, so memory use
+ * stays constant however many orders the user has.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final String CSV_HEADER = "orderId,userId,symbol,orderType,side,status,quantity,price,stopPrice,"
+            + "createdAt,updatedAt,executedAt,triggeredAt,expiresAt,executionPrice,filledQuantity,remainingQuantity,"
+            + "notes";
+
+    private final TradeOrderRepository tradeOrderRepository;
+    private final ObjectWriter orderWriter;
+
+    /**
+     * Creates the service.
+     *
+     * @param tradeOrderRepository the repository the orders are streamed from
+     * @param objectMapper the application's object mapper, used to write NDJSON
+     */
+    public OrderExportService(TradeOrderRepository tradeOrderRepository, ObjectMapper objectMapper) {
+        this.tradeOrderRepository = tradeOrderRepository;
+        // Leave flushing to the output buffers rather than flushing the response after every order
+        this.orderWriter = objectMapper.writerFor(TradeOrderDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes every order of a user, oldest first, in the given format. The output stream is flushed
+     * but not closed.
+     *
+     * @param userId the user ID
+     * @param format the export format
+     * @param out the stream to write to
+     * @return the number of orders written
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long exportOrdersByUserId(String userId, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long count;
+        try (Stream<TradeOrderDTO> orders = tradeOrderRepository.streamByUserId(userId)) {
+            count = format == ExportFormat.CSV
+                    ? writeCsv(orders.iterator(), out)
+                    : writeNdjson(orders.iterator(), out);
+        }
+        log.info("Exported {} orders for user {} as {} in {} ms", count, userId, format,
+                (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<TradeOrderDTO> orders, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = orderWriter.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (orders.hasNext()) {
+                orderWriter.writeValue(generator, orders.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<TradeOrderDTO> orders, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (orders.hasNext()) {
+            TradeOrderDTO order = orders.next();
+            writer.write(csv(order.getOrderId()));
+            writer.write(',');
+            writer.write(csv(order.getUserId()));
+            writer.write(',');
+            writer.write(csv(order.getSymbol()));
+            writer.write(',');
+            writer.write(csv(order.getOrderType()));
+            writer.write(',');
+            writer.write(csv(order.getSide()));
+            writer.write(',');
+            writer.write(csv(order.getStatus()));
+            writer.write(',');
+            writer.write(csv(order.getQuantity()));
+            writer.write(',');
+            writer.write(csv(order.getPrice()));
+            writer.write(',');
+            writer.write(csv(order.getStopPrice()));
+            writer.write(',');
+            writer.write(csv(order.getCreatedAt()));
+            writer.write(',');
+            writer.write(csv(order.getUpdatedAt()));
+            writer.write(',');
+            writer.write(csv(order.getExecutedAt()));
+            writer.write(',');
+            writer.write(csv(order.getTriggeredAt()));
+            writer.write(',');
+            writer.write(csv(order.getExpiresAt()));
+            writer.write(',');
+            writer.write(csv(order.getExecutionPrice()));
+            writer.write(',');
+            writer.write(csv(order.getFilledQuantity()));
+            writer.write(',');
+            writer.write(csv(order.getRemainingQuantity()));
+            writer.write(',');
+            writer.write(csv(order.getNotes()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Formats one CSV field, quoting it if it contains a separator, a quote or a line break.
+     */
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+        }
+        return text;
+    }
+}
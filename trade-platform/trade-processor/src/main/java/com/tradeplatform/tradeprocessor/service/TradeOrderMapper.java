@@ -0,0 +1,102 @@
+package com.tradeplatform.tradeprocessor.service;
+
+import com.tradeplatform.common.dto.OrderSummaryDTO;
+import com.tradeplatform.common.dto.TradeOrderDTO;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+
+/**
+ * Conversions between trade order entities and the DTOs the Trade Processor exposes. Every order that is
+ * accepted, read or changed passes through here, so the conversions are plain field copies that are kept
+ * out of the service to be benchmarked on their own.
+ */
+public final class TradeOrderMapper {
+
+    private TradeOrderMapper() {
+    }
+
+    /**
+     * Converts a TradeOrderDTO to a TradeOrder entity.
+     *
+     * @param dto the DTO to convert
+     * @return the entity
+     */
+    public static TradeOrder toEntity(TradeOrderDTO dto) {
+        return TradeOrder.builder()
+                .orderId(dto.getOrderId())
+                .userId(dto.getUserId())
+                .symbol(dto.getSymbol())
+                .orderType(dto.getOrderType())
+                .side(dto.getSide())
+                .status(dto.getStatus())
+                .quantity(dto.getQuantity())
+                .price(dto.getPrice())
+                .stopPrice(dto.getStopPrice())
+                .createdAt(dto.getCreatedAt())
+                .updatedAt(dto.getUpdatedAt())
+                .executedAt(dto.getExecutedAt())
+                .triggeredAt(dto.getTriggeredAt())
+                .expiresAt(dto.getExpiresAt())
+                .executionPrice(dto.getExecutionPrice())
+                .filledQuantity(dto.getFilledQuantity())
+                .remainingQuantity(dto.getRemainingQuantity())
+                .notes(dto.getNotes())
+                .processingAttempts(0)
+                .lastErrorMessage(null)
+                .lastProcessingAttempt(null)
+                .build();
+    }
+
+    /**
+     * Converts a TradeOrder entity to a TradeOrderDTO.
+     *
+     * @param entity the entity to convert
+     * @return the DTO
+     */
+    public static TradeOrderDTO toDTO(TradeOrder entity) {
+        return TradeOrderDTO.builder()
+                .orderId(entity.getOrderId())
+                .userId(entity.getUserId())
+                .symbol(entity.getSymbol())
+                .orderType(entity.getOrderType())
+                .side(entity.getSide())
+                .status(entity.getStatus())
+                .quantity(entity.getQuantity())
+                .price(entity.getPrice())
+                .stopPrice(entity.getStopPrice())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .executedAt(entity.getExecutedAt())
+                .triggeredAt(entity.getTriggeredAt())
+                .expiresAt(entity.getExpiresAt())
+                .executionPrice(entity.getExecutionPrice())
+                .filledQuantity(entity.getFilledQuantity())
+                .remainingQuantity(entity.getRemainingQuantity())
+                .notes(entity.getNotes())
+                .build();
+    }
+
+    /**
+     * Converts a TradeOrder entity to the OrderSummaryDTO shown in order listings.
+     *
+     * @param entity the entity to convert
+     * @return the summary
+     */
+    public static OrderSummaryDTO toSummary(TradeOrder entity) {
+        return OrderSummaryDTO.builder()
+                .orderId(entity.getOrderId())
+                .userId(entity.getUserId())
+                .symbol(entity.getSymbol())
+                .orderType(entity.getOrderType())
+                .side(entity.getSide())
+                .status(entity.getStatus())
+                .quantity(entity.getQuantity())
+                .price(entity.getPrice())
+                .executionPrice(entity.getExecutionPrice())
+                .filledQuantity(entity.getFilledQuantity())
+                .remainingQuantity(entity.getRemainingQuantity())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .executedAt(entity.getExecutedAt())
+                .build();
+    }
+}
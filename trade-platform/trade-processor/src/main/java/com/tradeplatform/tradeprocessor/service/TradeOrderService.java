@@ -1,25 +1,57 @@
 package com.tradeplatform.tradeprocessor.service;
 
+import com.tradeplatform.common.dto.ExecutionReportDTO;
+import com.tradeplatform.common.dto.OrderPageDTO;
+import com.tradeplatform.common.dto.OrderSide;
 import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderSummaryDTO;
+import com.tradeplatform.common.dto.OrderType;
 import com.tradeplatform.common.dto.TradeOrderDTO;
 import com.tradeplatform.common.exception.OrderProcessingException;
 import com.tradeplatform.common.exception.ResourceNotFoundException;
+import com.tradeplatform.common.exception.ValidationException;
+import com.tradeplatform.common.price.FixedPointPrice;
+import com.tradeplatform.tradeprocessor.cache.OrderLookupCache;
 import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.expiry.OrderExpiryTracker;
+import com.tradeplatform.tradeprocessor.matching.Fill;
+import com.tradeplatform.tradeprocessor.matching.MatchResult;
+import com.tradeplatform.tradeprocessor.matching.MatchingEngine;
+import com.tradeplatform.tradeprocessor.matching.OrderBookLoader;
+import com.tradeplatform.tradeprocessor.matching.StopActivation;
+import com.tradeplatform.tradeprocessor.metrics.OrderPipelineMetrics;
+import com.tradeplatform.tradeprocessor.metrics.OrderSubmitTimes;
+import com.tradeplatform.tradeprocessor.metrics.PipelineStage;
+import com.tradeplatform.tradeprocessor.report.ExecutionReportPublisher;
+import com.tradeplatform.tradeprocessor.risk.PositionCache;
+import com.tradeplatform.tradeprocessor.repository.OrderCursor;
 import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import com.tradeplatform.tradeprocessor.store.TradeOrderStore;
+import com.tradeplatform.tradeprocessor.stream.OrderStatusStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Service for processing trade orders.
+ * Execution writes go through the {@link TradeOrderStore}; queries read the repository, and lookups by ID
+ * go through the {@link OrderLookupCache}. Every state change updates the cache and is pushed to clients
+ * through the {@link OrderStatusStream} once committed.
+ * Every fill is reported as a delta through the {@link ExecutionReportPublisher}.
+ * Each stage an order passes through is timed by the {@link OrderPipelineMetrics}.
  */
 @Service
 @RequiredArgsConstructor
@@ -27,8 +59,30 @@ import java.util.UUID;
 public class TradeOrderService {
 
     private final TradeOrderRepository tradeOrderRepository;
+    private final TradeOrderStore tradeOrderStore;
+    private final OrderExpiryTracker orderExpiryTracker;
+    private final MatchingEngine matchingEngine;
+    private final OrderBookLoader orderBookLoader;
+    private final ExecutionReportPublisher executionReportPublisher;
+    private final PositionCache positionCache;
+    private final OrderLookupCache orderLookupCache;
+    private final OrderStatusStream orderStatusStream;
+    private final OrderPipelineMetrics pipelineMetrics;
+    private final OrderSubmitTimes orderSubmitTimes;
     private final Random random = new Random();
 
+    @Value("${trade.execution.mode:MATCHING}")
+    private ExecutionMode executionMode;
+
+    @Value("${trade.execution.simulated.max-fill-quantity:100}")
+    private int simulatedMaxFillQuantity;
+
+    @Value("${trade.query.orders.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${trade.query.orders.max-limit:500}")
+    private int maxPageLimit;
+
     /**
      * Processes a new trade order.
      *
@@ -41,52 +95,177 @@ public class TradeOrderService {
         log.info("Processing order: {}", orderDTO.getOrderId());
 
         // Convert DTO to entity
-        TradeOrder order = convertToEntity(orderDTO);
+        TradeOrder order = TradeOrderMapper.toEntity(orderDTO);
         
         // Initialize processing metadata
-        order.setProcessingAttempts(order.getProcessingAttempts() != null ? order.getProcessingAttempts() + 1 : 1);
-        order.setLastProcessingAttempt(LocalDateTime.now());
-        order.setStatus(OrderStatus.PROCESSING);
-        order.setUpdatedAt(LocalDateTime.now());
+        startProcessing(order);
 
-        // Save the order to the database
-        order = tradeOrderRepository.save(order);
+        // Record the order as PROCESSING
+        long persistStart = System.nanoTime();
+        order = tradeOrderStore.save(order);
+        pipelineMetrics.record(PipelineStage.PERSIST_PROCESSING, persistStart);
 
         try {
-            // Simulate order matching and execution
-            simulateOrderExecution(order);
+            Map<UUID, TradeOrder> makers = new HashMap<>();
+            execute(order, makers);
+            long resultStart = System.nanoTime();
+            makers.remove(order.getOrderId());
+            tradeOrderStore.saveAll(makers.values());
 
             // Update order status and save
-            order.setStatus(OrderStatus.FILLED);
-            order.setExecutedAt(LocalDateTime.now());
-            order.setUpdatedAt(LocalDateTime.now());
-            order.setLastErrorMessage(null);
-            order = tradeOrderRepository.save(order);
+            order = tradeOrderStore.save(order);
+            List<TradeOrder> changed = new ArrayList<>(makers.values());
+            changed.add(order);
+            publishChanges(changed);
+            pipelineMetrics.recordCommit(resultStart);
 
-            log.info("Order processed successfully: {}", order.getOrderId());
-            return convertToDTO(order);
+            log.info("Order processed successfully: {}, status: {}", order.getOrderId(), order.getStatus());
+            return TradeOrderMapper.toDTO(order);
         } catch (Exception e) {
-            // Handle processing error
+            // The transaction rolls back, and with it the books, positions and expiry schedule, so the
+            // order can be retried as if it had never been executed
             log.error("Error processing order: {}", order.getOrderId(), e);
-            order.setStatus(OrderStatus.FAILED);
-            order.setUpdatedAt(LocalDateTime.now());
-            order.setLastErrorMessage(e.getMessage());
-            tradeOrderRepository.save(order);
             throw new OrderProcessingException("Failed to process order", order.getOrderId(), e.getMessage());
         }
     }
 
     /**
-     * Retrieves a trade order by ID.
+     * Processes a batch of trade orders in a single transaction.
+     * Orders are inserted or updated with one {@code saveAll} so Hibernate can group the statements
+     * into JDBC batches. An order rejected before it reaches the book, for example for a missing side or
+     * price, is marked FAILED and returned with that status instead of failing the whole batch. Any other
+     * failure rolls back the whole batch, which also restores the books and positions already changed by it.
+     * Unlike {@link #processOrder}, the intermediate PROCESSING state is not written, since it would
+     * never be visible outside the transaction.
+     *
+     * @param orderDTOs the trade orders to process
+     * @return the processed trade orders, in the same order as the input
+     */
+    @Transactional
+    public List<TradeOrderDTO> processBatch(List<TradeOrderDTO> orderDTOs) {
+        log.info("Processing batch of {} orders", orderDTOs.size());
+
+        // Load redelivered orders in one query; everything else is inserted without a prior select
+        List<UUID> orderIds = orderDTOs.stream().map(TradeOrderDTO::getOrderId).toList();
+        Map<UUID, TradeOrder> touched = new LinkedHashMap<>();
+        Set<UUID> existingIds = tradeOrderStore.findExistingIds(orderIds);
+
+        List<TradeOrder> orders = new ArrayList<>(orderDTOs.size());
+        for (TradeOrderDTO orderDTO : orderDTOs) {
+            TradeOrder order = TradeOrderMapper.toEntity(orderDTO);
+            order.setNewEntity(!existingIds.contains(order.getOrderId()));
+            startProcessing(order);
+            orders.add(order);
+            touched.put(order.getOrderId(), order);
+        }
+
+        for (TradeOrder order : orders) {
+            try {
+                execute(order, touched);
+            } catch (OrderProcessingException e) {
+                // Only thrown before the order has touched the book
+                log.error("Error processing order in batch: {}", order.getOrderId(), e);
+                markFailed(order, e);
+                releaseOpenSell(order);
+            }
+        }
+
+        long resultStart = System.nanoTime();
+        tradeOrderStore.saveAll(touched.values());
+        publishChanges(touched.values());
+        pipelineMetrics.recordCommit(resultStart);
+        return orders.stream().map(TradeOrderMapper::toDTO).toList();
+    }
+
+    /**
+     * Expires open orders whose expiry time has passed, removing them from the order books and
+     * recording them as EXPIRED in one batch. Must run on the execution shard that owns the orders'
+     * symbols. Orders that have meanwhile been filled, cancelled or given a later expiry are skipped.
+     *
+     * @param orderIds the IDs of the orders due to expire
+     * @return the number of orders expired
+     */
+    @Transactional
+    public int expireOrders(Collection<UUID> orderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TradeOrder> expired = new ArrayList<>();
+        for (TradeOrder order : tradeOrderStore.findAllById(orderIds)) {
+            if (!OrderExpiryTracker.EXPIRABLE_STATUSES.contains(order.getStatus())
+                    || order.getExpiresAt() == null || order.getExpiresAt().isAfter(now)) {
+                continue;
+            }
+            orderBookLoader.beforeChange(order.getSymbol());
+            matchingEngine.cancel(order.getSymbol(), order.getOrderId());
+            markExpired(order, "Expired at " + order.getExpiresAt());
+            releaseOpenSell(order);
+            expired.add(order);
+        }
+
+        tradeOrderStore.saveAll(expired);
+        publishChanges(expired);
+        log.info("Expired {} of {} orders due", expired.size(), orderIds.size());
+        return expired.size();
+    }
+
+    /**
+     * Re-drives orders left in PROCESSING, typically by a crash between recording the PROCESSING state and
+     * the outcome of execution. Each order is executed again like a new order; an order rejected before it
+     * reaches the book is marked FAILED without failing the others, while any other failure rolls back the
+     * whole recovery, and an order that has already used up its processing attempts is
+     * marked FAILED without being executed. Must run on the execution shard that owns the orders' symbols.
+     * Orders that are no longer PROCESSING, or were attempted again after the cutoff, are skipped.
+     *
+     * @param orderIds the IDs of the stuck orders
+     * @param cutoffTime the time before which the last processing attempt must have been made
+     * @param maxAttempts the number of processing attempts after which an order is abandoned
+     * @return the recovered orders with their new status
+     */
+    @Transactional
+    public List<TradeOrderDTO> recoverOrders(Collection<UUID> orderIds, LocalDateTime cutoffTime, int maxAttempts) {
+        Map<UUID, TradeOrder> touched = new LinkedHashMap<>();
+        List<TradeOrder> orders = new ArrayList<>();
+        for (TradeOrder order : tradeOrderStore.findAllById(orderIds)) {
+            if (order.getStatus() == OrderStatus.PROCESSING && order.getLastProcessingAttempt() != null
+                    && order.getLastProcessingAttempt().isBefore(cutoffTime)) {
+                orders.add(order);
+                touched.put(order.getOrderId(), order);
+            }
+        }
+
+        for (TradeOrder order : orders) {
+            if (order.getProcessingAttempts() != null && order.getProcessingAttempts() >= maxAttempts) {
+                markFailed(order, "Abandoned after " + order.getProcessingAttempts() + " processing attempts");
+                continue;
+            }
+            startProcessing(order);
+            try {
+                execute(order, touched);
+            } catch (OrderProcessingException e) {
+                // Only thrown before the order has touched the book
+                log.error("Error recovering stuck order: {}", order.getOrderId(), e);
+                markFailed(order, e);
+                releaseOpenSell(order);
+            }
+        }
+
+        long resultStart = System.nanoTime();
+        tradeOrderStore.saveAll(touched.values());
+        publishChanges(touched.values());
+        pipelineMetrics.recordCommit(resultStart);
+        return orders.stream().map(TradeOrderMapper::toDTO).toList();
+    }
+
+    /**
+     * Retrieves a trade order by ID, through the {@link OrderLookupCache}.
      *
      * @param orderId the order ID
      * @return the trade order
      * @throws ResourceNotFoundException if the order is not found
      */
     public TradeOrderDTO getOrderById(UUID orderId) {
-        TradeOrder order = tradeOrderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("TradeOrder", orderId.toString()));
-        return convertToDTO(order);
+        return orderLookupCache.get(orderId, id -> tradeOrderRepository.findById(id)
+                .map(TradeOrderMapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("TradeOrder", id.toString())));
     }
 
     /**
@@ -97,7 +276,7 @@ public class TradeOrderService {
      */
     public List<TradeOrderDTO> getOrdersByUserId(String userId) {
         return tradeOrderRepository.findByUserId(userId).stream()
-                .map(this::convertToDTO)
+                .map(TradeOrderMapper::toDTO)
                 .toList();
     }
 
@@ -109,13 +288,366 @@ public class TradeOrderService {
      */
     public List<TradeOrderDTO> getOrdersByStatus(OrderStatus status) {
         return tradeOrderRepository.findByStatus(status).stream()
-                .map(this::convertToDTO)
+                .map(TradeOrderMapper::toDTO)
                 .toList();
     }
 
+    /**
+     * Retrieves one page of trade order summaries, newest first, optionally filtered by status and symbol.
+     * One more order than requested is read to tell whether a next page exists.
+     *
+     * @param status the status to filter by, or null for all statuses
+     * @param symbol the symbol to filter by, or null for all symbols
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the page size, or null for the default; capped at {@code trade.query.orders.max-limit}
+     * @return the page of orders and the cursor of the next page
+     * @throws ValidationException if the cursor or the limit is invalid
+     */
+    public OrderPageDTO getOrders(OrderStatus status, String symbol, String after, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new ValidationException("Invalid page limit", Map.of("limit", "Limit must be at least 1"));
+        }
+        int pageSize = limit == null ? defaultPageLimit : Math.min(limit, maxPageLimit);
+        OrderCursor cursor = after == null || after.isEmpty() ? null : OrderCursor.decode(after);
+
+        List<OrderSummaryDTO> orders = tradeOrderRepository.findOrderSummaries(status, symbol, cursor, pageSize + 1);
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderSummaryDTO last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getOrderId()).encode();
+        }
+        return OrderPageDTO.builder()
+                .orders(orders)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Initializes the processing metadata of an order.
+     *
+     * @param order the order about to be processed
+     */
+    private void startProcessing(TradeOrder order) {
+        order.setProcessingAttempts(order.getProcessingAttempts() != null ? order.getProcessingAttempts() + 1 : 1);
+        order.setLastProcessingAttempt(LocalDateTime.now());
+        order.setStatus(OrderStatus.PROCESSING);
+        order.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Executes an order using the configured execution mode. An order whose expiry time has already
+     * passed is expired instead, and a SELL order for more shares than the user has available is rejected.
+     *
+     * @param order the order to execute
+     * @param makers resting orders touched by the execution, keyed by order ID; orders found here are
+     *               updated in place, others are loaded and added so the caller can save them
+     */
+    private void execute(TradeOrder order, Map<UUID, TradeOrder> makers) {
+        // Fills reported from here on, the makers' included, are stamped with this order's submission time
+        orderSubmitTimes.executing(order.getOrderId());
+        long validateStart = System.nanoTime();
+        boolean valid = validate(order);
+        long executeStart = pipelineMetrics.record(PipelineStage.VALIDATE, validateStart);
+        if (!valid) {
+            return;
+        }
+        if (executionMode == ExecutionMode.MATCHING) {
+            // Match the order against the order book
+            executeOnBook(order, makers);
+        } else {
+            // Simulate order matching and execution
+            simulateOrderExecution(order);
+            order.setStatus(OrderStatus.FILLED);
+            order.setExecutedAt(LocalDateTime.now());
+        }
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setLastErrorMessage(null);
+        pipelineMetrics.record(PipelineStage.EXECUTE, executeStart);
+    }
+
+    /**
+     * Checks an order before execution, expiring it if its expiry time has already passed and reserving
+     * the quantity of a SELL order against the user's position.
+     *
+     * @param order the order about to be executed
+     * @return false if the order was expired or rejected and must not be executed
+     */
+    private boolean validate(TradeOrder order) {
+        if (order.getExpiresAt() != null && !order.getExpiresAt().isAfter(LocalDateTime.now())) {
+            markExpired(order, "Expired before execution");
+            return false;
+        }
+        return reserveSell(order);
+    }
+
+    /**
+     * Reserves the quantity of a SELL order against the user's cached position, rejecting the order if the
+     * user does not hold enough shares that are not already reserved by other open SELL orders.
+     *
+     * @param order the order about to be executed
+     * @return false if the order was rejected
+     */
+    private boolean reserveSell(TradeOrder order) {
+        if (!positionCache.isCheckEnabled()
+                || OrderSide.resolve(order.getOrderType(), order.getSide()) != OrderSide.SELL
+                || positionCache.tryReserveSell(order.getUserId(), order.getSymbol(), order.getQuantity())) {
+            return true;
+        }
+        long available = positionCache.getAvailable(order.getUserId(), order.getSymbol());
+        log.info("Rejecting SELL order {}: {} {} requested, {} available", order.getOrderId(),
+                order.getQuantity(), order.getSymbol(), available);
+        order.setStatus(OrderStatus.REJECTED);
+        order.setFilledQuantity(0);
+        order.setRemainingQuantity(order.getQuantity());
+        order.setNotes("Insufficient position: " + available + " available, " + order.getQuantity() + " requested");
+        order.setUpdatedAt(LocalDateTime.now());
+        return false;
+    }
+
+    /**
+     * Releases the position reserved by the unfilled quantity of a SELL order that has ended.
+     *
+     * @param order the order that was cancelled, expired or failed
+     */
+    private void releaseOpenSell(TradeOrder order) {
+        if (!positionCache.isCheckEnabled()
+                || OrderSide.resolve(order.getOrderType(), order.getSide()) != OrderSide.SELL) {
+            return;
+        }
+        int filled = order.getFilledQuantity() != null ? order.getFilledQuantity() : 0;
+        if (order.getQuantity() != null && order.getQuantity() > filled) {
+            positionCache.releaseSell(order.getUserId(), order.getSymbol(), order.getQuantity() - filled);
+        }
+    }
+
+    /**
+     * Marks an order as expired.
+     *
+     * @param order the order that expired
+     * @param notes the reason to record on the order
+     */
+    private void markExpired(TradeOrder order, String notes) {
+        order.setStatus(OrderStatus.EXPIRED);
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setNotes(notes);
+    }
+
+    /**
+     * Marks an order as failed.
+     *
+     * @param order the order that failed
+     * @param e the cause of the failure
+     */
+    private void markFailed(TradeOrder order, Exception e) {
+        markFailed(order, e.getMessage());
+    }
+
+    /**
+     * Marks an order as failed.
+     *
+     * @param order the order that failed
+     * @param errorMessage the reason to record on the order
+     */
+    private void markFailed(TradeOrder order, String errorMessage) {
+        order.setStatus(OrderStatus.FAILED);
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setLastErrorMessage(errorMessage);
+    }
+
+    /**
+     * Executes a trade order against the in-memory order book and applies the resulting fills
+     * to both the incoming order and the resting orders it traded with. Stop orders whose stop price
+     * has not been reached stay PENDING until a later trade triggers them.
+     *
+     * @param order the order to execute
+     * @param makers resting orders touched by the execution, keyed by order ID
+     */
+    private void executeOnBook(TradeOrder order, Map<UUID, TradeOrder> makers) {
+        OrderSide side = OrderSide.resolve(order.getOrderType(), order.getSide());
+        if (side == null) {
+            throw new OrderProcessingException("Order side is required for " + order.getOrderType() + " orders",
+                    order.getOrderId(), "Missing side");
+        }
+        order.setSide(side);
+        orderBookLoader.beforeChange(order.getSymbol());
+
+        OrderType type = order.getOrderType();
+        boolean stop = type == OrderType.STOP || type == OrderType.STOP_LIMIT;
+        // MARKET and STOP orders, and BUY/SELL orders without a price, take whatever liquidity is available
+        boolean market = type == OrderType.MARKET || type == OrderType.STOP || order.getPrice() == null;
+        if ((type == OrderType.LIMIT || type == OrderType.STOP_LIMIT) && order.getPrice() == null) {
+            throw new OrderProcessingException("Limit price is required for " + type + " orders",
+                    order.getOrderId(), "Missing price");
+        }
+        if (stop && order.getStopPrice() == null) {
+            throw new OrderProcessingException("Stop price is required for " + type + " orders",
+                    order.getOrderId(), "Missing stop price");
+        }
+        long limitPrice = market ? FixedPointPrice.ZERO : FixedPointPrice.fromBigDecimal(order.getPrice());
+
+        MatchResult result = stop
+                ? matchingEngine.submitStop(order.getOrderId(), order.getSymbol(), side,
+                        FixedPointPrice.fromBigDecimal(order.getStopPrice()), limitPrice, market, order.getQuantity())
+                : matchingEngine.submit(order.getOrderId(), order.getSymbol(), side,
+                        limitPrice, market, order.getQuantity());
+
+        if (result.isStopPending()) {
+            order.setFilledQuantity(0);
+            order.setRemainingQuantity(order.getQuantity());
+            order.setStatus(OrderStatus.PENDING);
+            order.setNotes("Waiting for stop price " + order.getStopPrice().toPlainString());
+            return;
+        }
+        if (stop) {
+            order.setTriggeredAt(LocalDateTime.now());
+        }
+        applyResult(order, result, makers);
+
+        if (!result.getActivations().isEmpty()) {
+            // Triggered stops may trade against this order, so it must be found among the touched orders
+            makers.put(order.getOrderId(), order);
+            for (StopActivation activation : result.getActivations()) {
+                applyActivation(activation, makers);
+            }
+        }
+    }
+
+    /**
+     * Applies the result of matching to the order that was matched (the taker).
+     *
+     * @param order the matched order
+     * @param result the result of matching the order
+     * @param makers resting orders touched by the execution, keyed by order ID
+     */
+    private void applyResult(TradeOrder order, MatchResult result, Map<UUID, TradeOrder> makers) {
+        int filled = 0;
+        long notional = 0;
+        for (Fill fill : result.getFills()) {
+            applyFillToMaker(fill, makers);
+            filled += fill.getQuantity();
+            notional += FixedPointPrice.multiply(fill.getPrice(), fill.getQuantity());
+            reportFill(order, fill.getQuantity(), fill.getPrice(), filled, order.getQuantity() - filled,
+                    FixedPointPrice.divide(notional, filled));
+        }
+
+        order.setFilledQuantity(result.getFilledQuantity());
+        order.setRemainingQuantity(result.getRemainingQuantity());
+        order.setExecutionPrice(result.getFilledQuantity() > 0
+                ? FixedPointPrice.toBigDecimal(result.getAveragePrice())
+                : null);
+
+        if (result.getRemainingQuantity() == 0) {
+            order.setStatus(OrderStatus.FILLED);
+            order.setExecutedAt(LocalDateTime.now());
+        } else if (result.isResting()) {
+            order.setStatus(result.getFilledQuantity() > 0 ? OrderStatus.PARTIALLY_FILLED : OrderStatus.PENDING);
+        } else {
+            // Unfilled remainder of a market order is cancelled
+            order.setStatus(OrderStatus.CANCELLED);
+            releaseOpenSell(order);
+            order.setNotes(result.getFilledQuantity() > 0
+                    ? "Unfilled remainder cancelled: insufficient liquidity"
+                    : "Cancelled: no liquidity available");
+        }
+    }
+
+    /**
+     * Applies the result of a triggered stop order to that order.
+     *
+     * @param activation the triggered stop and the result of matching it
+     * @param makers orders touched by the execution, keyed by order ID; the stop order is added if it was not present
+     */
+    private void applyActivation(StopActivation activation, Map<UUID, TradeOrder> makers) {
+        TradeOrder order = makers.get(activation.getOrderId());
+        if (order == null) {
+            order = tradeOrderStore.findById(activation.getOrderId()).orElse(null);
+            if (order == null) {
+                log.warn("Stop order {} not found while applying its activation", activation.getOrderId());
+                return;
+            }
+            makers.put(order.getOrderId(), order);
+        }
+
+        log.debug("Stop order {} triggered at {}", order.getOrderId(), FixedPointPrice.format(activation.getTriggerPrice()));
+        order.setTriggeredAt(LocalDateTime.now());
+        order.setNotes("Triggered at " + FixedPointPrice.format(activation.getTriggerPrice()));
+        applyResult(order, activation.getResult(), makers);
+        order.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Applies a fill to the resting (maker) order it executed against.
+     *
+     * @param fill the fill to apply
+     * @param makers resting orders already touched, keyed by order ID; the maker is added if it was not present
+     */
+    private void applyFillToMaker(Fill fill, Map<UUID, TradeOrder> makers) {
+        TradeOrder maker = makers.get(fill.getMakerOrderId());
+        if (maker == null) {
+            maker = tradeOrderStore.findById(fill.getMakerOrderId()).orElse(null);
+            if (maker == null) {
+                log.warn("Resting order {} not found while applying fill", fill.getMakerOrderId());
+                return;
+            }
+            makers.put(maker.getOrderId(), maker);
+        }
+
+        int previouslyFilled = maker.getFilledQuantity() != null ? maker.getFilledQuantity() : 0;
+        int filled = previouslyFilled + fill.getQuantity();
+        long previousNotional = FixedPointPrice.multiply(
+                FixedPointPrice.fromBigDecimal(maker.getExecutionPrice(), FixedPointPrice.ZERO), previouslyFilled);
+        long notional = previousNotional + FixedPointPrice.multiply(fill.getPrice(), fill.getQuantity());
+
+        long averagePrice = FixedPointPrice.divide(notional, filled);
+
+        maker.setFilledQuantity(filled);
+        maker.setRemainingQuantity(fill.getMakerRemainingQuantity());
+        maker.setExecutionPrice(FixedPointPrice.toBigDecimal(averagePrice));
+        maker.setUpdatedAt(LocalDateTime.now());
+        if (fill.getMakerRemainingQuantity() == 0) {
+            maker.setStatus(OrderStatus.FILLED);
+            maker.setExecutedAt(LocalDateTime.now());
+        } else {
+            maker.setStatus(OrderStatus.PARTIALLY_FILLED);
+        }
+        reportFill(maker, fill.getQuantity(), fill.getPrice(), filled, fill.getMakerRemainingQuantity(), averagePrice);
+    }
+
+    /**
+     * Applies one fill of an order to the user's cached position and publishes its execution report.
+     *
+     * @param order the filled order
+     * @param quantity the quantity of the fill
+     * @param price the price of the fill in ticks
+     * @param filled the total quantity filled on the order, including this fill
+     * @param remaining the quantity of the order still open after this fill
+     * @param averagePrice the average execution price of the order in ticks, including this fill
+     */
+    private void reportFill(TradeOrder order, int quantity, long price, int filled, int remaining, long averagePrice) {
+        OrderSide side = OrderSide.resolve(order.getOrderType(), order.getSide());
+        long positionSequence = positionCache.applyFill(order.getUserId(), order.getSymbol(), side, quantity);
+        executionReportPublisher.publish(ExecutionReportDTO.builder()
+                .orderId(order.getOrderId())
+                .userId(order.getUserId())
+                .symbol(order.getSymbol())
+                .side(side)
+                .status(remaining == 0 ? OrderStatus.FILLED : OrderStatus.PARTIALLY_FILLED)
+                .fillQuantity(quantity)
+                .fillPrice(FixedPointPrice.toBigDecimal(price))
+                .filledQuantity(filled)
+                .remainingQuantity(remaining)
+                .averagePrice(FixedPointPrice.toBigDecimal(averagePrice))
+                .executedAt(LocalDateTime.now())
+                .positionSequence(positionSequence)
+                .build());
+    }
+
     /**
      * Simulates the execution of a trade order.
      * In a real system, this would involve matching with other orders, checking balances, etc.
+     * The order is filled incrementally in chunks of at most {@code trade.execution.simulated.max-fill-quantity},
+     * each at a price drifting slightly from the last, and every chunk is reported as a fill.
      *
      * @param order the order to execute
      */
@@ -128,84 +660,49 @@ public class TradeOrderService {
             throw new OrderProcessingException("Order execution was interrupted", order.getOrderId());
         }
 
+        // Randomly fail some orders for testing, before any fill is reported
+        if (random.nextInt(100) < 5) { // 5% failure rate
+            throw new OrderProcessingException("Simulated random execution failure", order.getOrderId());
+        }
+
         // Simulate market price for the order
-        BigDecimal marketPrice;
+        long marketPrice;
         if (order.getPrice() != null) {
             // Use the order price with a small random variation
             double variation = 0.98 + (random.nextDouble() * 0.04); // +/- 2%
-            marketPrice = order.getPrice().multiply(BigDecimal.valueOf(variation))
-                    .setScale(2, RoundingMode.HALF_UP);
+            marketPrice = FixedPointPrice.scale(FixedPointPrice.fromBigDecimal(order.getPrice()), variation, 2);
         } else {
             // Generate a random price between 10 and 1000
-            marketPrice = BigDecimal.valueOf(10 + random.nextInt(990))
-                    .setScale(2, RoundingMode.HALF_UP);
+            marketPrice = FixedPointPrice.ofUnits(10 + random.nextInt(990));
         }
 
-        // Set execution details
-        order.setExecutionPrice(marketPrice);
-        order.setFilledQuantity(order.getQuantity());
-        order.setRemainingQuantity(0);
-
-        // Randomly fail some orders for testing
-        if (random.nextInt(100) < 5) { // 5% failure rate
-            throw new OrderProcessingException("Simulated random execution failure", order.getOrderId());
+        // Fill against the simulated liquidity, keeping the running notional so the average is O(1) per fill
+        int filled = 0;
+        long notional = 0;
+        while (filled < order.getQuantity()) {
+            int quantity = Math.min(order.getQuantity() - filled, 1 + random.nextInt(simulatedMaxFillQuantity));
+            marketPrice = FixedPointPrice.scale(marketPrice, 0.999 + random.nextDouble() * 0.002, 2); // +/- 0.1%
+            filled += quantity;
+            notional += FixedPointPrice.multiply(marketPrice, quantity);
+            reportFill(order, quantity, marketPrice, filled, order.getQuantity() - filled,
+                    FixedPointPrice.divide(notional, filled));
         }
-    }
 
-    /**
-     * Converts a TradeOrderDTO to a TradeOrder entity.
-     *
-     * @param dto the DTO to convert
-     * @return the entity
-     */
-    private TradeOrder convertToEntity(TradeOrderDTO dto) {
-        return TradeOrder.builder()
-                .orderId(dto.getOrderId())
-                .userId(dto.getUserId())
-                .symbol(dto.getSymbol())
-                .orderType(dto.getOrderType())
-                .status(dto.getStatus())
-                .quantity(dto.getQuantity())
-                .price(dto.getPrice())
-                .stopPrice(dto.getStopPrice())
-                .createdAt(dto.getCreatedAt())
-                .updatedAt(dto.getUpdatedAt())
-                .executedAt(dto.getExecutedAt())
-                .expiresAt(dto.getExpiresAt())
-                .executionPrice(dto.getExecutionPrice())
-                .filledQuantity(dto.getFilledQuantity())
-                .remainingQuantity(dto.getRemainingQuantity())
-                .notes(dto.getNotes())
-                .processingAttempts(0)
-                .lastErrorMessage(null)
-                .lastProcessingAttempt(null)
-                .build();
+        // Set execution details
+        order.setExecutionPrice(FixedPointPrice.toBigDecimal(FixedPointPrice.divide(notional, filled)));
+        order.setFilledQuantity(filled);
+        order.setRemainingQuantity(0);
     }
 
     /**
-     * Converts a TradeOrder entity to a TradeOrderDTO.
-     *
-     * @param entity the entity to convert
-     * @return the DTO
-     */
-    private TradeOrderDTO convertToDTO(TradeOrder entity) {
-        return TradeOrderDTO.builder()
-                .orderId(entity.getOrderId())
-                .userId(entity.getUserId())
-                .symbol(entity.getSymbol())
-                .orderType(entity.getOrderType())
-                .status(entity.getStatus())
-                .quantity(entity.getQuantity())
-                .price(entity.getPrice())
-                .stopPrice(entity.getStopPrice())
-                .createdAt(entity.getCreatedAt())
-                .updatedAt(entity.getUpdatedAt())
-                .executedAt(entity.getExecutedAt())
-                .expiresAt(entity.getExpiresAt())
-                .executionPrice(entity.getExecutionPrice())
-                .filledQuantity(entity.getFilledQuantity())
-                .remainingQuantity(entity.getRemainingQuantity())
-                .notes(entity.getNotes())
-                .build();
+     * Hands orders changed by the current transaction to the lookup cache, the order status stream and
+     * the expiry tracker, which apply them once it commits.
+     *
+     * @param orders the changed orders
+     */
+    private void publishChanges(Collection<TradeOrder> orders) {
+        orderLookupCache.update(orders, TradeOrderMapper::toDTO);
+        orderStatusStream.publish(orders, TradeOrderMapper::toSummary);
+        orderExpiryTracker.update(orders);
     }
-}
\ No newline at end of file
+}
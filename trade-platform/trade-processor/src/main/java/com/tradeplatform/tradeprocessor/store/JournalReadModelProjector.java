@@ -0,0 +1,165 @@
+package com.tradeplatform.tradeprocessor.store;
+
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.journal.JournalRecord;
+import com.tradeplatform.tradeprocessor.journal.JournalRecordType;
+import com.tradeplatform.tradeprocessor.journal.OrderJournal;
+import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains the {@code trade_orders} table as a read model of the order journal.
+ * <p>
+ * Records are tailed in batches; all records of one order within a batch are folded into a single row
+ * update, and each batch is written with one {@code saveAll} in one transaction so Hibernate can use JDBC
+ * batching. Projection is idempotent, so the checkpoint is kept in memory and the journal is re-projected
+ * from the start after a restart, which also rebuilds an in-memory database. The journal is tailed with one
+ * {@link OrderJournal.Reader}, so each poll continues where the previous one stopped.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.journal.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class JournalReadModelProjector {
+
+    private final OrderJournal orderJournal;
+    private final TradeOrderRepository tradeOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${trade.journal.projection-batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * Sequence of the last record applied to the read model.
+     */
+    private volatile long checkpoint;
+
+    /**
+     * Reader positioned after the checkpoint, opened on first use and reopened after a failed batch.
+     */
+    private OrderJournal.Reader reader;
+
+    /**
+     * Record instance the reader decodes into.
+     */
+    private final JournalRecord replayed = new JournalRecord();
+
+    /**
+     * Applies journal records to the read model until it has caught up with the journal.
+     */
+    @Scheduled(fixedDelayString = "${trade.journal.projection-interval-ms:100}")
+    public void project() {
+        int applied;
+        do {
+            applied = projectBatch();
+        } while (applied == batchSize);
+    }
+
+    /**
+     * Returns the sequence of the last record applied to the read model.
+     *
+     * @return the checkpoint sequence
+     */
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Returns how many journal records have not yet been applied to the read model.
+     *
+     * @return the projection lag in records
+     */
+    public long getLag() {
+        return orderJournal.getLastSequence() - checkpoint;
+    }
+
+    /**
+     * Applies the next batch of journal records to the read model.
+     *
+     * @return the number of records applied
+     */
+    private int projectBatch() {
+        // Full states of orders accepted in this batch, and the latest execution state of other orders
+        Map<UUID, JournalRecord> accepted = new LinkedHashMap<>();
+        Map<UUID, JournalRecord> transitions = new LinkedHashMap<>();
+        int[] count = {0};
+
+        if (reader == null) {
+            reader = orderJournal.reader(checkpoint + 1);
+        }
+        long last = reader.read(batchSize, replayed, record -> {
+            count[0]++;
+            if (record.getType() == JournalRecordType.ACCEPTED) {
+                transitions.remove(record.getOrderId());
+                accepted.computeIfAbsent(record.getOrderId(), id -> new JournalRecord()).copyFrom(record);
+            } else {
+                JournalRecord target = accepted.get(record.getOrderId());
+                if (target == null) {
+                    target = transitions.computeIfAbsent(record.getOrderId(), id -> new JournalRecord());
+                }
+                target.copyStateFrom(record);
+            }
+        });
+        if (count[0] == 0) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(accepted, transitions));
+        } catch (RuntimeException e) {
+            // The reader has moved past the batch; start again from the checkpoint on the next poll
+            reader = null;
+            throw e;
+        }
+        checkpoint = last;
+        log.debug("Projected {} journal records up to sequence {}", count[0], last);
+        return count[0];
+    }
+
+    private void apply(Map<UUID, JournalRecord> accepted, Map<UUID, JournalRecord> transitions) {
+        Set<UUID> orderIds = new LinkedHashSet<>(accepted.keySet());
+        orderIds.addAll(transitions.keySet());
+        Map<UUID, TradeOrder> existing = new HashMap<>();
+        for (TradeOrder order : tradeOrderRepository.findAllById(orderIds)) {
+            existing.put(order.getOrderId(), order);
+        }
+
+        List<TradeOrder> orders = new ArrayList<>(orderIds.size());
+        for (JournalRecord record : accepted.values()) {
+            TradeOrder order = existing.get(record.getOrderId());
+            if (order == null) {
+                order = TradeOrderRecords.toEntity(record);
+                order.setNewEntity(true);
+            } else {
+                TradeOrderRecords.applyState(record, order);
+            }
+            orders.add(order);
+        }
+        for (JournalRecord record : transitions.values()) {
+            TradeOrder order = existing.get(record.getOrderId());
+            if (order == null) {
+                log.warn("Order {} not found in read model while projecting sequence {}",
+                        record.getOrderId(), record.getSequence());
+                continue;
+            }
+            TradeOrderRecords.applyState(record, order);
+            orders.add(order);
+        }
+        tradeOrderRepository.saveAll(orders);
+    }
+}
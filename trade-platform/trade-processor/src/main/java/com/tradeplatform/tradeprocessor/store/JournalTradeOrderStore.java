@@ -0,0 +1,344 @@
+package com.tradeplatform.tradeprocessor.store;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.journal.JournalException;
+import com.tradeplatform.tradeprocessor.journal.JournalRecord;
+import com.tradeplatform.tradeprocessor.journal.JournalRecordType;
+import com.tradeplatform.tradeprocessor.journal.JournalSnapshots;
+import com.tradeplatform.tradeprocessor.journal.OrderJournal;
+import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Trade order store that appends every state transition to the {@link OrderJournal} instead of updating
+ * the database. The journal is the system of record; the {@code trade_orders} table is maintained
+ * asynchronously by the {@link JournalReadModelProjector}, so API reads may briefly lag execution.
+ * <p>
+ * The latest state of every open order is kept in memory for execution lookups and is snapshotted
+ * periodically. On startup the latest snapshot is loaded and the journal is replayed from the snapshot
+ * sequence.
+ * <p>
+ * Orders saved inside a transaction are held back, and only the last state of each is journaled once the
+ * transaction commits, so a rolled-back execution leaves neither the journal nor the open orders changed.
+ * Lookups within the transaction see its pending states.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.journal.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class JournalTradeOrderStore implements TradeOrderStore {
+
+    private static final Set<OrderStatus> OPEN_STATUSES = EnumSet.of(
+            OrderStatus.CREATED, OrderStatus.PENDING, OrderStatus.PROCESSING, OrderStatus.PARTIALLY_FILLED);
+
+    private static final Set<OrderStatus> RESTING_STATUSES = EnumSet.of(
+            OrderStatus.PENDING, OrderStatus.PARTIALLY_FILLED);
+
+    private final OrderJournal orderJournal;
+    private final JournalSnapshots journalSnapshots;
+    private final JournalReadModelProjector readModelProjector;
+    private final TradeOrderRepository tradeOrderRepository;
+
+    /**
+     * Latest state of every open order as an ACCEPTED record. Records are replaced, never mutated,
+     * once they are in the map, so the snapshotter can read them while shards keep executing.
+     */
+    private final ConcurrentMap<UUID, JournalRecord> openOrders = new ConcurrentHashMap<>();
+
+    @Value("${trade.journal.delete-projected-segments:false}")
+    private boolean deleteProjectedSegments;
+
+    /**
+     * Journal sequence covered by the most recent snapshot.
+     */
+    private volatile long snapshotSequence;
+
+    /**
+     * Rebuilds the open orders from the latest snapshot and the journal.
+     *
+     * @throws JournalException if the journal is older than the snapshot
+     */
+    @PostConstruct
+    public void recover() {
+        long sequence = journalSnapshots.load(record -> openOrders.put(record.getOrderId(), record));
+        if (orderJournal.getLastSequence() < sequence) {
+            throw new JournalException("Order journal ends at sequence " + orderJournal.getLastSequence()
+                    + " but the latest snapshot covers sequence " + sequence);
+        }
+        snapshotSequence = sequence;
+
+        long replayed = orderJournal.replay(sequence + 1, Integer.MAX_VALUE, new JournalRecord(), this::applyReplayed)
+                - sequence;
+        log.info("Recovered {} open orders from snapshot at sequence {} and {} journal records",
+                openOrders.size(), sequence, replayed);
+    }
+
+    @Override
+    public Optional<TradeOrder> findById(UUID orderId) {
+        JournalRecord record = lookup(pending(), orderId);
+        if (record != null) {
+            return Optional.of(TradeOrderRecords.toEntity(record));
+        }
+        return tradeOrderRepository.findById(orderId);
+    }
+
+    /**
+     * Loads several orders. Only open orders are held in memory, so any others are read from the read model.
+     */
+    @Override
+    public List<TradeOrder> findAllById(Collection<UUID> orderIds) {
+        Map<UUID, JournalRecord> pending = pending();
+        List<TradeOrder> orders = new ArrayList<>(orderIds.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+            JournalRecord record = lookup(pending, orderId);
+            if (record != null) {
+                orders.add(TradeOrderRecords.toEntity(record));
+            } else {
+                missing.add(orderId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            orders.addAll(tradeOrderRepository.findAllById(missing));
+        }
+        return orders;
+    }
+
+    /**
+     * Loads orders with an expiry time from the open orders; closed orders are never returned.
+     */
+    @Override
+    public List<TradeOrder> findWithExpiry(Collection<OrderStatus> statuses) {
+        return openOrders.values().stream()
+                .filter(record -> record.getExpiresAt() != JournalRecord.NULL_LONG)
+                .filter(record -> statuses.contains(TradeOrderRecords.statusOf(record)))
+                .map(TradeOrderRecords::toEntity)
+                .toList();
+    }
+
+    /**
+     * Loads the waiting orders from the open orders, in the order their ACCEPTED records were journaled.
+     */
+    @Override
+    public List<TradeOrder> findWaiting() {
+        return findWaiting(record -> true);
+    }
+
+    @Override
+    public List<TradeOrder> findWaiting(String symbol) {
+        return findWaiting(record -> symbol.equals(record.getSymbol()));
+    }
+
+    /**
+     * Checks the open orders first and the read model for the rest, so closed orders are found once projected.
+     */
+    @Override
+    public Set<UUID> findExistingIds(Collection<UUID> orderIds) {
+        Map<UUID, JournalRecord> pending = pending();
+        Set<UUID> existingIds = new HashSet<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+            if (lookup(pending, orderId) != null) {
+                existingIds.add(orderId);
+            } else {
+                missing.add(orderId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (TradeOrder existing : tradeOrderRepository.findAllById(missing)) {
+                existingIds.add(existing.getOrderId());
+            }
+        }
+        return existingIds;
+    }
+
+    @Override
+    public TradeOrder save(TradeOrder order) {
+        stage(order);
+        return order;
+    }
+
+    @Override
+    public void saveAll(Collection<TradeOrder> orders) {
+        for (TradeOrder order : orders) {
+            stage(order);
+        }
+    }
+
+    /**
+     * Forces appended journal records to disk. The interval bounds how much can be lost in a power failure;
+     * a process crash loses nothing, since the records are already in the page cache.
+     */
+    @Scheduled(fixedDelayString = "${trade.journal.flush-interval-ms:100}")
+    public void flush() {
+        orderJournal.flush();
+    }
+
+    /**
+     * Writes a snapshot of the open orders and, if enabled, deletes journal segments that are covered by
+     * both the snapshot and the read model.
+     * The snapshot sequence is read before the open orders are copied, so some copied records may be newer
+     * than it; replay skips records not newer than the state already loaded, which keeps this consistent.
+     */
+    @Scheduled(fixedDelayString = "${trade.journal.snapshot-interval-ms:60000}",
+            initialDelayString = "${trade.journal.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        long sequence = orderJournal.getLastSequence();
+        if (sequence == snapshotSequence) {
+            return;
+        }
+        journalSnapshots.write(sequence, List.copyOf(openOrders.values()));
+        snapshotSequence = sequence;
+
+        if (deleteProjectedSegments) {
+            int deleted = orderJournal.deleteSegmentsThrough(Math.min(sequence, readModelProjector.getCheckpoint()));
+            if (deleted > 0) {
+                log.info("Deleted {} journal segment(s) covered by the snapshot and the read model", deleted);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of open orders held in memory.
+     *
+     * @return the open order count
+     */
+    public int getOpenOrderCount() {
+        return openOrders.size();
+    }
+
+    /**
+     * Journals the current state of an order, once the current transaction commits if there is one.
+     *
+     * @param order the order
+     */
+    private void stage(TradeOrder order) {
+        JournalRecord state = TradeOrderRecords.toRecord(order);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(state);
+            return;
+        }
+
+        Map<UUID, JournalRecord> pending = pending();
+        if (pending == null) {
+            Map<UUID, JournalRecord> states = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, states);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    states.values().forEach(JournalTradeOrderStore.this::append);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(JournalTradeOrderStore.this);
+                }
+            });
+            pending = states;
+        }
+        pending.put(order.getOrderId(), state);
+    }
+
+    /**
+     * Returns the states saved by the current transaction and not yet journaled.
+     *
+     * @return the pending states by order ID, or null if the transaction has saved none
+     */
+    @SuppressWarnings("unchecked")
+    private Map<UUID, JournalRecord> pending() {
+        return (Map<UUID, JournalRecord>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private JournalRecord lookup(Map<UUID, JournalRecord> pending, UUID orderId) {
+        JournalRecord record = pending != null ? pending.get(orderId) : null;
+        return record != null ? record : openOrders.get(orderId);
+    }
+
+    /**
+     * Appends the state of an order to the journal and updates the open orders.
+     * The first record of an order carries its full state; later ones only its execution state.
+     *
+     * @param state the full state of the order, as an ACCEPTED record
+     */
+    private void append(JournalRecord state) {
+        JournalRecord previous = openOrders.get(state.getOrderId());
+        if (previous != null) {
+            state.setAcceptedSequence(previous.getAcceptedSequence());
+            state.setType(JournalRecordType.TRANSITION);
+        }
+
+        long sequence = orderJournal.append(state);
+        if (previous == null) {
+            state.setAcceptedSequence(sequence);
+        }
+        state.setType(JournalRecordType.ACCEPTED);
+        track(state);
+    }
+
+    /**
+     * Applies a record replayed from the journal on top of the state loaded so far.
+     *
+     * @param record the replayed record, reused by the journal for the next record
+     */
+    private void applyReplayed(JournalRecord record) {
+        JournalRecord current = openOrders.get(record.getOrderId());
+        if (current != null && record.getSequence() <= current.getSequence()) {
+            // Already reflected in the snapshot
+            return;
+        }
+
+        JournalRecord state = new JournalRecord();
+        if (record.getType() == JournalRecordType.ACCEPTED) {
+            state.copyFrom(record);
+        } else if (current != null) {
+            state.copyFrom(current);
+            state.copyStateFrom(record);
+        } else {
+            // Transition of an order that was already closed
+            return;
+        }
+        track(state);
+    }
+
+    private List<TradeOrder> findWaiting(Predicate<JournalRecord> filter) {
+        return openOrders.values().stream()
+                .filter(filter)
+                .filter(record -> RESTING_STATUSES.contains(TradeOrderRecords.statusOf(record)))
+                .filter(record -> record.getRemainingQuantity() > 0)
+                .sorted(Comparator.comparingLong(JournalRecord::getAcceptedSequence))
+                .map(TradeOrderRecords::toEntity)
+                .toList();
+    }
+
+    private void track(JournalRecord state) {
+        if (OPEN_STATUSES.contains(TradeOrderRecords.statusOf(state))) {
+            openOrders.put(state.getOrderId(), state);
+        } else {
+            openOrders.remove(state.getOrderId());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tradeplatform.tradeprocessor.store;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.repository.TradeOrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Trade order store writing every state transition straight to the {@code trade_orders} table.
+ * Used unless the order journal is enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "trade.journal.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaTradeOrderStore implements TradeOrderStore {
+
+    private static final Set<OrderStatus> RESTING_STATUSES = EnumSet.of(
+            OrderStatus.PENDING, OrderStatus.PARTIALLY_FILLED);
+
+    private final TradeOrderRepository tradeOrderRepository;
+
+    @Override
+    public Optional<TradeOrder> findById(UUID orderId) {
+        return tradeOrderRepository.findById(orderId);
+    }
+
+    @Override
+    public List<TradeOrder> findAllById(Collection<UUID> orderIds) {
+        return tradeOrderRepository.findAllById(orderIds);
+    }
+
+    @Override
+    public List<TradeOrder> findWithExpiry(Collection<OrderStatus> statuses) {
+        return tradeOrderRepository.findByStatusInAndExpiresAtIsNotNull(statuses);
+    }
+
+    /**
+     * Loads the waiting orders by creation time, the closest the table has to the order they were accepted in.
+     */
+    @Override
+    public List<TradeOrder> findWaiting() {
+        return tradeOrderRepository.findWaiting(RESTING_STATUSES);
+    }
+
+    @Override
+    public List<TradeOrder> findWaiting(String symbol) {
+        return tradeOrderRepository.findWaiting(symbol, RESTING_STATUSES);
+    }
+
+    @Override
+    public Set<UUID> findExistingIds(Collection<UUID> orderIds) {
+        Set<UUID> existingIds = new HashSet<>();
+        for (TradeOrder existing : tradeOrderRepository.findAllById(orderIds)) {
+            existingIds.add(existing.getOrderId());
+        }
+        return existingIds;
+    }
+
+    @Override
+    public TradeOrder save(TradeOrder order) {
+        return tradeOrderRepository.save(order);
+    }
+
+    @Override
+    public void saveAll(Collection<TradeOrder> orders) {
+        tradeOrderRepository.saveAll(orders);
+    }
+}
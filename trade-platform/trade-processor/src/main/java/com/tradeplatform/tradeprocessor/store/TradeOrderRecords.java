@@ -0,0 +1,167 @@
+package com.tradeplatform.tradeprocessor.store;
+
+import com.tradeplatform.common.dto.OrderSide;
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.common.dto.OrderType;
+import com.tradeplatform.common.price.FixedPointPrice;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import com.tradeplatform.tradeprocessor.journal.JournalRecord;
+import com.tradeplatform.tradeprocessor.journal.JournalRecordType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions between trade order entities and journal records.
+ */
+final class TradeOrderRecords {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final OrderSide[] ORDER_SIDES = OrderSide.values();
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+
+    private TradeOrderRecords() {
+    }
+
+    /**
+     * Creates an ACCEPTED record holding the full state of an order.
+     *
+     * @param order the order
+     * @return a new record
+     */
+    static JournalRecord toRecord(TradeOrder order) {
+        JournalRecord record = new JournalRecord();
+        record.setType(JournalRecordType.ACCEPTED);
+        record.setOrderId(order.getOrderId());
+        record.setUserId(order.getUserId());
+        record.setSymbol(order.getSymbol());
+        record.setOrderType(toByte(order.getOrderType()));
+        record.setSide(toByte(order.getSide()));
+        record.setQuantity(toInt(order.getQuantity()));
+        record.setPrice(toTicks(order.getPrice()));
+        record.setStopPrice(toTicks(order.getStopPrice()));
+        record.setCreatedAt(toNanos(order.getCreatedAt()));
+        record.setExpiresAt(toNanos(order.getExpiresAt()));
+
+        record.setStatus(toByte(order.getStatus()));
+        record.setFilledQuantity(toInt(order.getFilledQuantity()));
+        record.setRemainingQuantity(toInt(order.getRemainingQuantity()));
+        record.setExecutionPrice(toTicks(order.getExecutionPrice()));
+        record.setUpdatedAt(toNanos(order.getUpdatedAt()));
+        record.setExecutedAt(toNanos(order.getExecutedAt()));
+        record.setTriggeredAt(toNanos(order.getTriggeredAt()));
+        record.setProcessingAttempts(toInt(order.getProcessingAttempts()));
+        record.setLastProcessingAttempt(toNanos(order.getLastProcessingAttempt()));
+        record.setNotes(order.getNotes());
+        record.setLastErrorMessage(order.getLastErrorMessage());
+        return record;
+    }
+
+    /**
+     * Creates an order entity from a record holding the full state of an order.
+     *
+     * @param record the ACCEPTED record
+     * @return a new, detached entity
+     */
+    static TradeOrder toEntity(JournalRecord record) {
+        TradeOrder order = TradeOrder.builder()
+                .orderId(record.getOrderId())
+                .userId(record.getUserId())
+                .symbol(record.getSymbol())
+                .orderType(orderTypeOf(record))
+                .side(sideOf(record))
+                .quantity(fromInt(record.getQuantity()))
+                .price(fromTicks(record.getPrice()))
+                .stopPrice(fromTicks(record.getStopPrice()))
+                .createdAt(fromNanos(record.getCreatedAt()))
+                .expiresAt(fromNanos(record.getExpiresAt()))
+                .build();
+        applyState(record, order);
+        return order;
+    }
+
+    /**
+     * Applies the execution state of a record to an order entity.
+     *
+     * @param record the record
+     * @param order the entity to update
+     */
+    static void applyState(JournalRecord record, TradeOrder order) {
+        order.setStatus(statusOf(record));
+        order.setFilledQuantity(fromInt(record.getFilledQuantity()));
+        order.setRemainingQuantity(fromInt(record.getRemainingQuantity()));
+        order.setExecutionPrice(fromTicks(record.getExecutionPrice()));
+        order.setUpdatedAt(fromNanos(record.getUpdatedAt()));
+        order.setExecutedAt(fromNanos(record.getExecutedAt()));
+        order.setTriggeredAt(fromNanos(record.getTriggeredAt()));
+        order.setProcessingAttempts(fromInt(record.getProcessingAttempts()));
+        order.setLastProcessingAttempt(fromNanos(record.getLastProcessingAttempt()));
+        order.setNotes(record.getNotes());
+        order.setLastErrorMessage(record.getLastErrorMessage());
+    }
+
+    /**
+     * Returns the status held by a record.
+     *
+     * @param record the record
+     * @return the order status, or null if absent
+     */
+    static OrderStatus statusOf(JournalRecord record) {
+        return record.getStatus() == JournalRecord.NULL_BYTE ? null : ORDER_STATUSES[record.getStatus()];
+    }
+
+    /**
+     * Returns the order type held by a record.
+     *
+     * @param record the record
+     * @return the order type, or null if absent
+     */
+    static OrderType orderTypeOf(JournalRecord record) {
+        return record.getOrderType() == JournalRecord.NULL_BYTE ? null : ORDER_TYPES[record.getOrderType()];
+    }
+
+    /**
+     * Returns the side held by a record.
+     *
+     * @param record the record
+     * @return the order side, or null if absent
+     */
+    static OrderSide sideOf(JournalRecord record) {
+        return record.getSide() == JournalRecord.NULL_BYTE ? null : ORDER_SIDES[record.getSide()];
+    }
+
+    private static byte toByte(Enum<?> value) {
+        return value == null ? JournalRecord.NULL_BYTE : (byte) value.ordinal();
+    }
+
+    private static int toInt(Integer value) {
+        return value == null ? JournalRecord.NULL_INT : value;
+    }
+
+    private static Integer fromInt(int value) {
+        return value == JournalRecord.NULL_INT ? null : value;
+    }
+
+    private static long toTicks(BigDecimal price) {
+        return price == null ? JournalRecord.NULL_LONG : FixedPointPrice.fromBigDecimal(price);
+    }
+
+    private static BigDecimal fromTicks(long ticks) {
+        return ticks == JournalRecord.NULL_LONG ? null : FixedPointPrice.toBigDecimal(ticks);
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        return time == null
+                ? JournalRecord.NULL_LONG
+                : time.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + time.getNano();
+    }
+
+    private static LocalDateTime fromNanos(long nanos) {
+        return nanos == JournalRecord.NULL_LONG
+                ? null
+                : LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                        (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,84 @@
+package com.tradeplatform.tradeprocessor.store;
+
+import com.tradeplatform.common.dto.OrderStatus;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Write-side store for trade orders being executed.
+ * Queries serving the API go to the repository, which is the read model; this store is what the
+ * execution path reads resting orders from and records state transitions to.
+ */
+public interface TradeOrderStore {
+
+    /**
+     * Loads an order for execution, typically a resting order that has just been traded against.
+     * Callers may mutate the returned order and must {@link #save} it to record the change.
+     *
+     * @param orderId the order ID
+     * @return the order, or empty if it is not known
+     */
+    Optional<TradeOrder> findById(UUID orderId);
+
+    /**
+     * Loads several orders for execution.
+     *
+     * @param orderIds the order IDs
+     * @return the orders that are known, in no particular order
+     */
+    List<TradeOrder> findAllById(Collection<UUID> orderIds);
+
+    /**
+     * Loads every order in one of the given statuses that has an expiry time, used to rebuild the
+     * expiry schedule on startup.
+     *
+     * @param statuses the order statuses
+     * @return the orders
+     */
+    List<TradeOrder> findWithExpiry(Collection<OrderStatus> statuses);
+
+    /**
+     * Loads every order waiting on a book, resting or as a stop order that has not been triggered, in the
+     * order it was accepted in, used to rebuild the order books on startup.
+     *
+     * @return the orders, oldest first
+     */
+    List<TradeOrder> findWaiting();
+
+    /**
+     * Loads the orders waiting on the book of one symbol, in the order they were accepted in, used to reload a
+     * book that a rolled-back transaction had changed.
+     *
+     * @param symbol the symbol/ticker
+     * @return the orders, oldest first
+     */
+    List<TradeOrder> findWaiting(String symbol);
+
+    /**
+     * Returns which of the given orders are already known to the store.
+     *
+     * @param orderIds the order IDs to check
+     * @return the IDs that are known
+     */
+    Set<UUID> findExistingIds(Collection<UUID> orderIds);
+
+    /**
+     * Records the current state of an order.
+     *
+     * @param order the order to save
+     * @return the saved order, which callers must use from then on
+     */
+    TradeOrder save(TradeOrder order);
+
+    /**
+     * Records the current state of several orders.
+     *
+     * @param orders the orders to save
+     */
+    void saveAll(Collection<TradeOrder> orders);
+}
@@ -0,0 +1,38 @@
+package com.tradeplatform.tradeprocessor.stream;
+
+import lombok.Value;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.util.Set;
+
+/**
+ * An event of the order status stream, already rendered as a server-sent event frame. The frame is built
+ * once and the same instance is written to every subscriber that receives the event.
+ */
+@Value
+class OrderStatusEvent {
+
+    /**
+     * Sequence number of the event within the stream, or the latest sequence number for control events.
+     */
+    long sequence;
+
+    /**
+     * User ID of the order the event is about, or {@code null} for control events sent to every subscriber.
+     */
+    String userId;
+
+    /**
+     * The rendered frame.
+     */
+    Set<DataWithMediaType> frame;
+
+    /**
+     * Whether the event goes to every subscriber, whatever user it filters by.
+     *
+     * @return true for control events
+     */
+    boolean isBroadcast() {
+        return userId == null;
+    }
+}
@@ -0,0 +1,430 @@
+package com.tradeplatform.tradeprocessor.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradeplatform.common.dto.OrderSummaryDTO;
+import com.tradeplatform.tradeprocessor.entity.TradeOrder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Pushes order state changes to clients as server-sent events, so they no longer have to poll the order
+ * listings.
+ * <p>
+ * Every state change committed by execution is published as an {@code order} event carrying the order
+ * summary, to all subscribers or only to those following the order's user. A single dispatcher thread
+ * numbers the events, serializes each one once into an SSE frame, and hands the same frame to every
+ * subscriber it goes to; each subscriber writes its queued frames on a virtual thread. A subscriber that
+ * falls {@code trade.stream.orders.subscriber-buffer} events behind is disconnected rather than buffered
+ * without bound.
+ * <p>
+ * The last {@code trade.stream.orders.history-size} events are kept, so a client that reconnects with the
+ * ID of the last event it received (the {@code Last-Event-ID} header) is sent only the events it missed.
+ * Event IDs include the start time of the stream. If the missed events are no longer kept, were lost
+ * because the dispatcher fell behind, or were published by an earlier run of the service, the client is
+ * sent a {@code reset} event instead and should reload its orders.
+ * <p>
+ * The stream covers the orders executed by this instance.
+ */
+@Component
+@Slf4j
+public class OrderStatusStream implements SmartLifecycle {
+
+    private static final String ORDER_EVENT = "order";
+    private static final String READY_EVENT = "ready";
+    private static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final int subscriberBufferSize;
+    private final long heartbeatIntervalMs;
+    private final long subscriptionTimeoutMs;
+
+    /**
+     * Identifies this run of the stream in event IDs, so IDs from an earlier run are never resumed from.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final BlockingQueue<OrderSummaryDTO> inbox;
+    private final AtomicLong dropped = new AtomicLong();
+    private final OrderStatusEvent heartbeat =
+            new OrderStatusEvent(0, null, SseEmitter.event().comment("heartbeat").build());
+
+    private final Object lock = new Object();
+    private final OrderStatusEvent[] history;
+    private final List<OrderStatusSubscriber> allOrdersSubscribers = new ArrayList<>();
+    private final Map<String, List<OrderStatusSubscriber>> userSubscribers = new HashMap<>();
+    private long latestSequence;
+    private long resumeFloor;
+    private int subscriberCount;
+
+    private final Counter eventsCounter;
+    private final Counter droppedCounter;
+    private final Counter slowDisconnectsCounter;
+
+    private final ExecutorService drainExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread dispatcherThread;
+    private volatile boolean running;
+
+    /**
+     * Creates the stream and registers its metrics.
+     *
+     * @param objectMapper the mapper used to serialize order summaries
+     * @param historySize the number of recent events kept for reconnecting clients
+     * @param subscriberBufferSize the number of events a subscriber may fall behind before it is disconnected
+     * @param inboxSize the number of committed changes that may wait for the dispatcher
+     * @param heartbeatIntervalMs how often a heartbeat is written to every subscriber
+     * @param subscriptionTimeoutMs how long a subscription lasts before the client has to reconnect
+     * @param meterRegistry the registry for the stream metrics
+     */
+    public OrderStatusStream(ObjectMapper objectMapper,
+                             @Value("${trade.stream.orders.history-size:10000}") int historySize,
+                             @Value("${trade.stream.orders.subscriber-buffer:256}") int subscriberBufferSize,
+                             @Value("${trade.stream.orders.inbox-size:65536}") int inboxSize,
+                             @Value("${trade.stream.orders.heartbeat-ms:15000}") long heartbeatIntervalMs,
+                             @Value("${trade.stream.orders.timeout-ms:1800000}") long subscriptionTimeoutMs,
+                             MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.subscriptionTimeoutMs = subscriptionTimeoutMs;
+        this.inbox = new ArrayBlockingQueue<>(inboxSize);
+        this.history = new OrderStatusEvent[historySize];
+
+        Gauge.builder("trade.stream.orders.subscribers", this, OrderStatusStream::getSubscriberCount)
+                .description("Clients connected to the order status stream")
+                .register(meterRegistry);
+        Gauge.builder("trade.stream.orders.pending", inbox, BlockingQueue::size)
+                .description("Committed order changes waiting to be dispatched")
+                .register(meterRegistry);
+        this.eventsCounter = Counter.builder("trade.stream.orders.events")
+                .description("Order events dispatched to the order status stream")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("trade.stream.orders.dropped")
+                .description("Order changes dropped because the dispatcher fell behind")
+                .register(meterRegistry);
+        this.slowDisconnectsCounter = Counter.builder("trade.stream.orders.disconnects")
+                .description("Subscribers disconnected for falling behind")
+                .tag("reason", "slow")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes the new state of some orders. The orders are converted now and handed to the dispatcher
+     * once the current transaction commits, so a rolled back change is never published.
+     *
+     * @param orders the changed orders
+     * @param converter converts an order to the summary sent to clients
+     */
+    public void publish(Collection<TradeOrder> orders, Function<TradeOrder, OrderSummaryDTO> converter) {
+        List<OrderSummaryDTO> summaries = new ArrayList<>(orders.size());
+        for (TradeOrder order : orders) {
+            summaries.add(converter.apply(order));
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(summaries);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(summaries);
+            }
+        });
+    }
+
+    /**
+     * Subscribes a client to the stream.
+     *
+     * @param userId the user whose orders to stream, or {@code null} for all orders
+     * @param lastEventId the ID of the last event the client received before reconnecting, or {@code null}
+     *                    for a new subscription
+     * @return the emitter the events are written to
+     */
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(subscriptionTimeoutMs);
+        OrderStatusSubscriber subscriber = new OrderStatusSubscriber(emitter, userId, subscriberBufferSize,
+                drainExecutor);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        synchronized (lock) {
+            // Queue the missed events before registering, so they reach the client ahead of any new event
+            if (lastEventId == null || !replay(subscriber, lastEventId)) {
+                subscriber.offer(controlEvent(lastEventId == null ? READY_EVENT : RESET_EVENT));
+            }
+            if (userId == null) {
+                allOrdersSubscribers.add(subscriber);
+            } else {
+                userSubscribers.computeIfAbsent(userId, id -> new ArrayList<>()).add(subscriber);
+            }
+            subscriberCount++;
+        }
+        log.debug("Order status subscriber connected for user: {}, resuming after: {}", userId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Starts the dispatcher.
+     */
+    @Override
+    public void start() {
+        running = true;
+        dispatcherThread = new Thread(this::dispatchUntilStopped, "order-status-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    /**
+     * Stops the dispatcher and closes every subscription; clients reconnect to another instance or once
+     * this one is back.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+            try {
+                dispatcherThread.join(heartbeatIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<OrderStatusSubscriber> subscribers = new ArrayList<>();
+        synchronized (lock) {
+            subscribers.addAll(allOrdersSubscribers);
+            userSubscribers.values().forEach(subscribers::addAll);
+        }
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        });
+        drainExecutor.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the embedded web server accepts requests and stops after it has stopped, so a
+     * subscription never reaches a stream that is not running.
+     */
+    @Override
+    public int getPhase() {
+        // The web server starts in phase DEFAULT_PHASE - 2048
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void enqueue(List<OrderSummaryDTO> summaries) {
+        for (OrderSummaryDTO summary : summaries) {
+            if (!inbox.offer(summary)) {
+                dropped.incrementAndGet();
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Dispatches committed changes until stopped, and writes a heartbeat to every subscriber once per
+     * heartbeat interval, so idle connections are kept open by proxies and dead ones are noticed.
+     */
+    private void dispatchUntilStopped() {
+        long droppedSeen = 0;
+        long nextHeartbeat = System.currentTimeMillis() + heartbeatIntervalMs;
+        while (running) {
+            try {
+                long wait = Math.max(0, nextHeartbeat - System.currentTimeMillis());
+                OrderSummaryDTO summary = inbox.poll(wait, TimeUnit.MILLISECONDS);
+                long droppedNow = dropped.get();
+                if (droppedNow != droppedSeen) {
+                    droppedSeen = droppedNow;
+                    markGap();
+                }
+                if (summary != null) {
+                    dispatch(summary);
+                }
+                if (System.currentTimeMillis() >= nextHeartbeat) {
+                    broadcast(heartbeat);
+                    nextHeartbeat = System.currentTimeMillis() + heartbeatIntervalMs;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to dispatch order status event", e);
+            }
+        }
+    }
+
+    private void dispatch(OrderSummaryDTO summary) throws JsonProcessingException {
+        // Only this thread assigns sequences, so the next one can be rendered before taking the lock
+        long sequence = latestSequence + 1;
+        SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .id(eventId(sequence))
+                .name(ORDER_EVENT)
+                .data(objectMapper.writeValueAsBytes(summary), MediaType.APPLICATION_JSON);
+        OrderStatusEvent event = new OrderStatusEvent(sequence, summary.getUserId(), builder.build());
+
+        synchronized (lock) {
+            history[(int) (sequence % history.length)] = event;
+            latestSequence = sequence;
+            deliver(event, allOrdersSubscribers);
+            List<OrderStatusSubscriber> subscribers = userSubscribers.get(summary.getUserId());
+            if (subscribers != null) {
+                deliver(event, subscribers);
+            }
+        }
+        eventsCounter.increment();
+    }
+
+    /**
+     * Records that changes were dropped: the gap takes up a sequence, no client can resume from before it,
+     * and every subscriber is told to reload.
+     */
+    private void markGap() {
+        synchronized (lock) {
+            latestSequence++;
+            resumeFloor = latestSequence;
+            history[(int) (latestSequence % history.length)] = null;
+        }
+        log.warn("Order status dispatcher fell behind and dropped changes; resetting all subscribers");
+        broadcast(controlEvent(RESET_EVENT));
+    }
+
+    private void broadcast(OrderStatusEvent event) {
+        synchronized (lock) {
+            deliver(event, allOrdersSubscribers);
+            // Copied, since disconnecting a user's last subscriber removes the user's entry
+            new ArrayList<>(userSubscribers.values()).forEach(subscribers -> deliver(event, subscribers));
+        }
+    }
+
+    /**
+     * Queues an event for some subscribers, disconnecting those that have fallen too far behind.
+     * Must be called holding the lock.
+     */
+    private void deliver(OrderStatusEvent event, List<OrderStatusSubscriber> subscribers) {
+        for (int i = subscribers.size() - 1; i >= 0; i--) {
+            OrderStatusSubscriber subscriber = subscribers.get(i);
+            if (!subscriber.offer(event)) {
+                slowDisconnectsCounter.increment();
+                disconnect(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Queues the events a reconnecting subscriber missed. Must be called holding the lock.
+     *
+     * @return false if the client cannot resume from the given event and has to reload instead
+     */
+    private boolean replay(OrderStatusSubscriber subscriber, String lastEventId) {
+        long after = parseSequence(lastEventId);
+        if (after < resumeFloor || after > latestSequence || latestSequence - after > history.length) {
+            return false;
+        }
+        List<OrderStatusEvent> missed = new ArrayList<>();
+        for (long sequence = after + 1; sequence <= latestSequence; sequence++) {
+            OrderStatusEvent event = history[(int) (sequence % history.length)];
+            if (event != null && subscriber.accepts(event)) {
+                missed.add(event);
+            }
+        }
+        // Leave room for new events, or the subscriber would be disconnected as soon as it is registered
+        if (missed.size() > subscriberBufferSize / 2) {
+            return false;
+        }
+        missed.forEach(subscriber::offer);
+        return true;
+    }
+
+    /**
+     * Returns the sequence of an event ID of this run, or -1 if the ID is malformed or from another run.
+     */
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Builds a control event carrying the latest sequence as its ID, which clients resume from next.
+     */
+    private OrderStatusEvent controlEvent(String name) {
+        long sequence;
+        synchronized (lock) {
+            sequence = latestSequence;
+        }
+        return new OrderStatusEvent(sequence, null, SseEmitter.event()
+                .id(eventId(sequence))
+                .name(name)
+                .data("{}", MediaType.APPLICATION_JSON)
+                .build());
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private void disconnect(OrderStatusSubscriber subscriber) {
+        subscriber.close();
+        unsubscribe(subscriber);
+        subscriber.getEmitter().complete();
+    }
+
+    private void unsubscribe(OrderStatusSubscriber subscriber) {
+        synchronized (lock) {
+            boolean removed;
+            if (subscriber.getUserId() == null) {
+                removed = allOrdersSubscribers.remove(subscriber);
+            } else {
+                List<OrderStatusSubscriber> subscribers = userSubscribers.get(subscriber.getUserId());
+                removed = subscribers != null && subscribers.remove(subscriber);
+                if (subscribers != null && subscribers.isEmpty()) {
+                    userSubscribers.remove(subscriber.getUserId());
+                }
+            }
+            if (removed) {
+                subscriberCount--;
+            }
+        }
+        subscriber.close();
+    }
+
+    private int getSubscriberCount() {
+        synchronized (lock) {
+            return subscriberCount;
+        }
+    }
+}
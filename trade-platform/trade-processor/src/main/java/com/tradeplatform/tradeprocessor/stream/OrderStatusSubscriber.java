@@ -0,0 +1,105 @@
+package com.tradeplatform.tradeprocessor.stream;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One client connected to the order status stream.
+ * <p>
+ * Events are queued per subscriber and written to the connection by a drain task, so a slow connection
+ * never holds up the dispatcher or the other subscribers. At most one drain task runs at a time. A
+ * subscriber whose queue fills up has fallen too far behind and is disconnected; it can reconnect and
+ * resume from the last event it received.
+ */
+class OrderStatusSubscriber {
+
+    @Getter
+    private final SseEmitter emitter;
+
+    /**
+     * The user whose orders the subscriber receives, or {@code null} for all orders.
+     */
+    @Getter
+    private final String userId;
+
+    private final BlockingQueue<OrderStatusEvent> queue;
+    private final Executor drainExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    OrderStatusSubscriber(SseEmitter emitter, String userId, int bufferSize, Executor drainExecutor) {
+        this.emitter = emitter;
+        this.userId = userId;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.drainExecutor = drainExecutor;
+    }
+
+    /**
+     * Queues an event for the subscriber, starting a drain task if none is running.
+     *
+     * @param event the event
+     * @return false if the queue was full, in which case the subscriber must be disconnected
+     */
+    boolean offer(OrderStatusEvent event) {
+        if (closed) {
+            return true;
+        }
+        if (!queue.offer(event)) {
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Whether the subscriber receives an event.
+     *
+     * @param event the event
+     * @return true if the event is broadcast or about one of the subscriber's orders
+     */
+    boolean accepts(OrderStatusEvent event) {
+        return event.isBroadcast() || userId == null || userId.equals(event.getUserId());
+    }
+
+    /**
+     * Stops writing to the subscriber and discards the events still queued.
+     */
+    void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            drainExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            OrderStatusEvent event;
+            while (!closed && (event = queue.poll()) != null) {
+                emitter.send(event.getFrame());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter timed out; its error or completion callback unsubscribes it
+            close();
+        } finally {
+            draining.set(false);
+        }
+        // An event queued after the last poll but before draining was cleared would otherwise wait for the next one
+        if (!closed && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
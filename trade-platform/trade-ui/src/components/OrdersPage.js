@@ -6,19 +6,41 @@ import { useNavigate } from 'react-router-dom';
 
 const OrdersPage = () => {
   const [orders, setOrders] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
   const navigate = useNavigate();
 
   useEffect(() => {
     fetchOrders();
+    // Order changes are pushed by the server instead of polled
+    return OrderService.subscribeToOrderUpdates({
+      onOrder: applyOrderUpdate,
+      onReset: fetchOrders,
+    });
   }, []);
 
+  const applyOrderUpdate = (update) => {
+    setOrders(current => {
+      const index = current.findIndex(order => order.orderId === update.orderId);
+      if (index < 0) {
+        // New orders go on top; older orders not loaded yet show up when paging
+        const isNewest = current.length === 0 || update.createdAt >= current[0].createdAt;
+        return isNewest ? [update, ...current] : current;
+      }
+      const updated = [...current];
+      updated[index] = update;
+      return updated;
+    });
+  };
+
   const fetchOrders = async () => {
     try {
       setLoading(true);
-      const data = await OrderService.getAllOrders();
-      setOrders(data);
+      const page = await OrderService.getOrders();
+      setOrders(page.orders);
+      setNextCursor(page.nextCursor);
       setError('');
     } catch (err) {
       console.error('Error fetching orders:', err);
@@ -28,6 +50,21 @@ const OrdersPage = () => {
     }
   };
 
+  const fetchMoreOrders = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await OrderService.getOrders({ after: nextCursor });
+      setOrders(current => [...current, ...page.orders]);
+      setNextCursor(page.nextCursor);
+      setError('');
+    } catch (err) {
+      console.error('Error fetching more orders:', err);
+      setError('Failed to load more orders. Please try again later.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleLogout = () => {
     AuthService.logout();
     navigate('/login');
@@ -129,6 +166,13 @@ const OrdersPage = () => {
               </Card>
             </Col>
           ))}
+          {nextCursor && (
+            <Col xs={12} className="text-center mb-4">
+              <Button variant="outline-primary" onClick={fetchMoreOrders} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </Button>
+            </Col>
+          )}
         </Row>
       )}
     </Container>
@@ -1,11 +1,12 @@
 import axios from 'axios';
 
 const API_URL = 'http://localhost:8081/api/v1';
+const STREAM_RETRY_MS = 2000;
 
 class OrderService {
-  async getAllOrders() {
+  async getOrders({ after, limit, status, symbol } = {}) {
     try {
-      const response = await axios.get(`${API_URL}/orders`);
+      const response = await axios.get(`${API_URL}/orders`, { params: { after, limit, status, symbol } });
       return response.data;
     } catch (error) {
       console.error('Error fetching orders:', error);
@@ -32,6 +33,98 @@ class OrderService {
       throw error;
     }
   }
+
+  /**
+   * Follows order state changes pushed by the order status stream. EventSource cannot send the Basic
+   * auth header, so the stream is read with fetch. After a disconnect the stream is reopened with the
+   * ID of the last event received, and only the missed changes are sent. onReset is called when the
+   * missed changes are no longer available and the orders have to be reloaded instead.
+   *
+   * Returns a function that closes the stream.
+   */
+  subscribeToOrderUpdates({ userId, onOrder, onReset }) {
+    const controller = new AbortController();
+    let lastEventId = null;
+
+    const dispatch = (event) => {
+      if (event.id) {
+        lastEventId = event.id;
+      }
+      if (event.name === 'order') {
+        onOrder(JSON.parse(event.data));
+      } else if (event.name === 'reset') {
+        onReset();
+      }
+    };
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const headers = { Accept: 'text/event-stream' };
+          const authorization = axios.defaults.headers.common['Authorization'];
+          if (authorization) {
+            headers['Authorization'] = authorization;
+          }
+          if (lastEventId) {
+            headers['Last-Event-ID'] = lastEventId;
+          }
+          const query = userId ? `?userId=${encodeURIComponent(userId)}` : '';
+          const response = await fetch(`${API_URL}/orders/stream${query}`, { headers, signal: controller.signal });
+          if (!response.ok) {
+            throw new Error(`Order stream returned ${response.status}`);
+          }
+          await readEvents(response.body, dispatch);
+        } catch (error) {
+          if (controller.signal.aborted) {
+            return;
+          }
+          console.error('Order stream disconnected:', error);
+        }
+        await new Promise(resolve => setTimeout(resolve, STREAM_RETRY_MS));
+      }
+    };
+
+    connect();
+    return () => controller.abort();
+  }
+}
+
+/**
+ * Reads server-sent events from a response body until it ends, passing each one to dispatch.
+ */
+async function readEvents(body, dispatch) {
+  const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = '';
+  let event = { id: null, name: 'message', data: '' };
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) {
+      return;
+    }
+    buffer += value;
+    let newline;
+    while ((newline = buffer.indexOf('\n')) >= 0) {
+      const line = buffer.slice(0, newline).replace(/\r$/, '');
+      buffer = buffer.slice(newline + 1);
+      if (line === '') {
+        if (event.data || event.id) {
+          dispatch(event);
+        }
+        event = { id: null, name: 'message', data: '' };
+      } else if (!line.startsWith(':')) {
+        const separator = line.indexOf(':');
+        const field = separator < 0 ? line : line.slice(0, separator);
+        const fieldValue = separator < 0 ? '' : line.slice(separator + 1).replace(/^ /, '');
+        if (field === 'id') {
+          event.id = fieldValue;
+        } else if (field === 'event') {
+          event.name = fieldValue;
+        } else if (field === 'data') {
+          event.data = event.data ? `${event.data}\n${fieldValue}` : fieldValue;
+        }
+      }
+    }
+  }
 }
 
 export default new OrderService();